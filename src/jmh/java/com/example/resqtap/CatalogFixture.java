@@ -0,0 +1,64 @@
+package com.example.resqtap;
+
+import com.example.resqtap.model.Emergency;
+import com.example.resqtap.model.Emergency.Severity;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// In-memory emergencies shaped like the seeded catalog, for benchmarks that do not need a database.
+public final class CatalogFixture {
+
+    private static final String[][] SAMPLES = {
+            {"CPR Adult", "cardiac", "Cardiopulmonary resuscitation for adults (18+ years)"},
+            {"Heart Attack", "cardiac", "Myocardial infarction requiring immediate medical attention"},
+            {"Choking Infant", "airway", "Airway obstruction in infants under 1 year"},
+            {"Severe Bleeding", "trauma", "Life-threatening hemorrhage requiring direct pressure"},
+            {"Second Degree Burn", "burns", "Partial thickness burn with blistering"},
+            {"Anaphylaxis", "allergic", "Severe allergic reaction affecting breathing and circulation"},
+            {"Heat Stroke", "environmental", "Body temperature above 104°F with altered mental state"},
+            {"Snake Bite", "bites", "Venomous or unknown snake bite"},
+            {"Drowning", "water", "Submersion with breathing difficulty or unconsciousness"},
+            {"Panic Attack", "mental-health", "Sudden episode of intense fear and physical symptoms"},
+            {"Diabetic Emergency (Low Blood Sugar)", "medical", "Hypoglycemia with confusion or shakiness"},
+            {"Knocked Out Tooth", "dental", "Permanent tooth avulsion that can be re-implanted"}
+    };
+
+    private static final String[] STEP_TEXTS = {
+            "Call 911 immediately",
+            "Check for responsiveness by tapping shoulders and shouting",
+            "Push hard and fast: 2 inches deep, 100-120 compressions per minute",
+            "Apply firm, direct pressure with a clean cloth or bandage",
+            "Cool burn under cool running water for 10-20 minutes",
+            "Keep person calm and still; reassure them that help is coming",
+            "Monitor breathing and be ready to start CPR if they become unresponsive",
+            "Do not give food or water until evaluated by a medical professional"
+    };
+
+    private static final Severity[] SEVERITIES = Severity.values();
+
+    private CatalogFixture() {
+    }
+
+    public static List<Emergency> emergencies(int count) {
+        List<Emergency> emergencies = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            emergencies.add(emergency(i));
+        }
+        return emergencies;
+    }
+
+    public static Emergency emergency(int index) {
+        String[] sample = SAMPLES[index % SAMPLES.length];
+        String name = index < SAMPLES.length ? sample[0] : sample[0] + " " + (index / SAMPLES.length);
+        Emergency emergency = new Emergency(name, sample[1], SEVERITIES[index % SEVERITIES.length], sample[2],
+                "/images/" + sample[1] + "/" + name.toLowerCase().replace(' ', '-') + ".jpg");
+        emergency.setId((long) index + 1);
+        int steps = 5 + index % 4;
+        for (int s = 1; s <= steps; s++) {
+            emergency.addStep(s, STEP_TEXTS[(index + s) % STEP_TEXTS.length],
+                    "/images/" + sample[1] + "/step_" + s + ".png");
+        }
+        return emergency;
+    }
+}
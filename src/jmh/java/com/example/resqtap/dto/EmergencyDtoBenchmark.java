@@ -0,0 +1,42 @@
+package com.example.resqtap.dto;
+
+import com.example.resqtap.CatalogFixture;
+import com.example.resqtap.mapper.EmergencyMapper;
+import com.example.resqtap.model.Emergency;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+// Per-emergency mapping cost on the read path: DTO construction, slug regex chains and the frontend mapper.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EmergencyDtoBenchmark {
+
+    private Emergency emergency;
+    private EmergencyMapper mapper;
+
+    @Setup
+    public void setUp() {
+        emergency = CatalogFixture.emergency(10);
+        mapper = new EmergencyMapper();
+    }
+
+    @Benchmark
+    public EmergencyDTO newEmergencyDto() {
+        return new EmergencyDTO(emergency);
+    }
+
+    @Benchmark
+    public String slugify() {
+        return EmergencyDTO.slugify(emergency.getName());
+    }
+
+    @Benchmark
+    public EmergencyResponseDto mapperToDto() {
+        return mapper.toDto(emergency);
+    }
+}
@@ -0,0 +1,100 @@
+package com.example.resqtap.service;
+
+import com.example.resqtap.CatalogFixture;
+import com.example.resqtap.dto.CompactCatalog;
+import com.example.resqtap.dto.EmergencyDTO;
+import com.example.resqtap.web.ContentCoding;
+import com.example.resqtap.web.EncodedPayload;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileGenerator;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Whole-catalog serialization costs: JSON vs the compact Smile form (encode and decode),
+ * and on-the-fly gzip per request vs handing out the precompressed variant.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CatalogSerializationBenchmark {
+
+    private static final TypeReference<List<EmergencyDTO>> DTO_LIST = new TypeReference<>() {};
+
+    @Param({"72", "2000"})
+    public int emergencies;
+
+    private ObjectMapper jsonMapper;
+    private ObjectMapper smileMapper;
+    private List<EmergencyDTO> dtos;
+    private byte[] json;
+    private byte[] smile;
+    private EncodedPayload precompressed;
+
+    @Setup
+    public void setUp() throws IOException {
+        jsonMapper = Jackson2ObjectMapperBuilder.json().build();
+        smileMapper = jsonMapper.copyWith(SmileFactory.builder()
+                .enable(SmileGenerator.Feature.CHECK_SHARED_STRING_VALUES)
+                .build());
+        dtos = CatalogFixture.emergencies(emergencies).stream()
+                .map(EmergencyDTO::new)
+                .collect(Collectors.toList());
+        json = jsonMapper.writeValueAsBytes(dtos);
+        smile = smileMapper.writeValueAsBytes(CompactCatalog.from(dtos));
+        precompressed = EncodedPayload.of(json);
+    }
+
+    @Benchmark
+    public byte[] encodeJson() throws IOException {
+        return jsonMapper.writeValueAsBytes(dtos);
+    }
+
+    @Benchmark
+    public byte[] encodeSmile() throws IOException {
+        return smileMapper.writeValueAsBytes(CompactCatalog.from(dtos));
+    }
+
+    @Benchmark
+    public List<EmergencyDTO> decodeJson() throws IOException {
+        return jsonMapper.readValue(json, DTO_LIST);
+    }
+
+    @Benchmark
+    public List<EmergencyDTO> decodeSmile() throws IOException {
+        return smileMapper.readValue(smile, CompactCatalog.class).toEmergencies();
+    }
+
+    // What a servlet container's response compression spends on every request
+    @Benchmark
+    public byte[] gzipPerRequest() throws IOException {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream(json.length / 4);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(buffer)) {
+            gzip.write(json);
+        }
+        return buffer.toByteArray();
+    }
+
+    // One-off cost paid per catalog revision instead
+    @Benchmark
+    public byte[] brotliPerRevision() {
+        return ContentCoding.BROTLI.encode(json);
+    }
+
+    @Benchmark
+    public byte[] precompressedPerRequest() {
+        return precompressed.get(precompressed.negotiate("gzip, deflate, br"));
+    }
+}
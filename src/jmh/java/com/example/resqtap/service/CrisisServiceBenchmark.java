@@ -0,0 +1,40 @@
+package com.example.resqtap.service;
+
+import com.example.resqtap.model.CrisisPlan;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CrisisServiceBenchmark {
+
+    @Param({"72", "1000"})
+    public int plans;
+
+    private CrisisService crisisService;
+
+    @Setup
+    public void setUp() {
+        crisisService = new CrisisService();
+        for (int i = 0; i < plans; i++) {
+            crisisService.createPlan(new CrisisPlan("Plan " + i, i % 2 == 0 ? "Medical" : "Safety",
+                    List.of("Stay calm", "Call 911", "Apply pressure to the wound"), "911", "/images/plan.png"));
+        }
+    }
+
+    @Benchmark
+    public List<CrisisPlan> searchHit() {
+        return crisisService.search("pressure");
+    }
+
+    @Benchmark
+    public List<CrisisPlan> searchMiss() {
+        return crisisService.search("earthquake");
+    }
+}
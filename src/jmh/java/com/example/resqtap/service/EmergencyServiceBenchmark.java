@@ -0,0 +1,103 @@
+package com.example.resqtap.service;
+
+import com.example.resqtap.ResqtapApplication;
+import com.example.resqtap.dto.EmergencyDTO;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+// Cached vs uncached EmergencyService lookups against the seeded dev (H2) catalog,
+// optionally grown with synthetic emergencies (scale profile).
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class EmergencyServiceBenchmark {
+
+    @Param({"0", "5000"})
+    public int syntheticEmergencies;
+
+    private ConfigurableApplicationContext context;
+    private EmergencyService emergencyService;
+    private CatalogFacetIndex catalogFacetIndex;
+    private CacheManager cacheManager;
+    private Long id;
+
+    @Setup(Level.Trial)
+    public void startApplication() {
+        // Command-line arguments, so they win over the debug logging in application-dev.yml
+        context = new SpringApplicationBuilder(ResqtapApplication.class)
+                .profiles(syntheticEmergencies > 0 ? new String[]{"dev", "scale"} : new String[]{"dev"})
+                .run("--server.port=0",
+                        "--resqtap.generator.emergencies=" + syntheticEmergencies,
+                        "--spring.jpa.show-sql=false",
+                        "--logging.level.root=WARN",
+                        "--logging.level.com.example.resqtap=WARN",
+                        "--logging.level.org.springframework.web=WARN",
+                        "--logging.level.org.hibernate.SQL=WARN",
+                        "--logging.level.org.hibernate.type.descriptor.sql=WARN");
+        emergencyService = context.getBean(EmergencyService.class);
+        catalogFacetIndex = context.getBean(CatalogFacetIndex.class);
+        cacheManager = context.getBean(CacheManager.class);
+        id = emergencyService.getAllEmergencies().get(0).getId();
+    }
+
+    @TearDown(Level.Trial)
+    public void stopApplication() {
+        context.close();
+    }
+
+    public void clearCaches() {
+        cacheManager.getCacheNames().forEach(name -> cacheManager.getCache(name).clear());
+    }
+
+    @Benchmark
+    public Optional<EmergencyDTO> byIdCached() {
+        return emergencyService.getEmergencyById(id);
+    }
+
+    @Benchmark
+    public Optional<EmergencyDTO> byIdUncached() {
+        clearCaches();
+        return emergencyService.getEmergencyById(id);
+    }
+
+    @Benchmark
+    public Optional<EmergencyDTO> bySlugCached() {
+        return emergencyService.getEmergencyBySlug("cpr-adult");
+    }
+
+    @Benchmark
+    public Optional<EmergencyDTO> bySlugUncached() {
+        clearCaches();
+        return emergencyService.getEmergencyBySlug("cpr-adult");
+    }
+
+    @Benchmark
+    public List<EmergencyDTO> allCached() {
+        return emergencyService.getAllEmergencies();
+    }
+
+    @Benchmark
+    public List<EmergencyDTO> allUncached() {
+        clearCaches();
+        return emergencyService.getAllEmergencies();
+    }
+
+    @Benchmark
+    public List<EmergencyDTO> search() {
+        return emergencyService.search("burn");
+    }
+
+    @Benchmark
+    public CatalogFacetIndex.FacetedResult facetFilter() {
+        return catalogFacetIndex.filter(List.of("burns", "trauma"), List.of("HIGH", "CRITICAL"));
+    }
+}
@@ -0,0 +1,71 @@
+package com.example.resqtap.web;
+
+import com.example.resqtap.CatalogFixture;
+import com.example.resqtap.dto.EmergencyDTO;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Serializing emergency lists the way dynamic responses do (search results, batch, the full list):
+ * default bean introspection and Blackbird's generated accessors, which the application installs.
+ * Setup fails unless both produce the same bytes.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EmergencyJsonBenchmark {
+
+    // A page of search results and the seed catalog
+    @Param({"10", "72"})
+    public int emergencies;
+
+    private ObjectMapper reflective;
+    private ObjectMapper blackbird;
+    private List<EmergencyDTO> dtos;
+
+    @Setup
+    public void setUp() throws IOException {
+        reflective = Jackson2ObjectMapperBuilder.json().build();
+        blackbird = Jackson2ObjectMapperBuilder.json().modulesToInstall(new BlackbirdModule()).build();
+        dtos = CatalogFixture.emergencies(emergencies).stream()
+                .map(EmergencyDTO::new)
+                .collect(Collectors.toList());
+        byte[] expected = reflective.writeValueAsBytes(dtos);
+        if (!Arrays.equals(expected, blackbird.writeValueAsBytes(dtos))) {
+            throw new IllegalStateException("Serializers disagree");
+        }
+    }
+
+    @Benchmark
+    public byte[] reflectiveBytes() throws IOException {
+        return reflective.writeValueAsBytes(dtos);
+    }
+
+    @Benchmark
+    public byte[] blackbirdBytes() throws IOException {
+        return blackbird.writeValueAsBytes(dtos);
+    }
+
+    // As the message converter does: straight onto the response stream, without an intermediate byte[]
+    @Benchmark
+    public void reflectiveStream() throws IOException {
+        reflective.writeValue(OutputStream.nullOutputStream(), dtos);
+    }
+
+    @Benchmark
+    public void blackbirdStream() throws IOException {
+        blackbird.writeValue(OutputStream.nullOutputStream(), dtos);
+    }
+}
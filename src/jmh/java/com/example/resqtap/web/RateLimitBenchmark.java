@@ -0,0 +1,81 @@
+package com.example.resqtap.web;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-request cost of the rate limiter: a bare token bucket (alone and contended across threads),
+ * the bucket lookup among many clients, and the whole filter against the same filter switched off.
+ * Limits are set high enough that nothing is refused, so only bookkeeping is measured.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RateLimitBenchmark {
+
+    private static final FilterChain NOOP_CHAIN = (request, response) -> { };
+
+    @Param({"10000"})
+    public int clients;
+
+    private TokenBucket bucket;
+    private RateLimiter limiter;
+    private String[] clientKeys;
+    private RateLimitFilter limited;
+    private RateLimitFilter disabled;
+    private MockHttpServletRequest request;
+
+    @Setup
+    public void setUp() {
+        bucket = new TokenBucket(Integer.MAX_VALUE / 2, 1, System.nanoTime());
+        limiter = new RateLimiter(Integer.MAX_VALUE / 2, 1e9, clients * 2L);
+        clientKeys = new String[clients];
+        for (int i = 0; i < clients; i++) {
+            clientKeys[i] = "ip:10." + (i >> 16 & 255) + "." + (i >> 8 & 255) + "." + (i & 255);
+            limiter.tryAcquire(clientKeys[i]);
+        }
+        limited = new RateLimitFilter(true, Integer.MAX_VALUE / 2, 1e9, 1, 1, clients * 2L, new SimpleMeterRegistry());
+        disabled = new RateLimitFilter(false, 1, 1, 1, 1, 1, new SimpleMeterRegistry());
+        request = new MockHttpServletRequest("GET", "/api/emergencies/search");
+        request.setRemoteAddr("10.0.0.1");
+    }
+
+    @Benchmark
+    public long tokenBucket() {
+        return bucket.tryConsume(System.nanoTime());
+    }
+
+    @Benchmark
+    @Threads(4)
+    public long tokenBucketContended() {
+        return bucket.tryConsume(System.nanoTime());
+    }
+
+    @Benchmark
+    public RateLimiter.Decision limiterAcrossClients() {
+        return limiter.tryAcquire(clientKeys[ThreadLocalRandom.current().nextInt(clients)]);
+    }
+
+    @Benchmark
+    public MockHttpServletResponse filterDisabled() throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        disabled.doFilter(request, response, NOOP_CHAIN);
+        return response;
+    }
+
+    @Benchmark
+    public MockHttpServletResponse filterEnabled() throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        limited.doFilter(request, response, NOOP_CHAIN);
+        return response;
+    }
+}
@@ -0,0 +1,228 @@
+package com.example.resqtap.loadtest;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.DelayQueue;
+import java.util.concurrent.Delayed;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Time-to-interactive of the home screen over a throttled connection: the separate calls the app
+ * used to make on launch (catalog, critical list, one lookup per favorite, all in parallel on fresh
+ * connections) against a single {@code GET /api/bootstrap}.
+ * <p>
+ * Traffic goes through a local proxy that adds latency, caps bandwidth and charges
+ * {@code loadtest.bootstrap.handshakeRoundTrips} extra round trips per new connection (TCP + TLS).
+ * <p>
+ * Run against a running app: {@code ./mvnw -Ploadtest test-compile exec:java@bootstrap}
+ * <p>
+ * Settings: {@code loadtest.baseUrl}, {@code loadtest.bootstrap.rttMillis} (300),
+ * {@code loadtest.bootstrap.kbps} (400), {@code loadtest.bootstrap.handshakeRoundTrips} (2),
+ * {@code loadtest.bootstrap.favorites} (5), {@code loadtest.bootstrap.runs} (5).
+ */
+public class BootstrapProbe {
+
+    public static void main(String[] args) throws Exception {
+        URI target = URI.create(System.getProperty("loadtest.baseUrl", "http://localhost:8080"));
+        long rttMillis = Long.getLong("loadtest.bootstrap.rttMillis", 300L);
+        int kbps = Integer.getInteger("loadtest.bootstrap.kbps", 400);
+        int handshakeRoundTrips = Integer.getInteger("loadtest.bootstrap.handshakeRoundTrips", 2);
+        int favoriteCount = Integer.getInteger("loadtest.bootstrap.favorites", 5);
+        int runs = Integer.getInteger("loadtest.bootstrap.runs", 5);
+
+        List<Long> favorites = favoriteIds(target, favoriteCount);
+        String favoriteList = favorites.stream().map(String::valueOf).collect(Collectors.joining(","));
+
+        try (ThrottlingProxy proxy = new ThrottlingProxy(target, rttMillis, kbps * 1000 / 8, handshakeRoundTrips)) {
+            String base = "http://localhost:" + proxy.getPort();
+            List<String> separate = new ArrayList<>(List.of("/api/emergencies", "/api/emergencies/critical"));
+            favorites.forEach(id -> separate.add("/api/emergencies/" + id));
+            List<String> combined = List.of("/api/bootstrap?favorites=" + favoriteList);
+
+            System.out.printf("Throttled link: rtt=%d ms, %d kbit/s, %d handshake round trips per connection%n",
+                    rttMillis, kbps, handshakeRoundTrips);
+            report("separate calls (" + separate.size() + ")", base, separate, runs);
+            report("bootstrap", base, combined, runs);
+        }
+    }
+
+    private static void report(String name, String base, List<String> paths, int runs) throws Exception {
+        long[] millis = new long[runs];
+        long bytes = 0;
+        for (int run = 0; run < runs; run++) {
+            long start = System.nanoTime();
+            bytes = fetchAll(base, paths);
+            millis[run] = (System.nanoTime() - start) / 1_000_000;
+        }
+        Arrays.sort(millis);
+        System.out.printf("%-24s time-to-interactive min=%d ms median=%d ms max=%d ms, %d B transferred%n",
+                name, millis[0], millis[runs / 2], millis[runs - 1], bytes);
+    }
+
+    // Each request on its own fresh connection, as on a cold app launch
+    private static long fetchAll(String base, List<String> paths) {
+        List<CompletableFuture<HttpResponse<byte[]>>> responses = new ArrayList<>();
+        for (String path : paths) {
+            HttpClient client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+            HttpRequest request = HttpRequest.newBuilder(URI.create(base + path))
+                    .header("Accept-Encoding", "gzip")
+                    .timeout(Duration.ofMinutes(2))
+                    .GET().build();
+            responses.add(client.sendAsync(request, HttpResponse.BodyHandlers.ofByteArray()));
+        }
+        long bytes = 0;
+        for (CompletableFuture<HttpResponse<byte[]>> response : responses) {
+            HttpResponse<byte[]> completed = response.join();
+            if (completed.statusCode() != 200) {
+                throw new IllegalStateException(completed.uri() + " answered " + completed.statusCode());
+            }
+            bytes += completed.body().length;
+        }
+        return bytes;
+    }
+
+    private static List<Long> favoriteIds(URI target, int count) throws Exception {
+        HttpClient client = HttpClient.newHttpClient();
+        String body = client.send(HttpRequest.newBuilder(target.resolve("/api/emergencies/critical")).build(),
+                HttpResponse.BodyHandlers.ofString()).body();
+        List<Long> ids = new ArrayList<>();
+        int at = 0;
+        while (ids.size() < count && (at = body.indexOf("\"id\":", at)) >= 0) {
+            at += 5;
+            int end = at;
+            while (Character.isDigit(body.charAt(end))) {
+                end++;
+            }
+            ids.add(Long.parseLong(body.substring(at, end)));
+        }
+        return ids;
+    }
+
+    /**
+     * TCP proxy that delivers every chunk half a round trip late, with all connections sharing the
+     * given bandwidth per direction, and holds back a new connection's first request for the handshake.
+     */
+    static final class ThrottlingProxy implements AutoCloseable {
+
+        private final ServerSocket server;
+        private final URI target;
+        private final long oneWayNanos;
+        private final long bytesPerSecond;
+        private final long handshakeNanos;
+        private final Link uplink = new Link();
+        private final Link downlink = new Link();
+
+        ThrottlingProxy(URI target, long rttMillis, long bytesPerSecond, int handshakeRoundTrips) throws IOException {
+            this.server = new ServerSocket(0);
+            this.target = target;
+            this.oneWayNanos = TimeUnit.MILLISECONDS.toNanos(rttMillis) / 2;
+            this.bytesPerSecond = bytesPerSecond;
+            this.handshakeNanos = TimeUnit.MILLISECONDS.toNanos(rttMillis) * handshakeRoundTrips;
+            Thread acceptor = new Thread(this::accept, "throttling-proxy");
+            acceptor.setDaemon(true);
+            acceptor.start();
+        }
+
+        int getPort() {
+            return server.getLocalPort();
+        }
+
+        private void accept() {
+            while (!server.isClosed()) {
+                try {
+                    Socket client = server.accept();
+                    Socket upstream = new Socket();
+                    upstream.connect(new InetSocketAddress(target.getHost(), target.getPort()));
+                    long openedAt = System.nanoTime();
+                    pipe(client.getInputStream(), upstream.getOutputStream(), uplink, openedAt + handshakeNanos);
+                    pipe(upstream.getInputStream(), client.getOutputStream(), downlink, 0);
+                } catch (IOException e) {
+                    // Closed
+                }
+            }
+        }
+
+        private void pipe(InputStream in, OutputStream out, Link link, long notBefore) {
+            DelayQueue<Chunk> queue = new DelayQueue<>();
+            Thread reader = new Thread(() -> {
+                byte[] buffer = new byte[8192];
+                long lastDelivery = notBefore;
+                try {
+                    int read;
+                    while ((read = in.read(buffer)) >= 0) {
+                        long sent = link.send(read * 1_000_000_000L / bytesPerSecond, Math.max(System.nanoTime(), notBefore));
+                        long deliverAt = Math.max(sent + oneWayNanos, lastDelivery);
+                        lastDelivery = deliverAt;
+                        queue.add(new Chunk(Arrays.copyOf(buffer, read), deliverAt));
+                    }
+                } catch (IOException e) {
+                    // Connection closed
+                }
+                queue.add(new Chunk(null, lastDelivery + 1));
+            });
+            Thread writer = new Thread(() -> {
+                try {
+                    while (true) {
+                        Chunk chunk = queue.take();
+                        if (chunk.bytes == null) {
+                            break;
+                        }
+                        out.write(chunk.bytes);
+                        out.flush();
+                    }
+                    out.close();
+                } catch (IOException | InterruptedException e) {
+                    // Connection closed
+                }
+            });
+            reader.setDaemon(true);
+            writer.setDaemon(true);
+            reader.start();
+            writer.start();
+        }
+
+        @Override
+        public void close() throws IOException {
+            server.close();
+        }
+
+        // One direction of the shared link: chunks from all connections queue for it in turn
+        private static final class Link {
+
+            private long freeAt;
+
+            // Returns when a transfer of the given duration, ready at the given time, has left the sender
+            synchronized long send(long transferNanos, long readyAt) {
+                freeAt = Math.max(freeAt, readyAt) + transferNanos;
+                return freeAt;
+            }
+        }
+
+        private record Chunk(byte[] bytes, long deliverAt) implements Delayed {
+
+            @Override
+            public long getDelay(TimeUnit unit) {
+                return unit.convert(deliverAt - System.nanoTime(), TimeUnit.NANOSECONDS);
+            }
+
+            @Override
+            public int compareTo(Delayed other) {
+                return Long.compare(deliverAt, ((Chunk) other).deliverAt);
+            }
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package com.example.resqtap.loadtest;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Measures time-to-first-request: starts the app, polls the catalog endpoint until it answers 200,
+ * stops the app, and repeats. Time is counted from process launch, so JVM startup is included.
+ * Resident memory of the app's processes is read at that first 200 (Linux only; -1 elsewhere), so the
+ * JVM, AOT-processed and native builds ({@code -Pnative}) can be compared on both.
+ * <p>
+ * Run: {@code ./mvnw -Ploadtest test-compile exec:java@cold-start -Dexec.args="java -jar target/resqtap-0.0.1-SNAPSHOT.jar --spring.profiles.active=dev"}
+ * or with {@code -Dexec.args="target/resqtap --spring.profiles.active=dev"} for the native image.
+ * <p>
+ * Settings: {@code loadtest.baseUrl}, {@code loadtest.coldStart.runs} (5),
+ * {@code loadtest.coldStart.path} (/api/crisis-plans), {@code loadtest.coldStart.timeoutSeconds} (120).
+ */
+public class ColdStartProbe {
+
+    public static void main(String[] args) throws Exception {
+        if (args.length == 0) {
+            System.err.println("Usage: ColdStartProbe <command to start the app...>");
+            System.exit(2);
+        }
+        String baseUrl = System.getProperty("loadtest.baseUrl", "http://localhost:8080");
+        int runs = Integer.getInteger("loadtest.coldStart.runs", 5);
+        String path = System.getProperty("loadtest.coldStart.path", "/api/crisis-plans");
+        Duration timeout = Duration.ofSeconds(Long.getLong("loadtest.coldStart.timeoutSeconds", 120L));
+
+        HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofMillis(200)).build();
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + path)).GET().build();
+
+        List<Long> results = new ArrayList<>();
+        List<Long> residentKiB = new ArrayList<>();
+        for (int run = 1; run <= runs; run++) {
+            long[] measured = measure(Arrays.asList(args), client, request, timeout);
+            results.add(measured[0]);
+            residentKiB.add(measured[1]);
+            System.out.printf("run %d: first 200 after %d ms, RSS %d MiB%n", run, measured[0], measured[1] / 1024);
+        }
+        results.sort(null);
+        residentKiB.sort(null);
+        System.out.printf("time-to-first-request over %d runs: min=%d ms median=%d ms max=%d ms%n",
+                runs, results.get(0), results.get(results.size() / 2), results.get(results.size() - 1));
+        System.out.printf("RSS at first request over %d runs: min=%d MiB median=%d MiB max=%d MiB%n",
+                runs, residentKiB.get(0) / 1024, residentKiB.get(residentKiB.size() / 2) / 1024,
+                residentKiB.get(residentKiB.size() - 1) / 1024);
+    }
+
+    // Time to the first 200 in milliseconds, and the resident set at that point in KiB
+    private static long[] measure(List<String> command, HttpClient client, HttpRequest request, Duration timeout)
+            throws Exception {
+        File log = File.createTempFile("resqtap-cold-start", ".log");
+        long start = System.nanoTime();
+        Process process = new ProcessBuilder(command)
+                .redirectErrorStream(true)
+                .redirectOutput(log)
+                .start();
+        try {
+            long deadline = start + timeout.toNanos();
+            while (System.nanoTime() < deadline) {
+                if (!process.isAlive()) {
+                    throw new IllegalStateException("App exited with " + process.exitValue() + ", see " + log);
+                }
+                try {
+                    if (client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() == 200) {
+                        long millis = (System.nanoTime() - start) / 1_000_000;
+                        return new long[]{millis, residentKiB(process.toHandle())};
+                    }
+                } catch (IOException e) {
+                    // Not listening yet
+                }
+                Thread.sleep(10);
+            }
+            throw new IllegalStateException("No 200 within " + timeout + ", see " + log);
+        } finally {
+            process.descendants().forEach(ProcessHandle::destroy);
+            process.destroy();
+            process.waitFor();
+        }
+    }
+
+    // Summed over the process and its descendants, for launch commands that wrap the app in a shell
+    private static long residentKiB(ProcessHandle process) {
+        long total = 0;
+        for (ProcessHandle handle : Stream.concat(Stream.of(process), process.descendants()).toList()) {
+            Path status = Path.of("/proc", Long.toString(handle.pid()), "status");
+            try {
+                for (String line : Files.readAllLines(status)) {
+                    if (line.startsWith("VmRSS:")) {
+                        total += Long.parseLong(line.replaceAll("[^0-9]", ""));
+                    }
+                }
+            } catch (IOException e) {
+                return -1;
+            }
+        }
+        return total;
+    }
+}
@@ -0,0 +1,39 @@
+package com.example.resqtap.loadtest;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+// Latency histogram (microseconds) and response status counts for one endpoint class.
+public class EndpointStats {
+
+    private static final long MAX_TRACKABLE_MICROS = TimeUnit.MINUTES.toMicros(2);
+
+    private final Histogram latency = new ConcurrentHistogram(MAX_TRACKABLE_MICROS, 3);
+    private final Map<String, LongAdder> statuses = new ConcurrentHashMap<>();
+
+    public void record(long latencyNanos, String status) {
+        long micros = Math.min(Math.max(1, latencyNanos / 1_000), MAX_TRACKABLE_MICROS);
+        latency.recordValue(micros);
+        statuses.computeIfAbsent(status, s -> new LongAdder()).increment();
+    }
+
+    public Histogram getLatency() {
+        return latency;
+    }
+
+    public Map<String, Long> getStatuses() {
+        Map<String, Long> counts = new TreeMap<>();
+        statuses.forEach((status, count) -> counts.put(status, count.sum()));
+        return counts;
+    }
+
+    public long getCount() {
+        return latency.getTotalCount();
+    }
+}
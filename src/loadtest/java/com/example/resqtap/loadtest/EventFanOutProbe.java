@@ -0,0 +1,96 @@
+package com.example.resqtap.loadtest;
+
+import java.io.BufferedReader;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Opens many idle {@code /api/emergencies/events} streams, makes one admin edit, and reports how
+ * long it takes until every stream has received the revision notice.
+ * <p>
+ * Run against a running app: {@code ./mvnw -Ploadtest test-compile exec:java@event-fan-out}
+ * <p>
+ * Settings: {@code loadtest.baseUrl}, {@code loadtest.events.connections} (1000),
+ * {@code loadtest.events.emergencyId} (1).
+ */
+public class EventFanOutProbe {
+
+    public static void main(String[] args) throws Exception {
+        URI base = URI.create(System.getProperty("loadtest.baseUrl", "http://localhost:8080"));
+        int connections = Integer.getInteger("loadtest.events.connections", 1000);
+        long emergencyId = Long.getLong("loadtest.events.emergencyId", 1L);
+
+        CountDownLatch connected = new CountDownLatch(connections);
+        CountDownLatch notified = new CountDownLatch(connections);
+        long[] receivedAt = new long[connections];
+        // Over HTTP/1.1 every open stream holds its own connection
+        HttpClient client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+        HttpRequest subscribe = HttpRequest.newBuilder(base.resolve("/api/emergencies/events"))
+                .header("Accept", "text/event-stream")
+                .GET().build();
+        for (int i = 0; i < connections; i++) {
+            int index = i;
+            HttpResponse<InputStream> response = client.send(subscribe, HttpResponse.BodyHandlers.ofInputStream());
+            Thread reader = new Thread(() -> read(response.body(), index, connected, notified, receivedAt));
+            reader.setDaemon(true);
+            reader.start();
+        }
+        if (!connected.await(60, TimeUnit.SECONDS)) {
+            throw new IllegalStateException((connections - connected.getCount()) + " of " + connections + " streams opened");
+        }
+        System.out.printf("%d event streams open%n", connections);
+
+        HttpRequest edit = HttpRequest.newBuilder(base.resolve("/api/emergencies/" + emergencyId + "?role=admin"))
+                .header("Content-Type", "application/merge-patch+json")
+                .method("PATCH", HttpRequest.BodyPublishers.ofString(
+                        "{\"shortDescription\": \"Edited by EventFanOutProbe at " + System.currentTimeMillis() + "\"}"))
+                .timeout(Duration.ofSeconds(30))
+                .build();
+        long start = System.nanoTime();
+        int status = client.send(edit, HttpResponse.BodyHandlers.discarding()).statusCode();
+        long answered = System.nanoTime();
+        if (status != 200) {
+            throw new IllegalStateException("Edit answered " + status);
+        }
+        if (!notified.await(60, TimeUnit.SECONDS)) {
+            System.out.printf("only %d of %d streams notified%n", connections - notified.getCount(), connections);
+        }
+        long[] latencies = Arrays.stream(receivedAt).filter(at -> at > 0).map(at -> (at - start) / 1_000_000).sorted().toArray();
+        // Notices go out after the commit, usually before the edit's own response arrives
+        System.out.printf("edit answered after %d ms; notice after edit sent: p50=%d ms p99=%d ms max=%d ms over %d streams%n",
+                (answered - start) / 1_000_000, latencies[latencies.length / 2],
+                latencies[(int) (latencies.length * 0.99)], latencies[latencies.length - 1], latencies.length);
+    }
+
+    // The first event is the current version; the next one is the notice for the edit
+    private static void read(InputStream body, int index, CountDownLatch connected, CountDownLatch notified,
+                             long[] receivedAt) {
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8))) {
+            int events = 0;
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.startsWith("event:")) {
+                    events++;
+                    if (events == 1) {
+                        connected.countDown();
+                    } else {
+                        receivedAt[index] = System.nanoTime();
+                        notified.countDown();
+                        return;
+                    }
+                }
+            }
+        } catch (Exception e) {
+            // Stream closed
+        }
+    }
+}
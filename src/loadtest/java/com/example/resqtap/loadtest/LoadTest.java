@@ -0,0 +1,107 @@
+package com.example.resqtap.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Open-loop HTTP load generator for a locally running app (dev profile).
+ * <p>
+ * User actions are started at a fixed rate whether or not earlier responses have come back, and
+ * every latency is measured from the moment the request was <em>supposed</em> to start. Queueing
+ * behind a slow server is therefore counted instead of hidden (no coordinated omission).
+ * <p>
+ * Run: {@code ./mvnw -Ploadtest test-compile exec:java@loadtest -Dloadtest.rate=300 -Dloadtest.label=my-change}
+ */
+public class LoadTest {
+
+    // Pause between keystrokes when a user types a search term
+    private static final long KEYSTROKE_NANOS = TimeUnit.MILLISECONDS.toNanos(150);
+
+    public static void main(String[] args) throws Exception {
+        LoadTestConfig config = LoadTestConfig.fromSystemProperties();
+        ObjectMapper objectMapper = new ObjectMapper();
+        HttpClient client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+
+        JsonNode catalog = objectMapper.readTree(client.send(
+                HttpRequest.newBuilder(URI.create(config.getBaseUrl() + "/api/emergencies")).build(),
+                HttpResponse.BodyHandlers.ofByteArray()).body());
+        RequestMix mix = new RequestMix(config.getMix(), config.getBaseUrl(), config.getWriteRatio(), objectMapper, catalog);
+
+        System.out.printf("Load test '%s': %d actions/s against %s, %ds warm-up + %ds measured%n",
+                config.getLabel(), config.getRate(), config.getBaseUrl(), config.getWarmup().toSeconds(),
+                config.getDuration().toSeconds());
+
+        Map<String, EndpointStats> stats = new ConcurrentHashMap<>();
+        AtomicInteger inFlight = new AtomicInteger();
+        ScheduledThreadPoolExecutor scheduler = new ScheduledThreadPoolExecutor(config.getWorkers());
+        SplittableRandom random = new SplittableRandom(config.getSeed());
+
+        long intervalNanos = TimeUnit.SECONDS.toNanos(1) / config.getRate();
+        long start = System.nanoTime();
+        long measureFrom = start + config.getWarmup().toNanos();
+        long end = measureFrom + config.getDuration().toNanos();
+
+        for (long intended = start; intended < end; intended += intervalNanos) {
+            long wait = intended - System.nanoTime();
+            if (wait > 0) {
+                LockSupport.parkNanos(wait);
+            }
+            List<RequestMix.Request> action = mix.next(random);
+            for (int i = 0; i < action.size(); i++) {
+                RequestMix.Request request = action.get(i);
+                long scheduledAt = intended + i * KEYSTROKE_NANOS;
+                boolean measured = scheduledAt >= measureFrom && scheduledAt < end;
+                inFlight.incrementAndGet();
+                scheduler.schedule(() -> execute(client, request, scheduledAt, measured, stats, inFlight),
+                        scheduledAt - System.nanoTime(), TimeUnit.NANOSECONDS);
+            }
+        }
+
+        long drainDeadline = System.nanoTime() + TimeUnit.MINUTES.toNanos(2);
+        while (inFlight.get() > 0 && System.nanoTime() < drainDeadline) {
+            Thread.sleep(50);
+        }
+        scheduler.shutdown();
+
+        LoadTestReport report = LoadTestReport.of(config, new TreeMap<>(stats));
+        report.print(System.out);
+        Path written = report.write(objectMapper, Path.of(config.getReportDir()));
+        System.out.println("Report written to " + written);
+    }
+
+    // Sent asynchronously so a slow server never holds back the schedule of later requests
+    private static void execute(HttpClient client, RequestMix.Request request, long scheduledAt, boolean measured,
+                                Map<String, EndpointStats> stats, AtomicInteger inFlight) {
+        client.sendAsync(request.getHttpRequest(), HttpResponse.BodyHandlers.discarding())
+                .whenComplete((response, error) -> {
+                    long latency = System.nanoTime() - scheduledAt;
+                    if (measured) {
+                        String status = error == null
+                                ? Integer.toString(response.statusCode())
+                                : error.getClass().getSimpleName();
+                        stats.computeIfAbsent(request.getEndpoint(), endpoint -> new EndpointStats())
+                                .record(latency, status);
+                    }
+                    inFlight.decrementAndGet();
+                });
+    }
+}
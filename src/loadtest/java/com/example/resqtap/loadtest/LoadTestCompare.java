@@ -0,0 +1,47 @@
+package com.example.resqtap.loadtest;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.File;
+import java.io.IOException;
+
+/**
+ * Prints per-endpoint deltas between two load test reports.
+ * <p>
+ * Run: {@code ./mvnw -Ploadtest test-compile exec:java@loadtest-compare -Dexec.args="before.json after.json"}
+ */
+public class LoadTestCompare {
+
+    public static void main(String[] args) throws IOException {
+        if (args.length != 2) {
+            System.err.println("Usage: LoadTestCompare <baseline.json> <candidate.json>");
+            System.exit(2);
+        }
+        ObjectMapper objectMapper = new ObjectMapper()
+                .findAndRegisterModules()
+                .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+        LoadTestReport baseline = objectMapper.readValue(new File(args[0]), LoadTestReport.class);
+        LoadTestReport candidate = objectMapper.readValue(new File(args[1]), LoadTestReport.class);
+
+        System.out.printf("%s -> %s%n", baseline.getLabel(), candidate.getLabel());
+        System.out.printf("%-12s %18s %18s %18s %18s%n", "endpoint", "req/s", "p50 ms", "p99 ms", "p99.9 ms");
+        candidate.getEndpoints().forEach((endpoint, after) -> {
+            LoadTestReport.EndpointSummary before = baseline.getEndpoints().get(endpoint);
+            if (before == null) {
+                System.out.printf("%-12s (new endpoint)%n", endpoint);
+                return;
+            }
+            System.out.printf("%-12s %18s %18s %18s %18s%n", endpoint,
+                    delta(before.getThroughputPerSecond(), after.getThroughputPerSecond()),
+                    delta(before.getP50Millis(), after.getP50Millis()),
+                    delta(before.getP99Millis(), after.getP99Millis()),
+                    delta(before.getP999Millis(), after.getP999Millis()));
+        });
+    }
+
+    private static String delta(double before, double after) {
+        double change = before == 0 ? 0 : (after - before) * 100 / before;
+        return String.format("%.2f (%+.0f%%)", after, change);
+    }
+}
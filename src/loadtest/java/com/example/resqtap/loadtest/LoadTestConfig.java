@@ -0,0 +1,91 @@
+package com.example.resqtap.loadtest;
+
+import java.time.Duration;
+import java.util.Locale;
+
+// Load test settings, read from -Dloadtest.* system properties.
+public class LoadTestConfig {
+
+    private final String baseUrl;
+    private final int rate;
+    private final Duration warmup;
+    private final Duration duration;
+    private final int workers;
+    private final long seed;
+    private final double writeRatio;
+    private final String label;
+    private final String reportDir;
+    private final RequestMix.Profile mix;
+
+    public LoadTestConfig(String baseUrl, int rate, Duration warmup, Duration duration, int workers,
+                          long seed, double writeRatio, String label, String reportDir, RequestMix.Profile mix) {
+        this.baseUrl = baseUrl;
+        this.rate = rate;
+        this.warmup = warmup;
+        this.duration = duration;
+        this.workers = workers;
+        this.seed = seed;
+        this.writeRatio = writeRatio;
+        this.label = label;
+        this.reportDir = reportDir;
+        this.mix = mix;
+    }
+
+    public static LoadTestConfig fromSystemProperties() {
+        return new LoadTestConfig(
+                System.getProperty("loadtest.baseUrl", "http://localhost:8080"),
+                Integer.getInteger("loadtest.rate", 200),
+                Duration.ofSeconds(Long.getLong("loadtest.warmupSeconds", 10L)),
+                Duration.ofSeconds(Long.getLong("loadtest.durationSeconds", 60L)),
+                Integer.getInteger("loadtest.workers", 4),
+                Long.getLong("loadtest.seed", 42L),
+                Double.parseDouble(System.getProperty("loadtest.writeRatio", "0.002")),
+                System.getProperty("loadtest.label", "baseline"),
+                System.getProperty("loadtest.reportDir", "target/loadtest"),
+                RequestMix.Profile.valueOf(System.getProperty("loadtest.mix", "default")
+                        .toUpperCase(Locale.ROOT).replace('-', '_')));
+    }
+
+    public String getBaseUrl() {
+        return baseUrl;
+    }
+
+    // Requests per second, scheduled open-loop regardless of how fast responses come back
+    public int getRate() {
+        return rate;
+    }
+
+    public Duration getWarmup() {
+        return warmup;
+    }
+
+    public Duration getDuration() {
+        return duration;
+    }
+
+    // Threads that fire scheduled requests; responses are handled by the HTTP client asynchronously
+    public int getWorkers() {
+        return workers;
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+
+    public double getWriteRatio() {
+        return writeRatio;
+    }
+
+    public String getLabel() {
+        return label;
+    }
+
+    public String getReportDir() {
+        return reportDir;
+    }
+
+    // Traffic shape: "default" or "search-storm"
+    public RequestMix.Profile getMix() {
+        return mix;
+    }
+}
@@ -0,0 +1,213 @@
+package com.example.resqtap.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoUnit;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Per-endpoint throughput and latency percentiles of one load test run.
+ * Written as JSON together with the compressed HdrHistograms, so later runs can be compared
+ * with {@link LoadTestCompare} or re-analysed at any percentile.
+ */
+public class LoadTestReport {
+
+    private String label;
+    private Instant finishedAt;
+    private Map<String, Object> config;
+    private Map<String, EndpointSummary> endpoints = new LinkedHashMap<>();
+
+    public static class EndpointSummary {
+        private long requests;
+        private double throughputPerSecond;
+        private Map<String, Long> statuses;
+        private double p50Millis;
+        private double p90Millis;
+        private double p99Millis;
+        private double p999Millis;
+        private double maxMillis;
+        private String histogram;
+
+        public long getRequests() {
+            return requests;
+        }
+
+        public void setRequests(long requests) {
+            this.requests = requests;
+        }
+
+        public double getThroughputPerSecond() {
+            return throughputPerSecond;
+        }
+
+        public void setThroughputPerSecond(double throughputPerSecond) {
+            this.throughputPerSecond = throughputPerSecond;
+        }
+
+        public Map<String, Long> getStatuses() {
+            return statuses;
+        }
+
+        public void setStatuses(Map<String, Long> statuses) {
+            this.statuses = statuses;
+        }
+
+        public double getP50Millis() {
+            return p50Millis;
+        }
+
+        public void setP50Millis(double p50Millis) {
+            this.p50Millis = p50Millis;
+        }
+
+        public double getP90Millis() {
+            return p90Millis;
+        }
+
+        public void setP90Millis(double p90Millis) {
+            this.p90Millis = p90Millis;
+        }
+
+        public double getP99Millis() {
+            return p99Millis;
+        }
+
+        public void setP99Millis(double p99Millis) {
+            this.p99Millis = p99Millis;
+        }
+
+        public double getP999Millis() {
+            return p999Millis;
+        }
+
+        public void setP999Millis(double p999Millis) {
+            this.p999Millis = p999Millis;
+        }
+
+        public double getMaxMillis() {
+            return maxMillis;
+        }
+
+        public void setMaxMillis(double maxMillis) {
+            this.maxMillis = maxMillis;
+        }
+
+        // Base64 of the compressed HdrHistogram (microseconds)
+        public String getHistogram() {
+            return histogram;
+        }
+
+        public void setHistogram(String histogram) {
+            this.histogram = histogram;
+        }
+    }
+
+    public static LoadTestReport of(LoadTestConfig config, Map<String, EndpointStats> stats) {
+        LoadTestReport report = new LoadTestReport();
+        report.label = config.getLabel();
+        report.finishedAt = Instant.now().truncatedTo(ChronoUnit.SECONDS);
+        report.config = new LinkedHashMap<>();
+        report.config.put("baseUrl", config.getBaseUrl());
+        report.config.put("rate", config.getRate());
+        report.config.put("durationSeconds", config.getDuration().toSeconds());
+        report.config.put("workers", config.getWorkers());
+        report.config.put("seed", config.getSeed());
+        report.config.put("writeRatio", config.getWriteRatio());
+
+        double seconds = config.getDuration().toMillis() / 1000.0;
+        stats.forEach((endpoint, endpointStats) -> {
+            Histogram histogram = endpointStats.getLatency();
+            EndpointSummary summary = new EndpointSummary();
+            summary.requests = histogram.getTotalCount();
+            summary.throughputPerSecond = round(summary.requests / seconds);
+            summary.statuses = endpointStats.getStatuses();
+            summary.p50Millis = millis(histogram.getValueAtPercentile(50));
+            summary.p90Millis = millis(histogram.getValueAtPercentile(90));
+            summary.p99Millis = millis(histogram.getValueAtPercentile(99));
+            summary.p999Millis = millis(histogram.getValueAtPercentile(99.9));
+            summary.maxMillis = millis(histogram.getMaxValue());
+            summary.histogram = encode(histogram);
+            report.endpoints.put(endpoint, summary);
+        });
+        return report;
+    }
+
+    public void print(PrintStream out) {
+        out.printf("%n%-12s %9s %9s %9s %9s %9s %9s  %s%n",
+                "endpoint", "req/s", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms", "statuses");
+        endpoints.forEach((endpoint, s) -> out.printf("%-12s %9.1f %9.2f %9.2f %9.2f %9.2f %9.2f  %s%n",
+                endpoint, s.throughputPerSecond, s.p50Millis, s.p90Millis, s.p99Millis, s.p999Millis,
+                s.maxMillis, s.statuses));
+    }
+
+    public Path write(ObjectMapper objectMapper, Path directory) throws IOException {
+        Files.createDirectories(directory);
+        String timestamp = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss")
+                .format(finishedAt.atZone(java.time.ZoneOffset.UTC));
+        Path file = directory.resolve(timestamp + "-" + label + ".json");
+        objectMapper.copy()
+                .findAndRegisterModules()
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .writerWithDefaultPrettyPrinter()
+                .writeValue(file.toFile(), this);
+        return file;
+    }
+
+    private static String encode(Histogram histogram) {
+        ByteBuffer buffer = ByteBuffer.allocate(histogram.getNeededByteBufferCapacity());
+        int length = histogram.encodeIntoCompressedByteBuffer(buffer);
+        return Base64.getEncoder().encodeToString(Arrays.copyOf(buffer.array(), length));
+    }
+
+    private static double millis(long micros) {
+        return round(micros / 1000.0);
+    }
+
+    private static double round(double value) {
+        return Math.round(value * 100) / 100.0;
+    }
+
+    public String getLabel() {
+        return label;
+    }
+
+    public void setLabel(String label) {
+        this.label = label;
+    }
+
+    public Instant getFinishedAt() {
+        return finishedAt;
+    }
+
+    public void setFinishedAt(Instant finishedAt) {
+        this.finishedAt = finishedAt;
+    }
+
+    public Map<String, Object> getConfig() {
+        return config;
+    }
+
+    public void setConfig(Map<String, Object> config) {
+        this.config = config;
+    }
+
+    public Map<String, EndpointSummary> getEndpoints() {
+        return endpoints;
+    }
+
+    public void setEndpoints(Map<String, EndpointSummary> endpoints) {
+        this.endpoints = endpoints;
+    }
+}
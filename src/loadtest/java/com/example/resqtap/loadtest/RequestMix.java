@@ -0,0 +1,157 @@
+package com.example.resqtap.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.NullNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpRequest;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.SplittableRandom;
+
+/**
+ * The traffic a responder's phone generates: mostly home list, critical list and guide lookups,
+ * search typed one keystroke at a time, and a trickle of admin edits.
+ */
+public class RequestMix {
+
+    private static final Duration TIMEOUT = Duration.ofSeconds(30);
+
+    private final Profile profile;
+    private final String baseUrl;
+    private final double writeRatio;
+    private final ObjectMapper objectMapper;
+    private final List<JsonNode> catalog;
+
+    public RequestMix(Profile profile, String baseUrl, double writeRatio, ObjectMapper objectMapper, JsonNode catalog) {
+        this.profile = profile;
+        this.baseUrl = baseUrl;
+        this.writeRatio = writeRatio;
+        this.objectMapper = objectMapper;
+        this.catalog = new ArrayList<>();
+        catalog.forEach(this.catalog::add);
+        if (this.catalog.isEmpty()) {
+            throw new IllegalStateException("Catalog is empty; start the app with the dev profile so it is seeded");
+        }
+    }
+
+    // One user action; search-as-you-type expands into one request per keystroke
+    public List<Request> next(SplittableRandom random) {
+        if (random.nextDouble() < writeRatio) {
+            return List.of(adminUpdate(pick(random)));
+        }
+        int roll = random.nextInt(100);
+        if (roll < profile.home) {
+            return List.of(get("home", "/api/emergencies"));
+        }
+        if (roll < profile.critical) {
+            return List.of(get("critical", "/api/emergencies/critical"));
+        }
+        if (roll < profile.slug) {
+            return List.of(get("slug", "/api/emergencies/slug/" + pick(random).path("slug").asText()));
+        }
+        return searchAsYouType(pick(random), random);
+    }
+
+    private List<Request> searchAsYouType(JsonNode emergency, SplittableRandom random) {
+        String[] words = emergency.path("title").asText().toLowerCase(Locale.ROOT).split("\\s+");
+        String word = words[random.nextInt(words.length)];
+        int typed = Math.min(word.length(), 2 + random.nextInt(5));
+        List<Request> keystrokes = new ArrayList<>(typed);
+        for (int i = 1; i <= typed; i++) {
+            String term = URLEncoder.encode(word.substring(0, i), StandardCharsets.UTF_8);
+            keystrokes.add(get("search", "/api/emergencies/search?term=" + term));
+        }
+        return keystrokes;
+    }
+
+    // Re-saves an emergency unchanged: exercises the write path and cache eviction without drifting the data
+    private Request adminUpdate(JsonNode emergency) {
+        ObjectNode body = objectMapper.createObjectNode();
+        copy(body, "name", emergency.path("title"));
+        copy(body, "category", emergency.path("category"));
+        copy(body, "severity", emergency.path("severity"));
+        copy(body, "shortDescription", emergency.path("shortDescription"));
+        copy(body, "imageUrl", emergency.path("imageUrl"));
+        copy(body, "emergencyContact", emergency.path("emergencyContact"));
+        ArrayNode steps = body.putArray("steps");
+        for (JsonNode step : emergency.path("steps")) {
+            ObjectNode copied = steps.addObject();
+            copy(copied, "stepNumber", step.path("stepNumber"));
+            copy(copied, "description", step.path("description"));
+            copy(copied, "imageUrl", step.path("image"));
+        }
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + "/api/emergencies/"
+                        + emergency.path("id").asLong() + "?role=admin"))
+                .timeout(TIMEOUT)
+                .header("Content-Type", "application/json")
+                .PUT(HttpRequest.BodyPublishers.ofString(body.toString()))
+                .build();
+        return new Request("admin-write", request);
+    }
+
+    // Copies the JSON value itself, so a null image stays null instead of becoming the string "null"
+    private static void copy(ObjectNode target, String field, JsonNode value) {
+        target.set(field, value.isMissingNode() ? NullNode.getInstance() : value);
+    }
+
+    private JsonNode pick(SplittableRandom random) {
+        return catalog.get(random.nextInt(catalog.size()));
+    }
+
+    private Request get(String endpoint, String path) {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .timeout(TIMEOUT)
+                .header("Accept-Encoding", "gzip, br")
+                .GET()
+                .build();
+        return new Request(endpoint, request);
+    }
+
+    /**
+     * Cumulative weights (out of 100) for the read endpoints; the remainder is search, and writes are
+     * drawn separately. {@code SEARCH_STORM} floods low-priority search to show admission control
+     * shedding it while critical and slug lookups keep their latency.
+     */
+    public enum Profile {
+
+        DEFAULT(30, 15, 30),
+        SEARCH_STORM(10, 10, 20);
+
+        private final int home;
+        private final int critical;
+        private final int slug;
+
+        Profile(int home, int critical, int slug) {
+            this.home = home;
+            this.critical = home + critical;
+            this.slug = home + critical + slug;
+        }
+    }
+
+    public static class Request {
+
+        private final String endpoint;
+        private final HttpRequest httpRequest;
+
+        Request(String endpoint, HttpRequest httpRequest) {
+            this.endpoint = endpoint;
+            this.httpRequest = httpRequest;
+        }
+
+        public String getEndpoint() {
+            return endpoint;
+        }
+
+        public HttpRequest getHttpRequest() {
+            return httpRequest;
+        }
+    }
+}
@@ -2,11 +2,48 @@ package com.example.resqtap;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.context.event.ApplicationEnvironmentPreparedEvent;
+import org.springframework.boot.context.metrics.buffering.BufferingApplicationStartup;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.ApplicationListener;
+import org.springframework.core.env.Environment;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+import java.util.Set;
 
 @SpringBootApplication
+@EnableScheduling
 public class ResqtapApplication {
 
+	// Startup steps kept for the actuator startup endpoint; enough for every bean with room to spare
+	private static final int STARTUP_STEPS = 4096;
+
 	public static void main(String[] args) {
-		SpringApplication.run(ResqtapApplication.class, args);
+		SpringApplication application = new SpringApplication(ResqtapApplication.class);
+		application.addListeners(new StartupRecording());
+		application.run(args);
+	}
+
+	static boolean startupEndpointExposed(Environment environment) {
+		Binder binder = Binder.get(environment);
+		Set<String> include = binder.bind("management.endpoints.web.exposure.include", Bindable.setOf(String.class))
+				.orElse(Set.of());
+		Set<String> exclude = binder.bind("management.endpoints.web.exposure.exclude", Bindable.setOf(String.class))
+				.orElse(Set.of());
+		return (include.contains("startup") || include.contains("*"))
+				&& !exclude.contains("startup") && !exclude.contains("*");
+	}
+
+	// Buffers startup steps only where the endpoint serves them (dev), not in prod where nobody could read
+	// them. Decided once the configuration is loaded, so the few steps before that are not recorded.
+	private static class StartupRecording implements ApplicationListener<ApplicationEnvironmentPreparedEvent> {
+
+		@Override
+		public void onApplicationEvent(ApplicationEnvironmentPreparedEvent event) {
+			if (startupEndpointExposed(event.getEnvironment())) {
+				event.getSpringApplication().setApplicationStartup(new BufferingApplicationStartup(STARTUP_STEPS));
+			}
+		}
 	}
 }
@@ -1,6 +1,8 @@
 package com.example.resqtap.config;
 
+import com.example.resqtap.service.StaleCacheTier;
 import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.cache.Cache;
 import org.springframework.cache.CacheManager;
 import org.springframework.cache.annotation.EnableCaching;
 import org.springframework.cache.caffeine.CaffeineCacheManager;
@@ -14,8 +16,14 @@ import java.util.concurrent.TimeUnit;
 public class CacheConfig {
 
     @Bean
-    public CacheManager cacheManager() {
-        CaffeineCacheManager cacheManager = new CaffeineCacheManager();
+    public CacheManager cacheManager(StaleCacheTier staleCacheTier) {
+        // Every cache also feeds the stale tier, which answers when a reload from the database fails
+        CaffeineCacheManager cacheManager = new CaffeineCacheManager() {
+            @Override
+            protected Cache adaptCaffeineCache(String name, com.github.benmanes.caffeine.cache.Cache<Object, Object> cache) {
+                return new StaleIfErrorCache(super.adaptCaffeineCache(name, cache), staleCacheTier);
+            }
+        };
 
         // Default cache configuration
         cacheManager.setCaffeine(Caffeine.newBuilder()
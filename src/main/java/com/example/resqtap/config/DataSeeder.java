@@ -1,14 +1,18 @@
 package com.example.resqtap.config;
 
+import com.example.resqtap.jfr.CatalogSeedEvent;
 import com.example.resqtap.model.Emergency;
 import com.example.resqtap.model.Emergency.Severity;
 import com.example.resqtap.repository.EmergencyRepository;
+import com.example.resqtap.repository.StepRepository;
+import com.example.resqtap.service.DatabaseCircuitBreaker;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.boot.CommandLineRunner;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.core.annotation.Order;
+import org.springframework.core.env.Environment;
 
 @Configuration
 public class DataSeeder {
@@ -17,14 +21,27 @@ public class DataSeeder {
 
     @Bean
     @Order(1)
-    public CommandLineRunner seedEmergencies(EmergencyRepository repository) {
+    public CommandLineRunner seedEmergencies(EmergencyRepository repository, StepRepository stepRepository) {
         return args -> {
-            if (repository.count() > 0) {
-                logger.info("Database already seeded with {} emergencies", repository.count());
+            long existing;
+            try {
+                existing = repository.count();
+            } catch (RuntimeException e) {
+                if (!DatabaseCircuitBreaker.isTransient(e)) {
+                    throw e;
+                }
+                // Started from the catalog snapshot (see DeferredMigration); a database that had one is seeded
+                logger.warn("Database unavailable, seeding skipped: {}", e.getMessage());
+                return;
+            }
+            if (existing > 0) {
+                logger.info("Database already seeded with {} emergencies", existing);
                 return;
             }
 
             logger.info("Seeding 72 emergency types...");
+            CatalogSeedEvent event = new CatalogSeedEvent();
+            event.begin();
 
             // ==================== CARDIAC EMERGENCIES ====================
             seedEmergency(repository, "CPR Adult", "cardiac", Severity.CRITICAL,
@@ -801,7 +818,21 @@ public class DataSeeder {
                     {"Monitor for shock until help arrives", "/images/trauma/embedded_shock.png"}
                 });
 
-            logger.info("Successfully seeded {} emergencies", repository.count());
+            long seeded = repository.count();
+            event.finish("built-in", seeded, stepRepository.count());
+            logger.info("Successfully seeded {} emergencies", seeded);
+        };
+    }
+
+    @Bean
+    @Order(2)
+    public CommandLineRunner generateSyntheticCatalog(SyntheticCatalogGenerator syntheticCatalogGenerator,
+                                                      Environment environment) {
+        return args -> {
+            // Checked here rather than with @Profile, which an AOT-processed build would fix at build time
+            if (environment.matchesProfiles("scale")) {
+                syntheticCatalogGenerator.generate();
+            }
         };
     }
 
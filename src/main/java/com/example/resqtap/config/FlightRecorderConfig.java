@@ -0,0 +1,148 @@
+package com.example.resqtap.config;
+
+import com.example.resqtap.jfr.RepositoryQueryEvent;
+import jdk.jfr.Recording;
+import jdk.jfr.RecordingState;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.repository.core.support.RepositoryFactoryBeanSupport;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Java Flight Recorder events for the catalog read path, and an optional continuous recording.
+ *
+ * <p>Events are only written while a recording has them enabled, e.g. {@code jcmd <pid> JFR.start}
+ * with the bundled {@code jfr/resqtap.jfc}. With {@code resqtap.jfr.enabled=true} the application keeps
+ * its own recording running: the JDK's default settings plus the bundled ones, limited to
+ * {@code resqtap.jfr.max-age} and {@code resqtap.jfr.max-size}. Take a dump from it with
+ * {@code jcmd <pid> JFR.dump name=resqtap}; it is also written to {@code resqtap.jfr.path} on shutdown.
+ */
+@Configuration
+public class FlightRecorderConfig {
+
+    static final String SETTINGS = "jfr/resqtap.jfc";
+
+    // Static, so post-processing repository factory beans does not need this configuration created first
+    @Bean
+    static BeanPostProcessor repositoryQueryEvents() {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessBeforeInitialization(Object bean, String beanName) {
+                if (bean instanceof RepositoryFactoryBeanSupport<?, ?, ?> factoryBean) {
+                    factoryBean.addRepositoryFactoryCustomizer(factory -> factory.addRepositoryProxyPostProcessor(
+                            (proxyFactory, repository) -> proxyFactory.addAdvice(
+                                    new RepositoryQueryInterceptor(repository.getRepositoryInterface().getSimpleName()))));
+                }
+                return bean;
+            }
+        };
+    }
+
+    // Decided here rather than by a bean condition, which an AOT-processed build would fix at build time
+    @Bean
+    public ContinuousRecording continuousRecording(
+            @Value("${resqtap.jfr.enabled:false}") boolean enabled,
+            @Value("${resqtap.jfr.max-age:PT6H}") Duration maxAge,
+            @Value("${resqtap.jfr.max-size:250MB}") DataSize maxSize,
+            @Value("${resqtap.jfr.path:${java.io.tmpdir}/resqtap/resqtap.jfr}") Path path) throws IOException, ParseException {
+        if (!enabled) {
+            return new ContinuousRecording(null);
+        }
+        Map<String, String> settings = new HashMap<>(jdk.jfr.Configuration.getConfiguration("default").getSettings());
+        settings.putAll(settings().getSettings());
+        Recording recording = new Recording(settings);
+        recording.setName("resqtap");
+        recording.setToDisk(true);
+        recording.setMaxAge(maxAge);
+        recording.setMaxSize(maxSize.toBytes());
+        Files.createDirectories(path.toAbsolutePath().getParent());
+        recording.setDestination(path);
+        recording.start();
+        return new ContinuousRecording(recording);
+    }
+
+    static jdk.jfr.Configuration settings() throws IOException, ParseException {
+        try (Reader reader = new InputStreamReader(new ClassPathResource(SETTINGS).getInputStream(), StandardCharsets.UTF_8)) {
+            return jdk.jfr.Configuration.create(reader);
+        }
+    }
+
+    public static class ContinuousRecording implements DisposableBean {
+
+        private final Recording recording;
+
+        ContinuousRecording(Recording recording) {
+            this.recording = recording;
+        }
+
+        // Empty unless resqtap.jfr.enabled is set
+        public Optional<Recording> getRecording() {
+            return Optional.ofNullable(recording);
+        }
+
+        // Stopping writes the retained data to the destination
+        @Override
+        public void destroy() {
+            if (recording == null) {
+                return;
+            }
+            if (recording.getState() == RecordingState.RUNNING) {
+                recording.stop();
+            }
+            recording.close();
+        }
+    }
+
+    private static final class RepositoryQueryInterceptor implements MethodInterceptor {
+
+        private final String repository;
+
+        RepositoryQueryInterceptor(String repository) {
+            this.repository = repository;
+        }
+
+        @Override
+        public Object invoke(MethodInvocation invocation) throws Throwable {
+            RepositoryQueryEvent event = new RepositoryQueryEvent();
+            event.begin();
+            Object result = null;
+            boolean failed = true;
+            try {
+                result = invocation.proceed();
+                failed = false;
+                return result;
+            } finally {
+                event.finish(repository, invocation.getMethod().getName(), rows(result), failed);
+            }
+        }
+
+        private static long rows(Object result) {
+            if (result instanceof Collection<?> collection) {
+                return collection.size();
+            }
+            if (result instanceof Optional<?> optional) {
+                return optional.isPresent() ? 1 : 0;
+            }
+            return -1;
+        }
+    }
+}
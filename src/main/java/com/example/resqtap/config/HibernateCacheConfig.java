@@ -0,0 +1,79 @@
+package com.example.resqtap.config;
+
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.hibernate.cache.spi.RegionFactory;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import java.net.URI;
+import java.time.Duration;
+import java.util.Map;
+import java.util.OptionalLong;
+import java.util.UUID;
+
+/**
+ * Hibernate second-level and query cache, held in Caffeine through JCache.
+ *
+ * <p>The Spring caches in {@link CacheConfig} hold DTOs for the public read paths; this one sits below
+ * them and keeps {@code Emergency} and {@code Step} rows, so entity loads that bypass those caches
+ * (admin updates, name checks, search) are answered without SQL as well. Entries are written through
+ * on every change made with JPA. Region hits and misses are exported by Micrometer as
+ * {@code hibernate.second.level.cache.requests} (tagged by region) and {@code hibernate.cache.query.requests}.
+ */
+@Configuration
+public class HibernateCacheConfig {
+
+    // Region names used by the @Cache annotations on the entities
+    static final String EMERGENCIES = "emergencies";
+    static final String EMERGENCY_STEPS = "emergencies.steps";
+    static final String STEPS = "steps";
+
+    @Bean
+    public CacheManager hibernateCacheManager(
+            @Value("${resqtap.hibernate-cache.max-entries:10000}") long maxEntries,
+            @Value("${resqtap.hibernate-cache.ttl:PT10M}") Duration ttl) {
+        // Own manager per application context, so test contexts sharing a JVM don't share regions
+        CacheManager cacheManager = Caching.getCachingProvider(CaffeineCachingProvider.class.getName())
+                .getCacheManager(URI.create("resqtap:hibernate:" + UUID.randomUUID()), getClass().getClassLoader());
+
+        Map.of(EMERGENCIES, maxEntries,
+                EMERGENCY_STEPS, maxEntries,
+                STEPS, maxEntries * 10,
+                RegionFactory.DEFAULT_QUERY_RESULTS_REGION_UNQUALIFIED_NAME, maxEntries / 10)
+                .forEach((region, size) -> cacheManager.createCache(region, region(OptionalLong.of(size),
+                        OptionalLong.of(ttl.toNanos()))));
+        // One entry per table; evicting one would make Hibernate distrust every cached query on it
+        cacheManager.createCache(RegionFactory.DEFAULT_UPDATE_TIMESTAMPS_REGION_UNQUALIFIED_NAME,
+                region(OptionalLong.empty(), OptionalLong.empty()));
+        return cacheManager;
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer secondLevelCache(CacheManager hibernateCacheManager) {
+        return properties -> {
+            properties.put(AvailableSettings.USE_SECOND_LEVEL_CACHE, true);
+            properties.put(AvailableSettings.USE_QUERY_CACHE, true);
+            properties.put(AvailableSettings.CACHE_REGION_FACTORY, "jcache");
+            properties.put(ConfigSettings.CACHE_MANAGER, hibernateCacheManager);
+            // Needed for the per-region hit and miss metrics
+            properties.put(AvailableSettings.GENERATE_STATISTICS, true);
+        };
+    }
+
+    private static CaffeineConfiguration<Object, Object> region(OptionalLong maximumSize, OptionalLong expireAfterWriteNanos) {
+        CaffeineConfiguration<Object, Object> configuration = new CaffeineConfiguration<>();
+        configuration.setMaximumSize(maximumSize);
+        configuration.setExpireAfterWrite(expireAfterWriteNanos);
+        // Hibernate already stores disassembled state; copying it again on every read buys nothing
+        configuration.setStoreByValue(false);
+        configuration.setStatisticsEnabled(true);
+        return configuration;
+    }
+}
@@ -0,0 +1,28 @@
+package com.example.resqtap.config;
+
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+import org.springframework.boot.autoconfigure.jackson.Jackson2ObjectMapperBuilderCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.NativeDetector;
+
+/**
+ * Installs Jackson's Blackbird module on the application's {@code ObjectMapper}, so DTO properties are read
+ * through generated lambdas instead of reflection. The catalog payload and snapshot mappers are copies of it
+ * and get the module too.
+ *
+ * <p>Not in a native image: Blackbird defines classes at runtime, which a native image cannot, and its
+ * reflection is compiled ahead of time anyway.
+ */
+@Configuration
+public class JacksonConfig {
+
+    @Bean
+    public Jackson2ObjectMapperBuilderCustomizer blackbirdCustomizer() {
+        return builder -> {
+            if (!NativeDetector.inNativeImage()) {
+                builder.postConfigurer(objectMapper -> objectMapper.registerModule(new BlackbirdModule()));
+            }
+        };
+    }
+}
@@ -0,0 +1,31 @@
+package com.example.resqtap.config;
+
+import com.example.resqtap.web.CacheOutcome;
+import io.micrometer.common.KeyValues;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.server.observation.DefaultServerRequestObservationConvention;
+import org.springframework.http.server.observation.ServerRequestObservationContext;
+import org.springframework.http.server.observation.ServerRequestObservationConvention;
+
+/**
+ * Adds a {@code cache} tag ({@code hit}, {@code miss} or {@code none}, see {@link CacheOutcome}) to the
+ * {@code http.server.requests} timers, next to the route template in {@code uri}. Histogram and SLO
+ * buckets for those timers are set in application.properties.
+ */
+@Configuration
+public class MetricsConfig {
+
+    static final String CACHE_TAG = "cache";
+
+    @Bean
+    public ServerRequestObservationConvention serverRequestObservationConvention() {
+        return new DefaultServerRequestObservationConvention() {
+            @Override
+            public KeyValues getLowCardinalityKeyValues(ServerRequestObservationContext context) {
+                return super.getLowCardinalityKeyValues(context)
+                        .and(CACHE_TAG, CacheOutcome.of(context.getCarrier()));
+            }
+        };
+    }
+}
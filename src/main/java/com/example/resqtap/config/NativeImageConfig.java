@@ -0,0 +1,66 @@
+package com.example.resqtap.config;
+
+import com.example.resqtap.dto.BootstrapPayload;
+import com.example.resqtap.dto.CompactCatalog;
+import com.example.resqtap.dto.EmergencyBatch;
+import com.example.resqtap.dto.EmergencyDTO;
+import com.example.resqtap.dto.EmergencyResponseDto;
+import com.example.resqtap.dto.EmergencyStepDto;
+import com.example.resqtap.model.CrisisPlan;
+import com.example.resqtap.model.Emergency;
+import com.example.resqtap.model.EmergencyViewCount;
+import com.example.resqtap.model.Step;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+import org.springframework.aot.hint.TypeReference;
+import org.springframework.aot.hint.annotation.RegisterReflectionForBinding;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.ImportRuntimeHints;
+
+import java.util.List;
+
+/**
+ * What a GraalVM native image ({@code ./mvnw -Pnative native:compile}) cannot find out by itself.
+ *
+ * <p>DTOs are bound for Jackson, including the ones serialized outside controllers (the catalog payload
+ * and the Smile snapshot). Entities get full reflection for Hibernate. Caffeine instantiates its cache
+ * and node classes by name, chosen by the builder's features, so the ones this application's caches use
+ * are listed here; after changing how a cache is built, run the JVM build with {@code -Xlog:class+load}
+ * and add any new {@code com.github.benmanes.caffeine.cache} classes it loads.
+ */
+@Configuration
+@ImportRuntimeHints(NativeImageConfig.Hints.class)
+@RegisterReflectionForBinding({EmergencyDTO.class, EmergencyBatch.class, CompactCatalog.class, BootstrapPayload.class,
+        EmergencyResponseDto.class, EmergencyStepDto.class})
+public class NativeImageConfig {
+
+    static final List<Class<?>> ENTITIES = List.of(Emergency.class, Step.class, EmergencyViewCount.class, CrisisPlan.class);
+
+    // Bounded and unbounded caches with the statistics, expiry, weigher and strength combinations in use
+    static final List<String> CAFFEINE_CLASSES = List.of(
+            "PS", "PSA", "PSAMS", "PSMW", "PSW", "PSWMS",
+            "SS", "SSMS", "SSMSA", "SSMSW", "SSMW", "SSS", "SSSMS", "SSSMSW");
+
+    static class Hints implements RuntimeHintsRegistrar {
+
+        @Override
+        public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+            ENTITIES.forEach(entity -> hints.reflection().registerType(entity, MemberCategory.values()));
+            for (String name : CAFFEINE_CLASSES) {
+                hints.reflection().registerType(TypeReference.of("com.github.benmanes.caffeine.cache." + name),
+                        MemberCategory.INVOKE_DECLARED_CONSTRUCTORS, MemberCategory.DECLARED_FIELDS);
+            }
+            // Named in the Caffeine JCache defaults, which are read from its reference.conf
+            hints.reflection().registerType(TypeReference.of("com.github.benmanes.caffeine.jcache.copy.JavaSerializationCopier"),
+                    MemberCategory.INVOKE_PUBLIC_CONSTRUCTORS);
+            hints.resources()
+                    .registerPattern("reference.conf")
+                    // Spring Boot only registers the default Flyway location, not the per-vendor ones
+                    .registerPattern("db/migration/*/*.sql")
+                    .registerPattern(FlightRecorderConfig.SETTINGS)
+                    // Without it Brotli reports itself unavailable and responses fall back to gzip
+                    .registerPattern("lib/*/libbrotli.*");
+        }
+    }
+}
@@ -0,0 +1,107 @@
+package com.example.resqtap.config;
+
+import com.example.resqtap.jfr.CacheEvictionEvent;
+import com.example.resqtap.jfr.CacheLookupEvent;
+import com.example.resqtap.service.StaleCacheTier;
+import com.example.resqtap.web.CacheOutcome;
+import org.springframework.cache.Cache;
+
+import java.util.concurrent.Callable;
+
+/**
+ * Spring {@link Cache} that mirrors every write into the {@link StaleCacheTier},
+ * so a value is still available after its fresh copy has expired.
+ * Reads and evictions are recorded as {@link CacheLookupEvent} and {@link CacheEvictionEvent};
+ * reads also count towards the request's {@link CacheOutcome}.
+ */
+class StaleIfErrorCache implements Cache {
+
+    private final Cache delegate;
+    private final StaleCacheTier staleCacheTier;
+
+    StaleIfErrorCache(Cache delegate, StaleCacheTier staleCacheTier) {
+        this.delegate = delegate;
+        this.staleCacheTier = staleCacheTier;
+    }
+
+    @Override
+    public String getName() {
+        return delegate.getName();
+    }
+
+    @Override
+    public Object getNativeCache() {
+        return delegate.getNativeCache();
+    }
+
+    @Override
+    public ValueWrapper get(Object key) {
+        CacheLookupEvent event = new CacheLookupEvent();
+        event.begin();
+        ValueWrapper value = delegate.get(key);
+        event.finish(getName(), key, value != null);
+        CacheOutcome.record(value != null);
+        return value;
+    }
+
+    @Override
+    public <T> T get(Object key, Class<T> type) {
+        CacheLookupEvent event = new CacheLookupEvent();
+        event.begin();
+        T value = delegate.get(key, type);
+        event.finish(getName(), key, value != null);
+        CacheOutcome.record(value != null);
+        return value;
+    }
+
+    @Override
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        CacheLookupEvent event = new CacheLookupEvent();
+        boolean[] loaded = new boolean[1];
+        event.begin();
+        try {
+            return delegate.get(key, () -> {
+                loaded[0] = true;
+                T value = valueLoader.call();
+                staleCacheTier.put(getName(), key, value);
+                return value;
+            });
+        } finally {
+            event.finish(getName(), key, !loaded[0]);
+            CacheOutcome.record(!loaded[0]);
+        }
+    }
+
+    @Override
+    public void put(Object key, Object value) {
+        delegate.put(key, value);
+        staleCacheTier.put(getName(), key, value);
+    }
+
+    @Override
+    public ValueWrapper putIfAbsent(Object key, Object value) {
+        ValueWrapper existing = delegate.putIfAbsent(key, value);
+        if (existing == null) {
+            staleCacheTier.put(getName(), key, value);
+        }
+        return existing;
+    }
+
+    @Override
+    public void evict(Object key) {
+        CacheEvictionEvent event = new CacheEvictionEvent();
+        event.begin();
+        delegate.evict(key);
+        staleCacheTier.evict(getName(), key);
+        event.finish(getName(), key);
+    }
+
+    @Override
+    public void clear() {
+        CacheEvictionEvent event = new CacheEvictionEvent();
+        event.begin();
+        delegate.clear();
+        staleCacheTier.clear(getName());
+        event.finish(getName(), null);
+    }
+}
@@ -0,0 +1,218 @@
+package com.example.resqtap.config;
+
+import com.example.resqtap.jfr.CatalogSeedEvent;
+import com.example.resqtap.model.SearchText;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.Cache;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+/**
+ * Fills the schema with a large synthetic catalog for scale testing (profile {@code scale}).
+ * <p>
+ * Run by {@link DataSeeder} after the built-in guides, and inserts through batched JDBC, not JPA, so tens of thousands of
+ * rows load in seconds. Categories, severities and vocabulary follow skewed (Zipf) distributions,
+ * and name/description/step lengths vary like the hand-written guides, so LIKE search, eager step
+ * loading and cache sizes behave as they would at production scale.
+ * <p>
+ * Example: {@code --spring.profiles.active=dev,scale --resqtap.generator.emergencies=20000}
+ */
+@Component
+public class SyntheticCatalogGenerator {
+
+    private static final Logger logger = LoggerFactory.getLogger(SyntheticCatalogGenerator.class);
+
+    private static final String[] CATEGORIES = {
+            "trauma", "medical", "cardiac", "burns", "poisoning", "environmental", "bites", "airway",
+            "allergic", "neurological", "respiratory", "water", "eye", "dental", "pregnancy", "mental-health"
+    };
+
+    private static final String[] SEVERITIES = {"LOW", "MEDIUM", "HIGH", "CRITICAL"};
+    private static final double[] SEVERITY_WEIGHTS = {0.25, 0.35, 0.25, 0.15};
+
+    private static final String[] QUALIFIERS = {
+            "Severe", "Minor", "Acute", "Chemical", "Pediatric", "Infant", "Adult", "Recurrent",
+            "Open", "Closed", "Suspected", "Delayed", "Partial", "Complete", "Internal", "External"
+    };
+
+    private static final String[] CONDITIONS = {
+            "Bleeding", "Burn", "Fracture", "Poisoning", "Allergic Reaction", "Seizure", "Choking",
+            "Head Injury", "Sprain", "Hypothermia", "Heat Exhaustion", "Asthma Attack", "Bite",
+            "Eye Injury", "Dislocation", "Shock", "Overdose", "Stroke", "Cardiac Arrest", "Drowning"
+    };
+
+    private static final String[] VERBS = {
+            "Call", "Check", "Apply", "Keep", "Monitor", "Remove", "Cover", "Cool", "Elevate", "Support",
+            "Do not move", "Place", "Loosen", "Give", "Reassure", "Stay with", "Rinse", "Press"
+    };
+
+    // Ordered most to least frequent; sampled with a Zipf distribution
+    private static final String[] VOCABULARY = (
+            "the person area wound pressure help breathing 911 immediately minutes water clean "
+            + "bandage head body position calm emergency signs pain skin medical blood airway chest "
+            + "hand arm leg cloth side injury heart cold warm ice shock swelling until arrives "
+            + "conscious responsive pulse compressions rescue breaths dressing splint sterile firm "
+            + "gently slowly seek attention symptoms worsen fever vomiting dizziness confusion "
+            + "numbness tingling bruising sweating pale rapid shallow choking allergy epinephrine "
+            + "auto-injector inhaler medication dose aspirin glucose sugar juice blanket shade "
+            + "clothing jewelry tourniquet fracture joint bone spine neck recovery tilt chin "
+            + "jaw thrust abdominal thrusts back blows infant child adult elderly pregnant").split(" ");
+
+    private final JdbcTemplate jdbcTemplate;
+    private final EntityManagerFactory entityManagerFactory;
+    private final int emergencies;
+    private final int minSteps;
+    private final int maxSteps;
+    private final int batchSize;
+    private final long seed;
+
+    private final ZipfSampler vocabulary = new ZipfSampler(VOCABULARY.length, 1.07);
+    private final ZipfSampler categories = new ZipfSampler(CATEGORIES.length, 0.8);
+
+    public SyntheticCatalogGenerator(JdbcTemplate jdbcTemplate, EntityManagerFactory entityManagerFactory,
+                                     @Value("${resqtap.generator.emergencies:5000}") int emergencies,
+                                     @Value("${resqtap.generator.min-steps:3}") int minSteps,
+                                     @Value("${resqtap.generator.max-steps:12}") int maxSteps,
+                                     @Value("${resqtap.generator.batch-size:1000}") int batchSize,
+                                     @Value("${resqtap.generator.seed:42}") long seed) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.entityManagerFactory = entityManagerFactory;
+        this.emergencies = emergencies;
+        this.minSteps = minSteps;
+        this.maxSteps = maxSteps;
+        this.batchSize = batchSize;
+        this.seed = seed;
+    }
+
+    // Returns the number of step rows inserted
+    public long generate() {
+        long start = System.nanoTime();
+        CatalogSeedEvent event = new CatalogSeedEvent();
+        event.begin();
+        SplittableRandom random = new SplittableRandom(seed);
+        Long maxIdBefore = jdbcTemplate.queryForObject("SELECT MAX(id) FROM emergencies", Long.class);
+        long firstNewId = maxIdBefore == null ? 0 : maxIdBefore;
+
+        List<Object[]> emergencyRows = new ArrayList<>(emergencies);
+        Map<String, String> categoryByName = new HashMap<>();
+        for (int i = 0; i < emergencies; i++) {
+            String category = CATEGORIES[categories.sample(random)];
+            String name = QUALIFIERS[random.nextInt(QUALIFIERS.length)] + " "
+                    + CONDITIONS[random.nextInt(CONDITIONS.length)] + " " + (firstNewId + i + 1);
+            categoryByName.put(name, category);
+            String description = truncate(capitalize(words(random, 6, 20)), 500);
+            emergencyRows.add(new Object[]{
+                    name, category, SEVERITIES[weighted(random, SEVERITY_WEIGHTS)], description,
+                    "/images/" + category + "/" + slug(name) + ".jpg", "911", SearchText.of(name, category, description)
+            });
+        }
+        jdbcTemplate.batchUpdate(
+                "INSERT INTO emergencies (name, category, severity, short_description, image_url, emergency_contact, search_text, version) "
+                        + "VALUES (?, ?, ?, ?, ?, ?, ?, 0)",
+                emergencyRows, batchSize, (ps, row) -> {
+                    for (int c = 0; c < row.length; c++) {
+                        ps.setObject(c + 1, row[c]);
+                    }
+                });
+
+        List<Object[]> stepRows = new ArrayList<>();
+        jdbcTemplate.query("SELECT id, name FROM emergencies WHERE id > ?", rs -> {
+            long id = rs.getLong(1);
+            String name = rs.getString(2);
+            String category = categoryByName.get(name);
+            int steps = minSteps + Math.min(maxSteps - minSteps, geometric(random, 0.3));
+            for (int s = 1; s <= steps; s++) {
+                String text = VERBS[random.nextInt(VERBS.length)] + " " + words(random, 5, 35);
+                stepRows.add(new Object[]{id, s, truncate(text, 1000),
+                        "/images/" + category + "/" + slug(name) + "_" + s + ".png"});
+            }
+        }, firstNewId);
+        jdbcTemplate.batchUpdate(
+                "INSERT INTO steps (emergency_id, step_number, description, image_url) VALUES (?, ?, ?, ?)",
+                stepRows, batchSize, (ps, row) -> {
+                    for (int c = 0; c < row.length; c++) {
+                        ps.setObject(c + 1, row[c]);
+                    }
+                });
+        // Hibernate never saw these inserts, so cached query results on both tables would miss them
+        entityManagerFactory.getCache().unwrap(Cache.class).evictAllRegions();
+        event.finish("synthetic", emergencyRows.size(), stepRows.size());
+
+        logger.info("Generated {} synthetic emergencies with {} steps in {} ms",
+                emergencyRows.size(), stepRows.size(), (System.nanoTime() - start) / 1_000_000);
+        return stepRows.size();
+    }
+
+    private String words(SplittableRandom random, int min, int max) {
+        int count = min + random.nextInt(max - min + 1);
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < count; i++) {
+            if (i > 0) {
+                text.append(' ');
+            }
+            text.append(VOCABULARY[vocabulary.sample(random)]);
+        }
+        return text.toString();
+    }
+
+    private static int weighted(SplittableRandom random, double[] weights) {
+        double roll = random.nextDouble();
+        for (int i = 0; i < weights.length - 1; i++) {
+            roll -= weights[i];
+            if (roll < 0) {
+                return i;
+            }
+        }
+        return weights.length - 1;
+    }
+
+    // Most guides have a handful of steps, a few have many
+    private static int geometric(SplittableRandom random, double p) {
+        return (int) Math.floor(Math.log(1 - random.nextDouble()) / Math.log(1 - p));
+    }
+
+    private static String capitalize(String text) {
+        return Character.toUpperCase(text.charAt(0)) + text.substring(1);
+    }
+
+    private static String truncate(String text, int max) {
+        return text.length() <= max ? text : text.substring(0, max);
+    }
+
+    private static String slug(String name) {
+        return name.toLowerCase(Locale.ROOT).replaceAll("[^a-z0-9]+", "-");
+    }
+
+    private static final class ZipfSampler {
+
+        private final double[] cumulative;
+
+        ZipfSampler(int size, double exponent) {
+            cumulative = new double[size];
+            double sum = 0;
+            for (int rank = 1; rank <= size; rank++) {
+                sum += 1 / Math.pow(rank, exponent);
+                cumulative[rank - 1] = sum;
+            }
+            for (int i = 0; i < size; i++) {
+                cumulative[i] /= sum;
+            }
+        }
+
+        int sample(SplittableRandom random) {
+            int index = Arrays.binarySearch(cumulative, random.nextDouble());
+            return Math.min(index < 0 ? -index - 1 : index, cumulative.length - 1);
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package com.example.resqtap.config;
+
+import com.example.resqtap.model.SearchText;
+import org.flywaydb.core.api.migration.BaseJavaMigration;
+import org.flywaydb.core.api.migration.Context;
+import org.springframework.stereotype.Component;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+
+/**
+ * Fills {@code emergencies.search_text}, the folded text search matches against, for rows that do not have it
+ * yet: those of a database created by Hibernate before migrations existed. In Java rather than SQL because the
+ * folding must be exactly {@link SearchText}'s, which no database function reproduces. Spring Boot hands
+ * migration beans to Flyway for every vendor.
+ */
+@Component
+public class V3__Fill_search_text extends BaseJavaMigration {
+
+    @Override
+    public void migrate(Context context) throws Exception {
+        Connection connection = context.getConnection();
+        try (Statement select = connection.createStatement();
+             ResultSet rows = select.executeQuery(
+                     "SELECT id, name, category, short_description FROM emergencies WHERE search_text IS NULL");
+             PreparedStatement update = connection.prepareStatement("UPDATE emergencies SET search_text = ? WHERE id = ?")) {
+            while (rows.next()) {
+                update.setString(1, SearchText.of(rows.getString(2), rows.getString(3), rows.getString(4)));
+                update.setLong(2, rows.getLong(1));
+                update.addBatch();
+            }
+            update.executeBatch();
+        }
+    }
+}
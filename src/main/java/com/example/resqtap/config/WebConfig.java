@@ -1,18 +1,52 @@
 package com.example.resqtap.config;
 
+import com.example.resqtap.service.StaleCacheTier;
+import com.example.resqtap.web.RateLimitFilter;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.servlet.HandlerInterceptor;
 import org.springframework.web.servlet.config.annotation.CorsRegistry;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 
 @Configuration
 public class WebConfig implements WebMvcConfigurer {
 
+    private final StaleCacheTier staleCacheTier;
+
+    public WebConfig(StaleCacheTier staleCacheTier) {
+        this.staleCacheTier = staleCacheTier;
+    }
+
     @Override
     public void addCorsMappings(CorsRegistry registry) {
         registry.addMapping("/api/**") // Apply to all endpoints under /api
                 .allowedOrigins("*") // Allow all origins (mobile app, web browser, etc.)
-                .allowedMethods("GET", "POST", "PUT", "DELETE", "OPTIONS") // Allow all HTTP methods
+                .allowedMethods("GET", "POST", "PUT", "PATCH", "DELETE", "OPTIONS") // Allow all HTTP methods
                 .allowedHeaders("*") // Allow all headers
+                // Readable by cross-origin scripts: revalidation, stale answers, rate limits and back-off
+                .exposedHeaders(HttpHeaders.ETAG, HttpHeaders.WARNING, HttpHeaders.AGE, HttpHeaders.RETRY_AFTER,
+                        RateLimitFilter.LIMIT, RateLimitFilter.REMAINING, RateLimitFilter.RESET)
                 .allowCredentials(false); // Set to false when using allowedOrigins("*")
     }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        // Request threads are pooled; never let one request's stale marker leak into the next
+        registry.addInterceptor(new HandlerInterceptor() {
+            @Override
+            public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+                staleCacheTier.resetServed();
+                return true;
+            }
+
+            @Override
+            public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler,
+                                        Exception ex) {
+                staleCacheTier.resetServed();
+            }
+        });
+    }
 }
@@ -0,0 +1,44 @@
+package com.example.resqtap.controller;
+
+import com.example.resqtap.dto.BootstrapPayload;
+import com.example.resqtap.service.BootstrapService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/bootstrap")
+@CrossOrigin(origins = "*")
+public class BootstrapController {
+
+    private final BootstrapService bootstrapService;
+    private final int maxFavorites;
+
+    public BootstrapController(BootstrapService bootstrapService,
+                               @Value("${resqtap.batch.max-size:50}") int maxFavorites) {
+        this.bootstrapService = bootstrapService;
+        this.maxFavorites = maxFavorites;
+    }
+
+    // Home screen in one round trip. Favorites live on the device, so the app passes their ids along.
+    // The profile is the one /api/user/me returns, and is left out while the request is anonymous.
+    @GetMapping
+    public BootstrapPayload bootstrap(@AuthenticationPrincipal Jwt jwt,
+                                      @RequestParam(required = false) List<Long> favorites) {
+        List<Long> favoriteIds = favorites == null ? List.of() : favorites.stream().distinct().toList();
+        if (favoriteIds.size() > maxFavorites) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "At most " + maxFavorites + " favorites, got " + favoriteIds.size());
+        }
+        return bootstrapService.load(jwt == null ? null : UserController.profile(jwt), favoriteIds);
+    }
+}
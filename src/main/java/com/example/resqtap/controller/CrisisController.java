@@ -1,13 +1,37 @@
 package com.example.resqtap.controller;
 
+import com.example.resqtap.dto.EmergencyBatch;
 import com.example.resqtap.dto.EmergencyDTO;
 import com.example.resqtap.model.Emergency;
+import com.example.resqtap.service.CatalogFacetIndex;
+import com.example.resqtap.service.CatalogFacetIndex.FacetedResult;
+import com.example.resqtap.service.CatalogPayloadService;
+import com.example.resqtap.service.CatalogPayloadService.CatalogPayload;
+import com.example.resqtap.service.CatalogPayloadService.CatalogView;
 import com.example.resqtap.service.EmergencyService;
+import com.example.resqtap.service.EmergencyViewCounter;
+import com.example.resqtap.service.RelatedEmergencyIndex;
+import com.example.resqtap.web.CatalogEventBroadcaster;
+import com.example.resqtap.web.ContentCoding;
+import com.example.resqtap.web.EncodedPayload;
+import com.example.resqtap.web.EntityTags;
+import com.example.resqtap.web.JsonMergePatch;
+import com.example.resqtap.web.MediaTypes;
+import com.fasterxml.jackson.databind.JsonNode;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.util.ArrayList;
 import java.util.List;
 
 @RestController
@@ -17,60 +41,171 @@ public class CrisisController {
 
 
     private final EmergencyService emergencyService;
+    private final CatalogPayloadService catalogPayloadService;
+    private final EmergencyViewCounter viewCounter;
+    private final CatalogFacetIndex catalogFacetIndex;
+    private final RelatedEmergencyIndex relatedEmergencyIndex;
+    private final CatalogEventBroadcaster catalogEventBroadcaster;
+    private final int maxBatchSize;
+    private final Counter notModified;
 
-    public CrisisController(EmergencyService emergencyService) {
+    public CrisisController(EmergencyService emergencyService, CatalogPayloadService catalogPayloadService,
+                            EmergencyViewCounter viewCounter, CatalogFacetIndex catalogFacetIndex,
+                            RelatedEmergencyIndex relatedEmergencyIndex, CatalogEventBroadcaster catalogEventBroadcaster,
+                            @Value("${resqtap.batch.max-size:50}") int maxBatchSize, MeterRegistry meterRegistry) {
         this.emergencyService = emergencyService;
+        this.catalogPayloadService = catalogPayloadService;
+        this.viewCounter = viewCounter;
+        this.catalogFacetIndex = catalogFacetIndex;
+        this.relatedEmergencyIndex = relatedEmergencyIndex;
+        this.catalogEventBroadcaster = catalogEventBroadcaster;
+        this.maxBatchSize = maxBatchSize;
+        this.notModified = Counter.builder("resqtap.responses.not-modified")
+                .description("Catalog requests answered with 304 because the client's copy is current")
+                .register(meterRegistry);
     }
 
+    // Full catalog, served from bytes precompressed once per catalog revision.
+    // JSON by default; the compact Smile form when the client asks for it explicitly and ranks it no lower than JSON.
     @GetMapping
-    public List<EmergencyDTO> getAllPlans() {
-        return emergencyService.getAllEmergencies();
+    public ResponseEntity<byte[]> getAllPlans(
+            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        CatalogPayload catalog = catalogPayloadService.getCatalog();
+        if (MediaTypes.prefers(accept, MediaTypes.SMILE, MediaType.APPLICATION_JSON)) {
+            return encoded(catalog.getSmile(), MediaTypes.SMILE, catalog.getSmileEtag(), acceptEncoding, ifNoneMatch);
+        }
+        return encoded(catalog.getJson(), MediaType.APPLICATION_JSON, catalog.getEtag(), acceptEncoding, ifNoneMatch);
+    }
+
+    // Server-sent "revision" events with the ids of changed emergencies (none: refetch everything).
+    // EventSource resends the last event id on reconnect, so missed changes are replayed.
+    @GetMapping(value = "/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter catalogEvents(@RequestHeader(value = "Last-Event-ID", required = false) String lastEventId) {
+        return catalogEventBroadcaster.subscribe(lastEventId == null ? null : lastEventId.trim());
     }
 
     @GetMapping("/{id}")
     public ResponseEntity<EmergencyDTO> getPlan(@PathVariable Long id) {
         return emergencyService.getEmergencyById(id)
-                .map(ResponseEntity::ok)
+                .map(this::viewed)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Emergency not found"));
+    }
+
+    // Several guides in one round trip, e.g. ?ids=12,3,7; found ones keep the requested order
+    @GetMapping(value = "/batch", params = "ids")
+    public EmergencyBatch<Long> getPlansByIds(@RequestParam List<Long> ids) {
+        List<Long> keys = batchKeys(ids);
+        return EmergencyBatch.of(keys, emergencyService.getEmergenciesByIds(keys));
+    }
+
+    @GetMapping(value = "/batch", params = "slugs")
+    public EmergencyBatch<String> getPlansBySlugs(@RequestParam List<String> slugs) {
+        List<String> keys = batchKeys(slugs.stream().map(slug -> slug.trim().toLowerCase()).toList());
+        return EmergencyBatch.of(keys, emergencyService.getEmergenciesBySlugs(keys));
+    }
+
+    private <K> List<K> batchKeys(List<K> keys) {
+        List<K> distinct = keys.stream().distinct().toList();
+        if (distinct.size() > maxBatchSize) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "At most " + maxBatchSize + " emergencies per batch, got " + distinct.size());
+        }
+        return distinct;
+    }
+
+    // Guides to offer next, most similar first
+    @GetMapping("/{id}/related")
+    public List<EmergencyDTO> getRelatedPlans(@PathVariable Long id) {
+        return relatedEmergencyIndex.getRelated(id)
                 .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Emergency not found"));
     }
 
     @GetMapping("/slug/{slug}")
     public ResponseEntity<EmergencyDTO> getPlanBySlug(@PathVariable String slug) {
         return emergencyService.getEmergencyBySlug(slug)
-                .map(ResponseEntity::ok)
+                .map(this::viewed)
                 .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Emergency not found"));
     }
 
     @GetMapping("/name/{name}")
     public ResponseEntity<EmergencyDTO> getPlanByName(@PathVariable String name) {
         return emergencyService.getEmergencyByName(name)
-                .map(ResponseEntity::ok)
+                .map(this::viewed)
                 .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Emergency not found"));
     }
 
+    // Matches are ordered by relevance, weighted by how often each guide is opened
     @GetMapping("/search")
     public List<EmergencyDTO> searchPlans(@RequestParam String term) {
-        return emergencyService.search(term.toLowerCase());
+        return viewCounter.rankSearchResults(term, emergencyService.search(term.toLowerCase()));
+    }
+
+    // Most opened guides first, e.g. to pick what to warm up or bundle for offline use
+    @GetMapping("/popular")
+    public List<EmergencyDTO> getPopularPlans(@RequestParam(defaultValue = "10") int limit) {
+        int size = Math.max(0, Math.min(limit, 100));
+        List<EmergencyDTO> popular = new ArrayList<>(size);
+        for (Long id : viewCounter.getRanking()) {
+            if (popular.size() == size) {
+                break;
+            }
+            emergencyService.getEmergencyById(id).ifPresent(popular::add);
+        }
+        return popular;
     }
 
+    // Like the full catalog, list views are served from bytes precompressed once per catalog revision
     @GetMapping("/category/{category}")
-    public List<EmergencyDTO> getPlansByCategory(@PathVariable String category) {
-        return emergencyService.getEmergenciesByCategory(category);
+    public ResponseEntity<byte[]> getPlansByCategory(
+            @PathVariable String category,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        CatalogView view = catalogPayloadService.getView("category:" + category,
+                () -> emergencyService.getEmergenciesByCategory(category));
+        return encoded(view.getJson(), MediaType.APPLICATION_JSON, view.getEtag(), acceptEncoding, ifNoneMatch);
     }
 
     @GetMapping("/severity/{severity}")
-    public List<EmergencyDTO> getPlansBySeverity(@PathVariable String severity) {
+    public ResponseEntity<byte[]> getPlansBySeverity(
+            @PathVariable String severity,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        Emergency.Severity sev;
         try {
-            Emergency.Severity sev = Emergency.Severity.valueOf(severity.toUpperCase());
-            return emergencyService.getEmergenciesBySeverity(sev);
+            sev = Emergency.Severity.valueOf(severity.toUpperCase());
         } catch (IllegalArgumentException e) {
             throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid severity: " + severity);
         }
+        CatalogView view = catalogPayloadService.getView("severity:" + sev,
+                () -> emergencyService.getEmergenciesBySeverity(sev));
+        return encoded(view.getJson(), MediaType.APPLICATION_JSON, view.getEtag(), acceptEncoding, ifNoneMatch);
+    }
+
+    // Any mix of categories and severities, e.g. ?category=burns,trauma&severity=HIGH,CRITICAL
+    @GetMapping("/filter")
+    public FacetedResult filterPlans(@RequestParam(required = false) List<String> category,
+                                     @RequestParam(required = false) List<String> severity) {
+        List<String> severities = new ArrayList<>();
+        if (severity != null) {
+            for (String value : severity) {
+                try {
+                    severities.add(Emergency.Severity.valueOf(value.trim().toUpperCase()).name());
+                } catch (IllegalArgumentException e) {
+                    throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid severity: " + value);
+                }
+            }
+        }
+        return catalogFacetIndex.filter(category, severities);
     }
 
     @GetMapping("/critical")
-    public List<EmergencyDTO> getCriticalPlans() {
-        return emergencyService.getCriticalEmergencies();
+    public ResponseEntity<byte[]> getCriticalPlans(
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        CatalogView view = catalogPayloadService.getView("critical", emergencyService::getCriticalEmergencies);
+        return encoded(view.getJson(), MediaType.APPLICATION_JSON, view.getEtag(), acceptEncoding, ifNoneMatch);
     }
 
     @PostMapping
@@ -90,9 +225,29 @@ public class CrisisController {
         if (!"admin".equalsIgnoreCase(role)) {
             throw new ResponseStatusException(HttpStatus.FORBIDDEN, "Only admin can update plans");
         }
-        return emergencyService.updateEmergency(id, emergency)
-                .map(ResponseEntity::ok)
-                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Emergency not found"));
+        try {
+            return emergencyService.updateEmergency(id, emergency)
+                    .map(ResponseEntity::ok)
+                    .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Emergency not found"));
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+        }
+    }
+
+    @PatchMapping(value = "/{id}", consumes = JsonMergePatch.MEDIA_TYPE)
+    public ResponseEntity<Emergency> patchPlan(@PathVariable Long id,
+                                               @RequestBody JsonNode patch,
+                                               @RequestParam(required = false) String role) {
+        if (!"admin".equalsIgnoreCase(role)) {
+            throw new ResponseStatusException(HttpStatus.FORBIDDEN, "Only admin can update plans");
+        }
+        try {
+            return emergencyService.patchEmergency(id, patch)
+                    .map(ResponseEntity::ok)
+                    .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Emergency not found"));
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+        }
     }
 
     @DeleteMapping("/{id}")
@@ -106,4 +261,38 @@ public class CrisisController {
         }
         throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Emergency not found");
     }
+
+    private ResponseEntity<EmergencyDTO> viewed(EmergencyDTO emergency) {
+        viewCounter.recordView(emergency.getId());
+        return ResponseEntity.ok(emergency);
+    }
+
+    @ExceptionHandler(ObjectOptimisticLockingFailureException.class)
+    public ResponseEntity<Void> handleConcurrentUpdate() {
+        // Someone else saved this emergency since the client read it
+        return ResponseEntity.status(HttpStatus.CONFLICT).build();
+    }
+
+    private ResponseEntity<byte[]> encoded(EncodedPayload payload, MediaType mediaType, String etag,
+                                           String acceptEncoding, String ifNoneMatch) {
+        if (EntityTags.noneMatch(ifNoneMatch, etag)) {
+            notModified.increment();
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                    .cacheControl(CacheControl.noCache())
+                    .eTag(etag)
+                    .varyBy(HttpHeaders.ACCEPT, HttpHeaders.ACCEPT_ENCODING)
+                    .build();
+        }
+        ContentCoding coding = payload.negotiate(acceptEncoding);
+        // Stored but revalidated every time; without it Spring Security sends no-store and clients never revalidate
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .cacheControl(CacheControl.noCache())
+                .contentType(mediaType)
+                .eTag(etag)
+                .varyBy(HttpHeaders.ACCEPT, HttpHeaders.ACCEPT_ENCODING);
+        if (coding != ContentCoding.IDENTITY) {
+            response.header(HttpHeaders.CONTENT_ENCODING, coding.getToken());
+        }
+        return response.body(payload.get(coding));
+    }
 }
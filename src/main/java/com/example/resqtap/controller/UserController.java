@@ -7,6 +7,7 @@ import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
+import java.util.LinkedHashMap;
 import java.util.Map;
 
 @RestController
@@ -16,11 +17,15 @@ public class UserController {
 
     @GetMapping("/me")
     public Map<String, Object> getCurrentUser(@AuthenticationPrincipal Jwt jwt) {
-        // Extract user details directly from the Cognito JWT
-        return Map.of(
-            "id", jwt.getSubject(),
-            "username", jwt.getClaimAsString("username"),
-            "email", jwt.getClaimAsString("email")
-        );
+        return profile(jwt);
     }
-}
\ No newline at end of file
+
+    // Extract user details directly from the Cognito JWT. Access tokens carry no email, so absent claims are null.
+    static Map<String, Object> profile(Jwt jwt) {
+        Map<String, Object> profile = new LinkedHashMap<>();
+        profile.put("id", jwt.getSubject());
+        profile.put("username", jwt.getClaimAsString("username"));
+        profile.put("email", jwt.getClaimAsString("email"));
+        return profile;
+    }
+}
@@ -0,0 +1,77 @@
+package com.example.resqtap.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Response of {@code GET /api/bootstrap}: what the home screen shows on launch.
+ * The catalog itself is not included; {@link CatalogSummary#getEtag()} tells the app
+ * whether the copy it already has is current.
+ */
+public class BootstrapPayload {
+
+    private final CatalogSummary catalog;
+    private final List<EmergencyDTO> critical;
+    private final Map<String, Object> user;
+    private final EmergencyBatch<Long> favorites;
+
+    public BootstrapPayload(CatalogSummary catalog, List<EmergencyDTO> critical, Map<String, Object> user,
+                            EmergencyBatch<Long> favorites) {
+        this.catalog = catalog;
+        this.critical = critical;
+        this.user = user;
+        this.favorites = favorites;
+    }
+
+    public CatalogSummary getCatalog() {
+        return catalog;
+    }
+
+    public List<EmergencyDTO> getCritical() {
+        return critical;
+    }
+
+    // Null, and left out, when the request is anonymous
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public Map<String, Object> getUser() {
+        return user;
+    }
+
+    public EmergencyBatch<Long> getFavorites() {
+        return favorites;
+    }
+
+    public static class CatalogSummary {
+
+        private final long revision;
+        private final String etag;
+        private final int emergencies;
+        private final Map<String, Map<String, Integer>> facets;
+
+        public CatalogSummary(long revision, String etag, int emergencies, Map<String, Map<String, Integer>> facets) {
+            this.revision = revision;
+            this.etag = etag;
+            this.emergencies = emergencies;
+            this.facets = facets;
+        }
+
+        public long getRevision() {
+            return revision;
+        }
+
+        // Same validator as GET /api/emergencies, usable as If-None-Match there
+        public String getEtag() {
+            return etag;
+        }
+
+        public int getEmergencies() {
+            return emergencies;
+        }
+
+        public Map<String, Map<String, Integer>> getFacets() {
+            return facets;
+        }
+    }
+}
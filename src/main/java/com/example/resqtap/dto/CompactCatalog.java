@@ -0,0 +1,279 @@
+package com.example.resqtap.dto;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Compact form of the full catalog for the binary (Smile) representation.
+ * Categories, severities and image directory prefixes such as {@code /images/cpr/adult/}
+ * are stored once in dictionaries and referenced by index from each emergency and step.
+ * It holds content only, no node-local revision, so its ETag is the same on every node.
+ */
+public class CompactCatalog {
+
+    private List<String> categories = new ArrayList<>();
+    private List<String> severities = new ArrayList<>();
+    private List<String> imagePrefixes = new ArrayList<>();
+    private List<CompactEmergency> emergencies = new ArrayList<>();
+
+    public static class CompactEmergency {
+        private Long id;
+        private String title;
+        private String slug;
+        private int category;
+        private int severity;
+        private String shortDescription;
+        private String emergencyContact;
+        private Integer imagePrefix;
+        private String imageName;
+        private Long version;
+        private List<CompactStep> steps = new ArrayList<>();
+
+        public Long getId() {
+            return id;
+        }
+
+        public void setId(Long id) {
+            this.id = id;
+        }
+
+        public String getTitle() {
+            return title;
+        }
+
+        public void setTitle(String title) {
+            this.title = title;
+        }
+
+        public String getSlug() {
+            return slug;
+        }
+
+        public void setSlug(String slug) {
+            this.slug = slug;
+        }
+
+        public int getCategory() {
+            return category;
+        }
+
+        public void setCategory(int category) {
+            this.category = category;
+        }
+
+        public int getSeverity() {
+            return severity;
+        }
+
+        public void setSeverity(int severity) {
+            this.severity = severity;
+        }
+
+        public String getShortDescription() {
+            return shortDescription;
+        }
+
+        public void setShortDescription(String shortDescription) {
+            this.shortDescription = shortDescription;
+        }
+
+        public String getEmergencyContact() {
+            return emergencyContact;
+        }
+
+        public void setEmergencyContact(String emergencyContact) {
+            this.emergencyContact = emergencyContact;
+        }
+
+        public Integer getImagePrefix() {
+            return imagePrefix;
+        }
+
+        public void setImagePrefix(Integer imagePrefix) {
+            this.imagePrefix = imagePrefix;
+        }
+
+        public String getImageName() {
+            return imageName;
+        }
+
+        public void setImageName(String imageName) {
+            this.imageName = imageName;
+        }
+
+        public Long getVersion() {
+            return version;
+        }
+
+        public void setVersion(Long version) {
+            this.version = version;
+        }
+
+        public List<CompactStep> getSteps() {
+            return steps;
+        }
+
+        public void setSteps(List<CompactStep> steps) {
+            this.steps = steps;
+        }
+    }
+
+    public static class CompactStep {
+        private Integer stepNumber;
+        private String description;
+        private Integer imagePrefix;
+        private String imageName;
+
+        public Integer getStepNumber() {
+            return stepNumber;
+        }
+
+        public void setStepNumber(Integer stepNumber) {
+            this.stepNumber = stepNumber;
+        }
+
+        public String getDescription() {
+            return description;
+        }
+
+        public void setDescription(String description) {
+            this.description = description;
+        }
+
+        public Integer getImagePrefix() {
+            return imagePrefix;
+        }
+
+        public void setImagePrefix(Integer imagePrefix) {
+            this.imagePrefix = imagePrefix;
+        }
+
+        public String getImageName() {
+            return imageName;
+        }
+
+        public void setImageName(String imageName) {
+            this.imageName = imageName;
+        }
+    }
+
+    public CompactCatalog() {}
+
+    public static CompactCatalog from(List<EmergencyDTO> emergencies) {
+        CompactCatalog catalog = new CompactCatalog();
+        Map<String, Integer> categories = new LinkedHashMap<>();
+        Map<String, Integer> severities = new LinkedHashMap<>();
+        Map<String, Integer> prefixes = new LinkedHashMap<>();
+
+        for (EmergencyDTO dto : emergencies) {
+            CompactEmergency compact = new CompactEmergency();
+            compact.id = dto.getId();
+            compact.title = dto.getTitle();
+            compact.slug = dto.getSlug();
+            compact.category = indexOf(categories, dto.getCategory());
+            compact.severity = indexOf(severities, dto.getSeverity());
+            compact.shortDescription = dto.getShortDescription();
+            compact.emergencyContact = dto.getEmergencyContact();
+            if (dto.getImageUrl() != null) {
+                compact.imagePrefix = indexOf(prefixes, prefixOf(dto.getImageUrl()));
+                compact.imageName = nameOf(dto.getImageUrl());
+            }
+            compact.version = dto.getVersion();
+            for (EmergencyDTO.StepDTO step : dto.getSteps()) {
+                CompactStep compactStep = new CompactStep();
+                compactStep.stepNumber = step.getStepNumber();
+                compactStep.description = step.getDescription();
+                if (step.getImage() != null) {
+                    compactStep.imagePrefix = indexOf(prefixes, prefixOf(step.getImage()));
+                    compactStep.imageName = nameOf(step.getImage());
+                }
+                compact.steps.add(compactStep);
+            }
+            catalog.emergencies.add(compact);
+        }
+
+        catalog.categories = new ArrayList<>(categories.keySet());
+        catalog.severities = new ArrayList<>(severities.keySet());
+        catalog.imagePrefixes = new ArrayList<>(prefixes.keySet());
+        return catalog;
+    }
+
+    // Expands the dictionaries back into the regular DTOs the JSON API returns
+    public List<EmergencyDTO> toEmergencies() {
+        List<EmergencyDTO> result = new ArrayList<>(emergencies.size());
+        for (CompactEmergency compact : emergencies) {
+            EmergencyDTO dto = new EmergencyDTO();
+            dto.setId(compact.id);
+            dto.setTitle(compact.title);
+            dto.setSlug(compact.slug);
+            dto.setCategory(categories.get(compact.category));
+            dto.setSeverity(severities.get(compact.severity));
+            dto.setShortDescription(compact.shortDescription);
+            dto.setEmergencyContact(compact.emergencyContact);
+            dto.setImageUrl(join(compact.imagePrefix, compact.imageName));
+            dto.setVersion(compact.version);
+            List<EmergencyDTO.StepDTO> steps = new ArrayList<>(compact.steps.size());
+            for (CompactStep compactStep : compact.steps) {
+                EmergencyDTO.StepDTO step = new EmergencyDTO.StepDTO();
+                step.setStepNumber(compactStep.stepNumber);
+                step.setDescription(compactStep.description);
+                step.setImage(join(compactStep.imagePrefix, compactStep.imageName));
+                steps.add(step);
+            }
+            dto.setSteps(steps);
+            result.add(dto);
+        }
+        return result;
+    }
+
+    private static int indexOf(Map<String, Integer> dictionary, String value) {
+        return dictionary.computeIfAbsent(value, v -> dictionary.size());
+    }
+
+    private static String prefixOf(String path) {
+        return path.substring(0, path.lastIndexOf('/') + 1);
+    }
+
+    private static String nameOf(String path) {
+        return path.substring(path.lastIndexOf('/') + 1);
+    }
+
+    private String join(Integer prefix, String name) {
+        return prefix == null ? null : imagePrefixes.get(prefix) + name;
+    }
+
+    // Getters and Setters
+    public List<String> getCategories() {
+        return categories;
+    }
+
+    public void setCategories(List<String> categories) {
+        this.categories = categories;
+    }
+
+    public List<String> getSeverities() {
+        return severities;
+    }
+
+    public void setSeverities(List<String> severities) {
+        this.severities = severities;
+    }
+
+    public List<String> getImagePrefixes() {
+        return imagePrefixes;
+    }
+
+    public void setImagePrefixes(List<String> imagePrefixes) {
+        this.imagePrefixes = imagePrefixes;
+    }
+
+    public List<CompactEmergency> getEmergencies() {
+        return emergencies;
+    }
+
+    public void setEmergencies(List<CompactEmergency> emergencies) {
+        this.emergencies = emergencies;
+    }
+}
@@ -0,0 +1,42 @@
+package com.example.resqtap.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Answer to a multi-get: the emergencies found, in the order they were asked for,
+ * and the requested keys (ids or slugs) that matched nothing.
+ */
+public class EmergencyBatch<K> {
+
+    private final List<EmergencyDTO> emergencies;
+    private final List<K> missing;
+
+    public EmergencyBatch(List<EmergencyDTO> emergencies, List<K> missing) {
+        this.emergencies = emergencies;
+        this.missing = missing;
+    }
+
+    public static <K> EmergencyBatch<K> of(List<K> keys, Map<K, EmergencyDTO> found) {
+        List<EmergencyDTO> emergencies = new ArrayList<>(found.size());
+        List<K> missing = new ArrayList<>();
+        for (K key : keys) {
+            EmergencyDTO emergency = found.get(key);
+            if (emergency != null) {
+                emergencies.add(emergency);
+            } else {
+                missing.add(key);
+            }
+        }
+        return new EmergencyBatch<>(emergencies, missing);
+    }
+
+    public List<EmergencyDTO> getEmergencies() {
+        return emergencies;
+    }
+
+    public List<K> getMissing() {
+        return missing;
+    }
+}
@@ -15,6 +15,7 @@ public class EmergencyDTO {
     private List<StepDTO> steps;
     private String emergencyContact;
     private String imageUrl;
+    private Long version;
 
     public static class StepDTO {
         private Integer stepNumber;
@@ -65,12 +66,13 @@ public class EmergencyDTO {
         this.shortDescription = emergency.getShortDescription();
         this.emergencyContact = emergency.getEmergencyContact();
         this.imageUrl = emergency.getImageUrl();
+        this.version = emergency.getVersion();
         this.steps = emergency.getSteps().stream()
                 .map(StepDTO::new)
                 .collect(Collectors.toList());
     }
 
-    private String slugify(String text) {
+    static String slugify(String text) {
         if (text == null || text.isEmpty()) return "";
         return text.toLowerCase()
                 .replaceAll("[^a-z0-9\\s-]", "")
@@ -151,4 +153,12 @@ public class EmergencyDTO {
     public void setImageUrl(String imageUrl) {
         this.imageUrl = imageUrl;
     }
+
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
 }
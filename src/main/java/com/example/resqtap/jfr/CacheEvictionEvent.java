@@ -0,0 +1,30 @@
+package com.example.resqtap.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+// Removal of one key, or of every entry, from a Spring cache
+@Name("com.example.resqtap.CacheEviction")
+@Label("Cache Eviction")
+@Category({"ResQTap", "Cache"})
+public class CacheEvictionEvent extends Event {
+
+    @Label("Cache")
+    String cache;
+
+    @Label("Key")
+    @Description("Evicted key, or null when the whole cache was cleared")
+    String key;
+
+    public void finish(String cache, Object key) {
+        end();
+        if (shouldCommit()) {
+            this.cache = cache;
+            this.key = key == null ? null : String.valueOf(key);
+            commit();
+        }
+    }
+}
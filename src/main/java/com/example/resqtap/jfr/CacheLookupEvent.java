@@ -0,0 +1,40 @@
+package com.example.resqtap.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+import java.util.Objects;
+
+// One read of a Spring cache; for loading reads the duration includes the load
+@Name("com.example.resqtap.CacheLookup")
+@Label("Cache Lookup")
+@Category({"ResQTap", "Cache"})
+@StackTrace(false)
+public class CacheLookupEvent extends Event {
+
+    @Label("Cache")
+    String cache;
+
+    @Label("Key")
+    @Description("Numeric keys as they are; any other key, which can be a name or slug a client typed, only as a hash")
+    String key;
+
+    @Label("Hit")
+    @Description("Whether the value was found without loading it")
+    boolean hit;
+
+    // Fields are only filled in when the event is recorded, so a disabled event costs no key formatting
+    public void finish(String cache, Object key, boolean hit) {
+        end();
+        if (shouldCommit()) {
+            this.cache = cache;
+            this.key = key instanceof Number ? key.toString() : "#" + Integer.toHexString(Objects.hashCode(key));
+            this.hit = hit;
+            commit();
+        }
+    }
+}
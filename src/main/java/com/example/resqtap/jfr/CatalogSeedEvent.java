@@ -0,0 +1,32 @@
+package com.example.resqtap.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+// Bulk insert of catalog data at startup: the built-in guides or a synthetic catalog
+@Name("com.example.resqtap.CatalogSeed")
+@Label("Catalog Seed")
+@Category({"ResQTap", "Catalog"})
+public class CatalogSeedEvent extends Event {
+
+    @Label("Source")
+    String source;
+
+    @Label("Emergencies")
+    long emergencies;
+
+    @Label("Steps")
+    long steps;
+
+    public void finish(String source, long emergencies, long steps) {
+        end();
+        if (shouldCommit()) {
+            this.source = source;
+            this.emergencies = emergencies;
+            this.steps = steps;
+            commit();
+        }
+    }
+}
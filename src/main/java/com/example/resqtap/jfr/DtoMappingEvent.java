@@ -0,0 +1,28 @@
+package com.example.resqtap.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+// Entities turned into DTOs; includes loading any steps collections that were not fetched yet
+@Name("com.example.resqtap.DtoMapping")
+@Label("DTO Mapping")
+@Category({"ResQTap", "Catalog"})
+@StackTrace(false)
+public class DtoMappingEvent extends Event {
+
+    @Label("Emergencies")
+    @Description("Emergencies mapped")
+    int emergencies;
+
+    public void finish(int emergencies) {
+        end();
+        if (shouldCommit()) {
+            this.emergencies = emergencies;
+            commit();
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package com.example.resqtap.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+// One call of a Spring Data repository method, including Hibernate's work and any SQL it issued
+@Name("com.example.resqtap.RepositoryQuery")
+@Label("Repository Query")
+@Category({"ResQTap", "Database"})
+@StackTrace(false)
+public class RepositoryQueryEvent extends Event {
+
+    @Label("Repository")
+    String repository;
+
+    @Label("Method")
+    String method;
+
+    @Label("Rows")
+    @Description("Entities returned, or -1 for results that are not collections or optionals")
+    long rows;
+
+    @Label("Failed")
+    boolean failed;
+
+    public void finish(String repository, String method, long rows, boolean failed) {
+        end();
+        if (shouldCommit()) {
+            this.repository = repository;
+            this.method = method;
+            this.rows = rows;
+            this.failed = failed;
+            commit();
+        }
+    }
+}
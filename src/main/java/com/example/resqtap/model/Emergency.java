@@ -3,11 +3,16 @@ package com.example.resqtap.model;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
+import org.hibernate.annotations.BatchSize;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import java.util.ArrayList;
 import java.util.List;
 
 @Entity
 @Table(name = "emergencies")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "emergencies")
 public class Emergency {
 
     @Id
@@ -36,8 +41,19 @@ public class Emergency {
     @Column(name = "emergency_contact")
     private String emergencyContact = "911";
 
+    // Optimistic lock: concurrent admin edits fail instead of silently overwriting each other
+    @Version
+    private Long version;
+
+    // What search matches against, kept in step with the columns it is folded from
+    @Column(name = "search_text", length = 2000)
+    private String searchText;
+
     @OneToMany(mappedBy = "emergency", cascade = CascadeType.ALL, orphanRemoval = true, fetch = FetchType.EAGER)
     @OrderBy("stepNumber ASC")
+    // Loaded for all the emergencies a query returns at once rather than one select each
+    @BatchSize(size = 256)
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "emergencies.steps")
     private List<Step> steps = new ArrayList<>();
 
     public enum Severity {
@@ -58,6 +74,12 @@ public class Emergency {
         this.imageUrl = imageUrl;
     }
 
+    @PrePersist
+    @PreUpdate
+    void foldSearchText() {
+        searchText = SearchText.of(name, category, shortDescription);
+    }
+
     // Helper method to add steps
     public void addStep(Step step) {
         steps.add(step);
@@ -126,6 +148,14 @@ public class Emergency {
         this.emergencyContact = emergencyContact;
     }
 
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
     public List<Step> getSteps() {
         return steps;
     }
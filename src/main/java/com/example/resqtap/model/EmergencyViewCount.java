@@ -0,0 +1,41 @@
+package com.example.resqtap.model;
+
+import jakarta.persistence.*;
+
+// Accumulated number of times an emergency guide was opened, across all nodes
+@Entity
+@Table(name = "emergency_view_counts")
+public class EmergencyViewCount {
+
+    @Id
+    @Column(name = "emergency_id")
+    private Long emergencyId;
+
+    @Column(nullable = false)
+    private long views;
+
+    // Constructors
+    public EmergencyViewCount() {}
+
+    public EmergencyViewCount(Long emergencyId, long views) {
+        this.emergencyId = emergencyId;
+        this.views = views;
+    }
+
+    // Getters and Setters
+    public Long getEmergencyId() {
+        return emergencyId;
+    }
+
+    public void setEmergencyId(Long emergencyId) {
+        this.emergencyId = emergencyId;
+    }
+
+    public long getViews() {
+        return views;
+    }
+
+    public void setViews(long views) {
+        this.views = views;
+    }
+}
@@ -0,0 +1,36 @@
+package com.example.resqtap.model;
+
+import java.text.Normalizer;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+/**
+ * The folded form search works on. Search terms and the searched text are folded the same way, so a
+ * term matches whatever it folds like: {@code brulure} finds "Brûlure" and {@code BRÛLURE} finds "brulure".
+ */
+public final class SearchText {
+
+    private static final Pattern DIACRITICS = Pattern.compile("\\p{M}+");
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+", Pattern.UNICODE_CHARACTER_CLASS);
+
+    private SearchText() {
+    }
+
+    /**
+     * Accents folded, lowercased, trimmed, runs of whitespace (including no-break spaces) collapsed to
+     * single spaces.
+     */
+    public static String normalize(String text) {
+        String folded = DIACRITICS.matcher(Normalizer.normalize(text, Normalizer.Form.NFD)).replaceAll("");
+        return WHITESPACE.matcher(folded).replaceAll(" ").strip().toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * What {@code emergencies.search_text} holds: the searched columns, each normalized, one per line.
+     * A normalized term has no line breaks, so it never matches across two columns.
+     */
+    public static String of(String name, String category, String shortDescription) {
+        return normalize(name) + "\n" + normalize(category) + "\n"
+                + (shortDescription == null ? "" : normalize(shortDescription));
+    }
+}
@@ -1,40 +1,64 @@
 package com.example.resqtap.repository;
 
 import com.example.resqtap.model.Emergency;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface EmergencyRepository extends JpaRepository<Emergency, Long> {
 
+    // Cacheable finders keep their results in the Hibernate query cache until the next write to the table
+    @Override
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    List<Emergency> findAll();
+
     // Find by name (case-insensitive)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     Optional<Emergency> findByNameIgnoreCase(String name);
 
     // Find by category
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     List<Emergency> findByCategory(String category);
 
     // Find by severity
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     List<Emergency> findBySeverity(Emergency.Severity severity);
 
     // Find critical emergencies (for priority caching)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     List<Emergency> findBySeverityIn(List<Emergency.Severity> severities);
 
-    // Search by name, category, or description
-    @Query("SELECT e FROM Emergency e WHERE " +
-           "LOWER(e.name) LIKE LOWER(CONCAT('%', :term, '%')) OR " +
-           "LOWER(e.category) LIKE LOWER(CONCAT('%', :term, '%')) OR " +
-           "LOWER(e.shortDescription) LIKE LOWER(CONCAT('%', :term, '%'))")
+    // Search by name, category, or description; the term must be normalized with SearchText.normalize
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    @Query("SELECT e FROM Emergency e WHERE e.searchText LIKE CONCAT('%', :term, '%')")
     List<Emergency> search(@Param("term") String term);
 
     // Find by slug-friendly name (for URL routing)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     @Query("SELECT e FROM Emergency e WHERE LOWER(REPLACE(e.name, ' ', '-')) = LOWER(:slug)")
     Optional<Emergency> findBySlug(@Param("slug") String slug);
 
+    // Batch lookups: steps are fetched in the same query rather than one select per emergency
+    @Query("SELECT DISTINCT e FROM Emergency e LEFT JOIN FETCH e.steps WHERE e.id IN :ids")
+    List<Emergency> findAllWithStepsByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Query("SELECT DISTINCT e FROM Emergency e LEFT JOIN FETCH e.steps WHERE LOWER(REPLACE(e.name, ' ', '-')) IN :slugs")
+    List<Emergency> findAllWithStepsBySlugIn(@Param("slugs") Collection<String> slugs);
+
+    // Names must be uppercase, as in the derived IgnoreCase finders; used to diff edited catalog content against what is stored
+    @Query("SELECT DISTINCT e FROM Emergency e LEFT JOIN FETCH e.steps WHERE UPPER(e.name) IN :names")
+    List<Emergency> findAllWithStepsByNameIn(@Param("names") Collection<String> names);
+
     // Check if emergency exists by name
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     boolean existsByNameIgnoreCase(String name);
 }
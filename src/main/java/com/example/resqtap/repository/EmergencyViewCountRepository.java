@@ -0,0 +1,14 @@
+package com.example.resqtap.repository;
+
+import com.example.resqtap.model.EmergencyViewCount;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface EmergencyViewCountRepository extends JpaRepository<EmergencyViewCount, Long> {
+
+    // Most viewed first
+    List<EmergencyViewCount> findAllByOrderByViewsDesc();
+}
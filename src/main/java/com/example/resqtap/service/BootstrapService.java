@@ -0,0 +1,46 @@
+package com.example.resqtap.service;
+
+import com.example.resqtap.dto.BootstrapPayload;
+import com.example.resqtap.dto.EmergencyBatch;
+import com.example.resqtap.dto.EmergencyDTO;
+import com.example.resqtap.service.CatalogFacetIndex.FacetedResult;
+import com.example.resqtap.service.CatalogPayloadService.CatalogPayload;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Everything the home screen needs on launch, so the app makes one request instead of several.
+ * The parts are read in turn on the request thread. Each one is normally a cache hit, so running
+ * them concurrently would cost more in hand-offs than it saves, and the request's cache outcome
+ * and stale marker stay with the request.
+ */
+@Service
+public class BootstrapService {
+
+    private final CatalogPayloadService catalogPayloadService;
+    private final CatalogFacetIndex catalogFacetIndex;
+    private final EmergencyService emergencyService;
+
+    public BootstrapService(CatalogPayloadService catalogPayloadService, CatalogFacetIndex catalogFacetIndex,
+                            EmergencyService emergencyService) {
+        this.catalogPayloadService = catalogPayloadService;
+        this.catalogFacetIndex = catalogFacetIndex;
+        this.emergencyService = emergencyService;
+    }
+
+    /**
+     * @param user        profile of the signed-in user, or null for an anonymous request
+     * @param favoriteIds emergency ids the app keeps as favorites, resolved in the same response
+     */
+    public BootstrapPayload load(Map<String, Object> user, List<Long> favoriteIds) {
+        CatalogPayload payload = catalogPayloadService.getCatalog();
+        FacetedResult counts = catalogFacetIndex.filter(List.of(), List.of());
+        BootstrapPayload.CatalogSummary summary = new BootstrapPayload.CatalogSummary(payload.getRevision(),
+                payload.getEtag(), counts.getEmergencies().size(), counts.getFacets());
+        List<EmergencyDTO> critical = emergencyService.getCriticalEmergencies();
+        EmergencyBatch<Long> favorites = EmergencyBatch.of(favoriteIds, emergencyService.getEmergenciesByIds(favoriteIds));
+        return new BootstrapPayload(summary, critical, user, favorites);
+    }
+}
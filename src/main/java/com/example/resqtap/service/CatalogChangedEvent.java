@@ -0,0 +1,23 @@
+package com.example.resqtap.service;
+
+import java.util.Set;
+
+// Published once a write to the emergency catalog has been committed.
+public class CatalogChangedEvent {
+
+    private final long revision;
+    private final Set<Long> emergencyIds;
+
+    public CatalogChangedEvent(long revision, Set<Long> emergencyIds) {
+        this.revision = revision;
+        this.emergencyIds = Set.copyOf(emergencyIds);
+    }
+
+    public long getRevision() {
+        return revision;
+    }
+
+    public Set<Long> getEmergencyIds() {
+        return emergencyIds;
+    }
+}
@@ -0,0 +1,252 @@
+package com.example.resqtap.service;
+
+import com.example.resqtap.model.Emergency;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.aot.hint.annotation.RegisterReflectionForBinding;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Keeps the catalog in line with a directory of category files in the {@code frontend/data/*.json} format,
+ * when {@code resqtap.catalog.content-dir} is set, so a protocol change needs neither a redeploy nor one
+ * admin PUT per emergency.
+ *
+ * <p>Every file is applied once when the application is ready. After that a {@link WatchService} reports
+ * written files, which are collected until none has changed for {@code resqtap.catalog.content-debounce}
+ * (editors often save in several writes) and parsed again. Only entries that differ from the file's
+ * previous parse are passed to {@link EmergencyService#applyCatalogContent}, which writes what differs
+ * from the database in one transaction. An entry dropped from a file is deleted unless another file now
+ * lists it; deleting a file deletes nothing, as some editors save by delete and create. A file that does
+ * not parse is logged and skipped, and its previous content stays in effect.
+ */
+@Component
+@RegisterReflectionForBinding(CatalogContentWatcher.ContentEntry.class)
+public class CatalogContentWatcher {
+
+    private static final Logger logger = LoggerFactory.getLogger(CatalogContentWatcher.class);
+
+    private static final TypeReference<List<ContentEntry>> ENTRIES = new TypeReference<>() {};
+
+    private final EmergencyService emergencyService;
+    private final ObjectMapper objectMapper;
+    private final Path directory;
+    private final Duration debounce;
+
+    // Last applied parse of each file, by lowercase name; only touched under this object's lock
+    private final Map<Path, Map<String, ContentEntry>> applied = new HashMap<>();
+    // Files whose changes failed to apply, retried with the next batch
+    private final Set<Path> pending = new HashSet<>();
+
+    private WatchService watchService;
+
+    public CatalogContentWatcher(EmergencyService emergencyService, ObjectMapper objectMapper,
+                                 @Value("${resqtap.catalog.content-dir:}") String directory,
+                                 @Value("${resqtap.catalog.content-debounce:PT0.5S}") Duration debounce) {
+        this.emergencyService = emergencyService;
+        this.objectMapper = objectMapper;
+        this.directory = directory.isBlank() ? null : Path.of(directory).toAbsolutePath();
+        this.debounce = debounce;
+    }
+
+    // After ApplicationReadyEvent, so the seeder has run; enabled by property rather than a bean condition for AOT
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void start() throws IOException {
+        if (directory == null || watchService != null) {
+            return;
+        }
+        // Registered before the first load, so a file written meanwhile is still reported
+        watchService = FileSystems.getDefault().newWatchService();
+        directory.register(watchService, StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY);
+        reload(contentFiles());
+        Thread thread = new Thread(this::watch, "catalog-content-watcher");
+        thread.setDaemon(true);
+        thread.start();
+        logger.info("Watching {} for catalog content", directory);
+    }
+
+    @PreDestroy
+    public synchronized void stop() throws IOException {
+        if (watchService != null) {
+            watchService.close();
+        }
+    }
+
+    /**
+     * Parses the given files and applies what changed since they were last applied. Returns the ids of the
+     * emergencies created, updated or deleted.
+     */
+    synchronized Set<Long> reload(Collection<Path> files) {
+        Set<Path> batch = new HashSet<>(pending);
+        batch.addAll(files);
+        Map<Path, Map<String, ContentEntry>> parsed = new HashMap<>();
+        for (Path file : batch) {
+            if (!Files.isRegularFile(file)) {
+                continue;
+            }
+            try {
+                parsed.put(file, parse(file));
+            } catch (IOException | IllegalArgumentException e) {
+                logger.warn("Skipping catalog content {}: {}", file.getFileName(), e.getMessage());
+            }
+        }
+
+        Map<String, ContentEntry> edited = new LinkedHashMap<>();
+        Set<String> dropped = new HashSet<>();
+        parsed.forEach((file, entries) -> {
+            Map<String, ContentEntry> previous = applied.getOrDefault(file, Map.of());
+            entries.forEach((name, entry) -> {
+                if (!entry.equals(previous.get(name))) {
+                    edited.put(name, entry);
+                }
+            });
+            previous.keySet().stream().filter(name -> !entries.containsKey(name)).forEach(dropped::add);
+        });
+        // Moved to another file rather than removed
+        dropped.removeIf(name -> parsed.values().stream().anyMatch(entries -> entries.containsKey(name))
+                || applied.entrySet().stream().anyMatch(file -> !parsed.containsKey(file.getKey())
+                        && file.getValue().containsKey(name)));
+
+        Set<Long> changed = Set.of();
+        if (!edited.isEmpty() || !dropped.isEmpty()) {
+            try {
+                changed = emergencyService.applyCatalogContent(
+                        edited.values().stream().map(ContentEntry::toEmergency).toList(), dropped);
+            } catch (RuntimeException e) {
+                pending.addAll(parsed.keySet());
+                logger.error("Could not apply catalog content from {} files, retrying with the next change",
+                        parsed.size(), e);
+                return Set.of();
+            }
+            logger.info("Catalog content applied from {} files: {} entries edited, {} removed, {} emergencies changed",
+                    parsed.size(), edited.size(), dropped.size(), changed.size());
+        }
+        applied.putAll(parsed);
+        pending.removeAll(parsed.keySet());
+        return changed;
+    }
+
+    private void watch() {
+        try {
+            while (true) {
+                Set<Path> changed = new HashSet<>();
+                try {
+                    collect(watchService.take(), changed);
+                    WatchKey more;
+                    while ((more = watchService.poll(debounce.toMillis(), TimeUnit.MILLISECONDS)) != null) {
+                        collect(more, changed);
+                    }
+                    reload(changed);
+                } catch (IOException | RuntimeException e) {
+                    if (e instanceof ClosedWatchServiceException closed) {
+                        throw closed;
+                    }
+                    logger.error("Catalog content reload failed", e);
+                }
+            }
+        } catch (InterruptedException | ClosedWatchServiceException e) {
+            // Stopped
+        }
+    }
+
+    private void collect(WatchKey key, Set<Path> changed) throws IOException {
+        for (WatchEvent<?> event : key.pollEvents()) {
+            if (event.kind() == StandardWatchEventKinds.OVERFLOW) {
+                // Events were lost; compare everything
+                changed.addAll(contentFiles());
+            } else if (event.context() instanceof Path name && isContentFile(name)) {
+                changed.add(directory.resolve(name));
+            }
+        }
+        key.reset();
+    }
+
+    private List<Path> contentFiles() throws IOException {
+        List<Path> files = new ArrayList<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory)) {
+            for (Path file : stream) {
+                if (isContentFile(file.getFileName()) && Files.isRegularFile(file)) {
+                    files.add(file);
+                }
+            }
+        }
+        return files;
+    }
+
+    // Hidden files cover editor swap and backup files
+    private static boolean isContentFile(Path name) {
+        String fileName = name.toString();
+        return fileName.endsWith(".json") && !fileName.startsWith(".");
+    }
+
+    private Map<String, ContentEntry> parse(Path file) throws IOException {
+        Map<String, ContentEntry> entries = new LinkedHashMap<>();
+        for (ContentEntry entry : objectMapper.readValue(file.toFile(), ENTRIES)) {
+            entry.validate();
+            entries.put(entry.name().toLowerCase(Locale.ROOT), entry);
+        }
+        return entries;
+    }
+
+    /**
+     * One emergency as written in a category file. The {@code id} slug is not used: the application derives
+     * slugs from names.
+     */
+    record ContentEntry(String id, String name, String category, String severity, String description,
+                        String image, List<ContentStep> steps) {
+
+        void validate() {
+            if (name == null || name.isBlank() || category == null || category.isBlank()) {
+                throw new IllegalArgumentException("Every entry needs a name and a category");
+            }
+            if (severity == null) {
+                throw new IllegalArgumentException("No severity for " + name);
+            }
+            Emergency.Severity.valueOf(severity.toUpperCase(Locale.ROOT));
+            if (steps != null && steps.stream().map(ContentStep::order).distinct().count() != steps.size()) {
+                throw new IllegalArgumentException("Duplicate step order in " + name);
+            }
+        }
+
+        Emergency toEmergency() {
+            Emergency emergency = new Emergency(name, category, Emergency.Severity.valueOf(severity.toUpperCase(Locale.ROOT)),
+                    description, image);
+            if (steps != null) {
+                for (ContentStep step : steps) {
+                    emergency.addStep(step.order(), step.text(), step.image());
+                }
+            }
+            return emergency;
+        }
+    }
+
+    record ContentStep(int order, String text, String image) {
+    }
+}
@@ -0,0 +1,179 @@
+package com.example.resqtap.service;
+
+import com.example.resqtap.dto.EmergencyDTO;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Answers any combination of category and severity filters from one {@link BitSet} per facet value,
+ * built once per {@link CatalogRevision}. Values within a facet are OR-ed, facets are AND-ed.
+ */
+@Service
+public class CatalogFacetIndex {
+
+    private final EmergencyService emergencyService;
+    private final CatalogRevision catalogRevision;
+    private final StaleCacheTier staleCacheTier;
+
+    private volatile Index current;
+
+    public CatalogFacetIndex(EmergencyService emergencyService, CatalogRevision catalogRevision,
+                             StaleCacheTier staleCacheTier) {
+        this.emergencyService = emergencyService;
+        this.catalogRevision = catalogRevision;
+        this.staleCacheTier = staleCacheTier;
+    }
+
+    /**
+     * Emergencies matching every non-empty facet, in catalog order, with per-value counts.
+     * Counts for a facet ignore that facet's own selection, so they tell how many results
+     * each value would add if it were selected too.
+     */
+    public FacetedResult filter(Collection<String> categories, Collection<String> severities) {
+        Index index = index();
+        BitSet byCategory = index.union(index.categories, categories);
+        BitSet bySeverity = index.union(index.severities, severities);
+
+        BitSet matches = index.all();
+        intersect(matches, byCategory);
+        intersect(matches, bySeverity);
+
+        List<EmergencyDTO> emergencies = new ArrayList<>(matches.cardinality());
+        for (int i = matches.nextSetBit(0); i >= 0; i = matches.nextSetBit(i + 1)) {
+            emergencies.add(index.emergencies.get(i));
+        }
+        return new FacetedResult(index.revision, emergencies,
+                counts(index.categories, bySeverity), counts(index.severities, byCategory));
+    }
+
+    private Index index() {
+        Index index = current;
+        if (index == null || index.revision != catalogRevision.current()) {
+            synchronized (this) {
+                index = current;
+                long revision = catalogRevision.current();
+                if (index == null || index.revision != revision) {
+                    index = build(revision);
+                    current = index;
+                }
+            }
+        }
+        if (index.staleAsOf != null) {
+            staleCacheTier.markServed(index.staleAsOf);
+        }
+        return index;
+    }
+
+    private Index build(long revision) {
+        StaleCacheTier.Served<List<EmergencyDTO>> loaded = staleCacheTier.track(emergencyService::getAllEmergencies);
+        List<EmergencyDTO> emergencies = loaded.value();
+        Instant staleAsOf = loaded.staleAsOf();
+        Map<String, BitSet> categories = new HashMap<>();
+        Map<String, BitSet> severities = new HashMap<>();
+        for (int i = 0; i < emergencies.size(); i++) {
+            EmergencyDTO emergency = emergencies.get(i);
+            categories.computeIfAbsent(emergency.getCategory(), value -> new BitSet()).set(i);
+            severities.computeIfAbsent(emergency.getSeverity(), value -> new BitSet()).set(i);
+        }
+        return new Index(revision, List.copyOf(emergencies), categories, severities, staleAsOf);
+    }
+
+    // A null selection means the facet is not filtered on
+    private static void intersect(BitSet matches, BitSet selection) {
+        if (selection != null) {
+            matches.and(selection);
+        }
+    }
+
+    private static Map<String, Integer> counts(Map<String, BitSet> facet, BitSet otherFacets) {
+        Map<String, Integer> counts = new TreeMap<>();
+        for (Map.Entry<String, BitSet> value : facet.entrySet()) {
+            int count;
+            if (otherFacets == null) {
+                count = value.getValue().cardinality();
+            } else {
+                BitSet both = (BitSet) value.getValue().clone();
+                both.and(otherFacets);
+                count = both.cardinality();
+            }
+            counts.put(value.getKey(), count);
+        }
+        return counts;
+    }
+
+    private static final class Index {
+
+        private final long revision;
+        private final List<EmergencyDTO> emergencies;
+        private final Map<String, BitSet> categories;
+        private final Map<String, BitSet> severities;
+        private final Instant staleAsOf;
+
+        private Index(long revision, List<EmergencyDTO> emergencies, Map<String, BitSet> categories,
+                      Map<String, BitSet> severities, Instant staleAsOf) {
+            this.revision = revision;
+            this.emergencies = emergencies;
+            this.categories = categories;
+            this.severities = severities;
+            this.staleAsOf = staleAsOf;
+        }
+
+        private BitSet all() {
+            BitSet all = new BitSet(emergencies.size());
+            all.set(0, emergencies.size());
+            return all;
+        }
+
+        // Never mutates the indexed sets; callers get a fresh one
+        private BitSet union(Map<String, BitSet> facet, Collection<String> values) {
+            if (values == null || values.isEmpty()) {
+                return null;
+            }
+            BitSet union = new BitSet(emergencies.size());
+            for (String value : values) {
+                BitSet matching = facet.get(value);
+                if (matching != null) {
+                    union.or(matching);
+                }
+            }
+            return union;
+        }
+    }
+
+    public static class FacetedResult {
+
+        private final long revision;
+        private final List<EmergencyDTO> emergencies;
+        private final Map<String, Map<String, Integer>> facets;
+
+        FacetedResult(long revision, List<EmergencyDTO> emergencies, Map<String, Integer> categories,
+                      Map<String, Integer> severities) {
+            this.revision = revision;
+            this.emergencies = emergencies;
+            this.facets = new LinkedHashMap<>();
+            this.facets.put("category", categories);
+            this.facets.put("severity", severities);
+        }
+
+        public long getRevision() {
+            return revision;
+        }
+
+        public List<EmergencyDTO> getEmergencies() {
+            return emergencies;
+        }
+
+        public Map<String, Map<String, Integer>> getFacets() {
+            return facets;
+        }
+    }
+}
@@ -0,0 +1,238 @@
+package com.example.resqtap.service;
+
+import com.example.resqtap.dto.CompactCatalog;
+import com.example.resqtap.dto.EmergencyDTO;
+import com.example.resqtap.web.CacheOutcome;
+import com.example.resqtap.web.ContentCoding;
+import com.example.resqtap.web.EncodedPayload;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileGenerator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.lang.management.ManagementFactory;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Serializes and compresses the full catalog once per {@link CatalogRevision}
+ * instead of once per request, both as JSON and as the compact Smile form.
+ * List views of the catalog (a category, a severity, the critical guides) are
+ * serialized and compressed once per revision on their first request.
+ */
+@Service
+public class CatalogPayloadService {
+
+    private static final Logger logger = LoggerFactory.getLogger(CatalogPayloadService.class);
+
+    private final EmergencyService emergencyService;
+    private final CatalogRevision catalogRevision;
+    private final ObjectMapper objectMapper;
+    private final CatalogSnapshotStore catalogSnapshotStore;
+    private final StaleCacheTier staleCacheTier;
+    private final ObjectMapper smileMapper;
+
+    private volatile CatalogPayload current;
+    private volatile Views views = new Views(-1);
+
+    public CatalogPayloadService(EmergencyService emergencyService, CatalogRevision catalogRevision,
+                                 CatalogSnapshotStore catalogSnapshotStore, StaleCacheTier staleCacheTier,
+                                 ObjectMapper objectMapper) {
+        this.emergencyService = emergencyService;
+        this.catalogRevision = catalogRevision;
+        this.catalogSnapshotStore = catalogSnapshotStore;
+        this.staleCacheTier = staleCacheTier;
+        this.objectMapper = objectMapper;
+        // Shared string values let repeated texts ("Call 911 immediately") become back-references
+        this.smileMapper = objectMapper.copyWith(SmileFactory.builder()
+                .enable(SmileGenerator.Feature.CHECK_SHARED_STRING_VALUES)
+                .build());
+    }
+
+    public CatalogPayload getCatalog() {
+        CatalogPayload payload = current;
+        if (payload == null || payload.getRevision() != catalogRevision.current()) {
+            synchronized (this) {
+                payload = current;
+                long revision = catalogRevision.current();
+                if (payload == null || payload.getRevision() != revision) {
+                    payload = build(revision);
+                    current = payload;
+                    CacheOutcome.miss();
+                }
+            }
+        }
+        CacheOutcome.hit();
+        if (payload.getStaleAsOf() != null) {
+            staleCacheTier.markServed(payload.getStaleAsOf());
+        }
+        return payload;
+    }
+
+    /**
+     * The view called {@code name}, loaded with {@code loader} and precompressed if this revision has not
+     * built it yet. Empty views are not kept, so made-up category names cannot grow the map, and neither
+     * are views built from stale data, so they are rebuilt once the database is back.
+     */
+    public CatalogView getView(String name, Supplier<List<EmergencyDTO>> loader) {
+        // Read before loading, so a view that races a write is kept under the older revision
+        long revision = catalogRevision.current();
+        Views built = views;
+        if (built.revision != revision) {
+            built = new Views(revision);
+            views = built;
+        }
+        CatalogView view = built.byName.get(name);
+        if (view != null) {
+            CacheOutcome.hit();
+            return view;
+        }
+        StaleCacheTier.Served<List<EmergencyDTO>> loaded = staleCacheTier.track(loader);
+        List<EmergencyDTO> emergencies = loaded.value();
+        byte[] json;
+        try {
+            json = objectMapper.writeValueAsBytes(emergencies);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize catalog view " + name, e);
+        }
+        view = new CatalogView(etag(json), EncodedPayload.of(json));
+        if (!emergencies.isEmpty() && loaded.staleAsOf() == null) {
+            built.byName.put(name, view);
+        }
+        CacheOutcome.miss();
+        return view;
+    }
+
+    // Build the first payload before traffic arrives rather than on the first request
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        getCatalog();
+        logger.info("Catalog ready to serve {} ms after JVM start{}", ManagementFactory.getRuntimeMXBean().getUptime(),
+                catalogSnapshotStore.isDegraded() ? " (from snapshot, database unavailable)" : "");
+    }
+
+    private CatalogPayload build(long revision) {
+        long start = System.nanoTime();
+        StaleCacheTier.Served<List<EmergencyDTO>> loaded = staleCacheTier.track(emergencyService::getAllEmergencies);
+        List<EmergencyDTO> emergencies = loaded.value();
+        Instant staleAsOf = loaded.staleAsOf();
+        byte[] json;
+        byte[] smile;
+        try {
+            json = objectMapper.writeValueAsBytes(emergencies);
+            smile = smileMapper.writeValueAsBytes(CompactCatalog.from(emergencies));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize catalog", e);
+        }
+        // Only a catalog that came from the database is worth persisting
+        if (staleAsOf == null) {
+            catalogSnapshotStore.saveInBackground(revision, smile, emergencies);
+        }
+        EncodedPayload encodedJson = EncodedPayload.of(json);
+        EncodedPayload encodedSmile = EncodedPayload.of(smile);
+        long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+
+        logger.info("Catalog revision {} precompressed in {} ms: json={} B (gzip={} B, br={} B), smile={} B (gzip={} B, br={} B)",
+                revision, elapsedMs, encodedJson.size(ContentCoding.IDENTITY),
+                encodedJson.size(ContentCoding.GZIP), encodedJson.size(ContentCoding.BROTLI),
+                encodedSmile.size(ContentCoding.IDENTITY),
+                encodedSmile.size(ContentCoding.GZIP), encodedSmile.size(ContentCoding.BROTLI));
+        return new CatalogPayload(revision, etag(json), encodedJson, etag(smile), encodedSmile, staleAsOf);
+    }
+
+    // Content-based so that every node serving the same catalog hands out the same validator.
+    // Weak, because it stands for the identity, gzip and Brotli bytes alike.
+    private static String etag(byte[] json) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(json);
+            return "W/\"" + HexFormat.of().formatHex(digest, 0, 12) + "\"";
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    public static class CatalogPayload {
+
+        private final long revision;
+        private final String etag;
+        private final EncodedPayload json;
+        private final String smileEtag;
+        private final EncodedPayload smile;
+        private final Instant staleAsOf;
+
+        CatalogPayload(long revision, String etag, EncodedPayload json, String smileEtag, EncodedPayload smile,
+                       Instant staleAsOf) {
+            this.revision = revision;
+            this.etag = etag;
+            this.json = json;
+            this.smileEtag = smileEtag;
+            this.smile = smile;
+            this.staleAsOf = staleAsOf;
+        }
+
+        public long getRevision() {
+            return revision;
+        }
+
+        public String getEtag() {
+            return etag;
+        }
+
+        public EncodedPayload getJson() {
+            return json;
+        }
+
+        public String getSmileEtag() {
+            return smileEtag;
+        }
+
+        public EncodedPayload getSmile() {
+            return smile;
+        }
+
+        // Set when the catalog could not be read from the database and was built from stale data
+        public Instant getStaleAsOf() {
+            return staleAsOf;
+        }
+    }
+
+    public static class CatalogView {
+
+        private final String etag;
+        private final EncodedPayload json;
+
+        CatalogView(String etag, EncodedPayload json) {
+            this.etag = etag;
+            this.json = json;
+        }
+
+        public String getEtag() {
+            return etag;
+        }
+
+        public EncodedPayload getJson() {
+            return json;
+        }
+    }
+
+    private static final class Views {
+
+        private final long revision;
+        private final Map<String, CatalogView> byName = new ConcurrentHashMap<>();
+
+        Views(long revision) {
+            this.revision = revision;
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package com.example.resqtap.service;
+
+import com.example.resqtap.repository.EmergencyRepository;
+import org.flywaydb.core.api.FlywayException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Brings a node back onto the database after reads were answered from stale data:
+ * once the database responds again, the catalog caches (fresh and stale tier) are dropped and the
+ * catalog revision advances so the precompressed payloads are rebuilt from live data.
+ */
+@Component
+public class CatalogReconciler {
+
+    private static final Logger logger = LoggerFactory.getLogger(CatalogReconciler.class);
+
+    static final List<String> CATALOG_CACHES = List.of("emergencies", "emergency", "emergencyBySlug",
+            "emergencyByName", "emergenciesByCategory", "emergenciesBySeverity", "criticalEmergencies");
+
+    private final CatalogSnapshotStore catalogSnapshotStore;
+    private final EmergencyRepository emergencyRepository;
+    private final DatabaseCircuitBreaker database;
+    private final CatalogRevision catalogRevision;
+    private final CacheManager cacheManager;
+    private final DeferredMigration deferredMigration;
+
+    public CatalogReconciler(CatalogSnapshotStore catalogSnapshotStore, EmergencyRepository emergencyRepository,
+                             DatabaseCircuitBreaker database, CatalogRevision catalogRevision,
+                             CacheManager cacheManager, DeferredMigration deferredMigration) {
+        this.catalogSnapshotStore = catalogSnapshotStore;
+        this.emergencyRepository = emergencyRepository;
+        this.database = database;
+        this.catalogRevision = catalogRevision;
+        this.cacheManager = cacheManager;
+        this.deferredMigration = deferredMigration;
+    }
+
+    @Scheduled(fixedDelayString = "${resqtap.snapshot.reconcile-interval:PT10S}")
+    public void reconcile() {
+        if (!catalogSnapshotStore.isDegraded()) {
+            return;
+        }
+        if (deferredMigration.isPending()) {
+            // Started without the database; its schema must be current before live reads resume
+            try {
+                deferredMigration.runPending();
+            } catch (FlywayException e) {
+                if (!DeferredMigration.isConnectionFailure(e)) {
+                    throw e;
+                }
+                logger.debug("Database still unavailable: {}", e.getMessage());
+                return;
+            }
+        }
+        long count;
+        try {
+            // Through the breaker: while it is open there is no point probing, and its half-open trial decides recovery
+            count = database.call(emergencyRepository::count);
+        } catch (RuntimeException e) {
+            if (!DatabaseCircuitBreaker.isTransient(e)) {
+                throw e;
+            }
+            logger.debug("Database still unavailable: {}", e.getMessage());
+            return;
+        }
+        if (catalogSnapshotStore.clearDegraded()) {
+            for (String name : CATALOG_CACHES) {
+                Cache cache = cacheManager.getCache(name);
+                if (cache != null) {
+                    cache.clear();
+                }
+            }
+            catalogRevision.changed(List.of());
+            logger.info("Database available again ({} emergencies), catalog reconciled", count);
+        }
+    }
+}
@@ -0,0 +1,148 @@
+package com.example.resqtap.service;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Monotonic revision number of the emergency catalog on this node.
+ * The revision only advances after the surrounding transaction commits, so anything
+ * built from the catalog and tagged with {@link #current()} never outlives the data it was built from.
+ *
+ * <p>Writes on any node also bump the single row of {@code catalog_revision} in their own transaction,
+ * and every node polls that row. A change this node did not commit itself, or one that skips a cluster
+ * revision it has not seen, drops all of its catalog caches, Spring's and Hibernate's, and advances the
+ * local revision with no emergency ids, meaning "anything may have changed". The row lock also orders
+ * concurrent writers, so cluster revisions commit in order.
+ */
+@Component
+public class CatalogRevision {
+
+    private static final Logger logger = LoggerFactory.getLogger(CatalogRevision.class);
+
+    private static final long UNKNOWN = -1;
+
+    private final ApplicationEventPublisher eventPublisher;
+    private final JdbcTemplate jdbcTemplate;
+    private final DatabaseCircuitBreaker database;
+    private final CacheManager cacheManager;
+    private final EntityManagerFactory entityManagerFactory;
+
+    // All guarded by this object's lock
+    private long revision = 1;
+    private long clusterRevision = UNKNOWN;
+    // Cluster revisions bumped by transactions of this node that have not completed yet
+    private final Set<Long> committing = new HashSet<>();
+
+    public CatalogRevision(ApplicationEventPublisher eventPublisher, JdbcTemplate jdbcTemplate,
+                           DatabaseCircuitBreaker database, CacheManager cacheManager,
+                           EntityManagerFactory entityManagerFactory) {
+        this.eventPublisher = eventPublisher;
+        this.jdbcTemplate = jdbcTemplate;
+        this.database = database;
+        this.cacheManager = cacheManager;
+        this.entityManagerFactory = entityManagerFactory;
+        // Nothing is cached yet, so whatever the cluster is at needs no invalidation
+        try {
+            clusterRevision = readClusterRevision();
+        } catch (DataAccessException e) {
+            logger.debug("Cluster catalog revision not available at startup: {}", e.getMessage());
+        }
+    }
+
+    public synchronized long current() {
+        return revision;
+    }
+
+    public void changed(Collection<Long> emergencyIds) {
+        Set<Long> ids = Set.copyOf(emergencyIds);
+        jdbcTemplate.update("UPDATE catalog_revision SET revision = revision + 1 WHERE id = 1");
+        long cluster = readClusterRevision();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            synchronized (this) {
+                committing.add(cluster);
+            }
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    advance(cluster, ids, true);
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    synchronized (CatalogRevision.this) {
+                        committing.remove(cluster);
+                    }
+                }
+            });
+        } else {
+            advance(cluster, ids, true);
+        }
+    }
+
+    // Picks up changes committed by other nodes
+    @Scheduled(fixedDelayString = "${resqtap.catalog.revision-poll-interval:PT5S}")
+    public void poll() {
+        long cluster;
+        try {
+            cluster = database.call(this::readClusterRevision);
+        } catch (DataAccessException e) {
+            logger.debug("Could not read the cluster catalog revision: {}", e.getMessage());
+            return;
+        }
+        synchronized (this) {
+            // A write of this node that is committing is advanced by its own transaction, with its ids
+            if (cluster == clusterRevision || committing.contains(cluster)) {
+                return;
+            }
+        }
+        advance(cluster, Set.of(), false);
+    }
+
+    private void advance(long cluster, Set<Long> ids, boolean own) {
+        long next;
+        Set<Long> changed = ids;
+        synchronized (this) {
+            // An own write already covered by a poll that saw a later change
+            if (cluster == clusterRevision || own && clusterRevision != UNKNOWN && cluster < clusterRevision) {
+                return;
+            }
+            if (!own || clusterRevision == UNKNOWN || cluster != clusterRevision + 1) {
+                // Changes of other nodes, which were not evicted here
+                invalidateAll();
+                changed = Set.of();
+            }
+            clusterRevision = cluster;
+            next = ++revision;
+        }
+        eventPublisher.publishEvent(new CatalogChangedEvent(next, changed));
+    }
+
+    private void invalidateAll() {
+        for (String name : CatalogReconciler.CATALOG_CACHES) {
+            Cache cache = cacheManager.getCache(name);
+            if (cache != null) {
+                cache.clear();
+            }
+        }
+        entityManagerFactory.unwrap(SessionFactory.class).getCache().evictAllRegions();
+    }
+
+    private long readClusterRevision() {
+        return jdbcTemplate.queryForObject("SELECT revision FROM catalog_revision WHERE id = 1", Long.class);
+    }
+}
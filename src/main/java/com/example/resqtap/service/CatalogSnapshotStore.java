@@ -0,0 +1,231 @@
+package com.example.resqtap.service;
+
+import com.example.resqtap.dto.CompactCatalog;
+import com.example.resqtap.dto.EmergencyDTO;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.util.ByteBufferBackedInputStream;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.zip.CRC32;
+
+/**
+ * Keeps the last catalog read from the database in a local file so that this node can keep
+ * answering reads while the database is slow or unreachable.
+ *
+ * <p>File layout (big-endian): magic {@code RQSN}, format version, catalog revision,
+ * save time in epoch millis, payload length, CRC32 of the payload, then the payload itself:
+ * the {@link CompactCatalog} encoded as Smile, exactly as served to clients.
+ *
+ * <p>The live path saves through {@link #saveInBackground}, which writes and syncs the file on a
+ * single writer thread; the snapshot is available to {@link #current()} as soon as it is handed over.
+ */
+@Component
+public class CatalogSnapshotStore {
+
+    private static final Logger logger = LoggerFactory.getLogger(CatalogSnapshotStore.class);
+
+    static final int MAGIC = 0x5251534E; // "RQSN"
+    static final int FORMAT_VERSION = 1;
+    static final int HEADER_SIZE = 4 + 4 + 8 + 8 + 4 + 4;
+
+    private final Path path;
+    private final ObjectMapper smileMapper;
+    private final AtomicBoolean degraded = new AtomicBoolean();
+    private final ExecutorService writer = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "catalog-snapshot-writer");
+        thread.setDaemon(true);
+        return thread;
+    });
+    // Newest snapshot not yet picked up by the writer; older ones it replaces are never written
+    private final AtomicReference<PendingSave> pendingSave = new AtomicReference<>();
+
+    private volatile Snapshot snapshot;
+
+    public CatalogSnapshotStore(@Value("${resqtap.snapshot.path:${java.io.tmpdir}/resqtap/catalog.snapshot}") Path path,
+                                ObjectMapper objectMapper) {
+        this.path = path;
+        this.smileMapper = objectMapper.copyWith(new SmileFactory());
+    }
+
+    /**
+     * Makes the snapshot current and queues it to be written; returns without waiting for the disk.
+     */
+    public void saveInBackground(long revision, byte[] smile, List<EmergencyDTO> emergencies) {
+        Instant savedAt = Instant.now();
+        snapshot = new Snapshot(revision, savedAt, List.copyOf(emergencies));
+        if (pendingSave.getAndSet(new PendingSave(revision, savedAt, smile)) == null) {
+            writer.execute(() -> {
+                PendingSave next = pendingSave.getAndSet(null);
+                write(next.revision(), next.savedAt(), next.smile());
+            });
+        }
+    }
+
+    // Lets a queued snapshot reach the disk on a graceful shutdown
+    @PreDestroy
+    public void close() throws InterruptedException {
+        writer.shutdown();
+        writer.awaitTermination(5, TimeUnit.SECONDS);
+    }
+
+    public void save(long revision, byte[] smile, List<EmergencyDTO> emergencies) {
+        Instant savedAt = Instant.now();
+        if (write(revision, savedAt, smile)) {
+            snapshot = new Snapshot(revision, savedAt, List.copyOf(emergencies));
+        }
+    }
+
+    // Written to a temporary sibling and moved into place, so readers never see a half-written file
+    private boolean write(long revision, Instant savedAt, byte[] smile) {
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE)
+                .putInt(MAGIC)
+                .putInt(FORMAT_VERSION)
+                .putLong(revision)
+                .putLong(savedAt.toEpochMilli())
+                .putInt(smile.length)
+                .putInt((int) crc32(ByteBuffer.wrap(smile)))
+                .flip();
+        try {
+            Path dir = path.toAbsolutePath().getParent();
+            Files.createDirectories(dir);
+            Path tmp = Files.createTempFile(dir, path.getFileName().toString(), ".tmp");
+            try (FileChannel channel = FileChannel.open(tmp, StandardOpenOption.WRITE)) {
+                channel.write(new ByteBuffer[]{header, ByteBuffer.wrap(smile)});
+                channel.force(true);
+            }
+            Files.move(tmp, path, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            logger.debug("Catalog snapshot revision {} written to {} ({} B)", revision, path, HEADER_SIZE + smile.length);
+            return true;
+        } catch (IOException e) {
+            // A missing snapshot only matters during an outage; never fail the live path over it
+            logger.warn("Could not write catalog snapshot to {}: {}", path, e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * The last snapshot written by this node, or read from disk if none was written yet.
+     * Empty if there is no file or it fails validation.
+     */
+    public Optional<Snapshot> current() {
+        Snapshot loaded = snapshot;
+        if (loaded == null) {
+            synchronized (this) {
+                loaded = snapshot;
+                if (loaded == null) {
+                    loaded = read().orElse(null);
+                    snapshot = loaded;
+                }
+            }
+        }
+        return Optional.ofNullable(loaded);
+    }
+
+    private Optional<Snapshot> read() {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            if (channel.size() < HEADER_SIZE) {
+                logger.warn("Ignoring truncated catalog snapshot {}", path);
+                return Optional.empty();
+            }
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            int magic = buffer.getInt();
+            int version = buffer.getInt();
+            long revision = buffer.getLong();
+            Instant savedAt = Instant.ofEpochMilli(buffer.getLong());
+            int length = buffer.getInt();
+            int crc = buffer.getInt();
+            if (magic != MAGIC || version != FORMAT_VERSION || length != buffer.remaining()) {
+                logger.warn("Ignoring catalog snapshot {}: unknown format or wrong length", path);
+                return Optional.empty();
+            }
+            ByteBuffer payload = buffer.slice();
+            if ((int) crc32(payload.duplicate()) != crc) {
+                logger.warn("Ignoring catalog snapshot {}: checksum mismatch", path);
+                return Optional.empty();
+            }
+            CompactCatalog catalog = smileMapper.readValue(new ByteBufferBackedInputStream(payload), CompactCatalog.class);
+            logger.info("Loaded catalog snapshot revision {} saved at {} from {}", revision, savedAt, path);
+            return Optional.of(new Snapshot(revision, savedAt, catalog.toEmergencies()));
+        } catch (NoSuchFileException e) {
+            return Optional.empty();
+        } catch (IOException e) {
+            logger.warn("Could not read catalog snapshot {}: {}", path, e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    private static long crc32(ByteBuffer bytes) {
+        CRC32 crc = new CRC32();
+        crc.update(bytes);
+        return crc.getValue();
+    }
+
+    // Set when a read was answered from the snapshot; cleared once the database has been reconciled
+    public void markDegraded() {
+        if (degraded.compareAndSet(false, true)) {
+            logger.warn("Database unavailable, serving catalog reads from snapshot {}", path);
+        }
+    }
+
+    public boolean isDegraded() {
+        return degraded.get();
+    }
+
+    boolean clearDegraded() {
+        return degraded.compareAndSet(true, false);
+    }
+
+    public Path getPath() {
+        return path;
+    }
+
+    private record PendingSave(long revision, Instant savedAt, byte[] smile) {
+    }
+
+    public static class Snapshot {
+
+        private final long revision;
+        private final Instant savedAt;
+        private final List<EmergencyDTO> emergencies;
+
+        Snapshot(long revision, Instant savedAt, List<EmergencyDTO> emergencies) {
+            this.revision = revision;
+            this.savedAt = savedAt;
+            this.emergencies = emergencies;
+        }
+
+        public long getRevision() {
+            return revision;
+        }
+
+        public Instant getSavedAt() {
+            return savedAt;
+        }
+
+        public List<EmergencyDTO> getEmergencies() {
+            return emergencies;
+        }
+    }
+}
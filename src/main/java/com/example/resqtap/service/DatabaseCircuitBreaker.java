@@ -0,0 +1,84 @@
+package com.example.resqtap.service;
+
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.github.resilience4j.micrometer.tagged.TaggedCircuitBreakerMetrics;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.RecoverableDataAccessException;
+import org.springframework.dao.TransientDataAccessException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.CannotCreateTransactionException;
+
+import java.time.Duration;
+import java.util.function.Supplier;
+
+/**
+ * Circuit breaker around catalog reads against the database. Once enough reads fail or run slow,
+ * further reads fail immediately for a while instead of each waiting out the connection and query
+ * timeouts; callers then answer from the stale tier or the catalog snapshot.
+ * State and call outcomes are published as {@code resilience4j.circuitbreaker.*} metrics.
+ */
+@Component
+public class DatabaseCircuitBreaker {
+
+    private static final Logger logger = LoggerFactory.getLogger(DatabaseCircuitBreaker.class);
+
+    private final CircuitBreaker circuitBreaker;
+
+    public DatabaseCircuitBreaker(MeterRegistry meterRegistry,
+                                  @Value("${resqtap.database.breaker.failure-rate-threshold:50}") float failureRateThreshold,
+                                  @Value("${resqtap.database.breaker.slow-call-duration:PT2S}") Duration slowCallDuration,
+                                  @Value("${resqtap.database.breaker.wait-in-open-state:PT10S}") Duration waitInOpenState) {
+        CircuitBreakerConfig config = CircuitBreakerConfig.custom()
+                .slidingWindowSize(20)
+                .minimumNumberOfCalls(5)
+                .failureRateThreshold(failureRateThreshold)
+                .slowCallDurationThreshold(slowCallDuration)
+                .slowCallRateThreshold(80)
+                .waitDurationInOpenState(waitInOpenState)
+                .permittedNumberOfCallsInHalfOpenState(3)
+                .automaticTransitionFromOpenToHalfOpenEnabled(true)
+                // Only infrastructure failures count; anything else is a bug, not an outage
+                .recordException(DatabaseCircuitBreaker::isTransient)
+                .build();
+        CircuitBreakerRegistry registry = CircuitBreakerRegistry.of(config);
+        this.circuitBreaker = registry.circuitBreaker("database");
+        this.circuitBreaker.getEventPublisher().onStateTransition(event ->
+                logger.warn("Database circuit breaker {}", event.getStateTransition()));
+        TaggedCircuitBreakerMetrics.ofCircuitBreakerRegistry(registry).bindTo(meterRegistry);
+    }
+
+    /**
+     * Runs {@code query} through the breaker. While the breaker is open this throws a
+     * {@link DataAccessResourceFailureException} without touching the database, so callers
+     * handle an open circuit exactly like a failed connection.
+     */
+    public <T> T call(Supplier<T> query) {
+        try {
+            return circuitBreaker.executeSupplier(query);
+        } catch (CallNotPermittedException e) {
+            throw new DataAccessResourceFailureException("Database circuit breaker is open", e);
+        }
+    }
+
+    /**
+     * Whether {@code e} means the database could not be reached or answer in time, as opposed to a
+     * rejected statement such as a constraint violation or bad SQL. Only these count against the breaker.
+     */
+    public static boolean isTransient(Throwable e) {
+        return e instanceof TransientDataAccessException
+                || e instanceof DataAccessResourceFailureException
+                || e instanceof RecoverableDataAccessException
+                || e instanceof CannotCreateTransactionException;
+    }
+
+    public CircuitBreaker.State getState() {
+        return circuitBreaker.getState();
+    }
+}
@@ -0,0 +1,69 @@
+package com.example.resqtap.service;
+
+import org.flywaydb.core.Flyway;
+import org.flywaydb.core.api.FlywayException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.flyway.FlywayMigrationStrategy;
+import org.springframework.stereotype.Component;
+
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+
+/**
+ * Lets a node start while the database is unreachable, as long as it has a catalog snapshot to serve
+ * from: instead of failing startup, the migration is put off and reads are answered from the snapshot.
+ * {@link CatalogReconciler} runs the migration once the database answers again, before reconciling.
+ * Without a snapshot there is nothing to serve, and startup fails as before.
+ */
+@Component
+public class DeferredMigration implements FlywayMigrationStrategy {
+
+    private static final Logger logger = LoggerFactory.getLogger(DeferredMigration.class);
+
+    private final CatalogSnapshotStore catalogSnapshotStore;
+
+    private Flyway pending;
+
+    public DeferredMigration(CatalogSnapshotStore catalogSnapshotStore) {
+        this.catalogSnapshotStore = catalogSnapshotStore;
+    }
+
+    @Override
+    public synchronized void migrate(Flyway flyway) {
+        try {
+            flyway.migrate();
+        } catch (FlywayException e) {
+            if (!isConnectionFailure(e) || catalogSnapshotStore.current().isEmpty()) {
+                throw e;
+            }
+            pending = flyway;
+            catalogSnapshotStore.markDegraded();
+            logger.warn("Database unavailable at startup, migrations deferred: {}", e.getMessage());
+        }
+    }
+
+    synchronized boolean isPending() {
+        return pending != null;
+    }
+
+    // Throws, leaving the migration pending, if it still cannot run
+    synchronized void runPending() {
+        if (pending != null) {
+            pending.migrate();
+            pending = null;
+            logger.info("Deferred migrations applied");
+        }
+    }
+
+    // SQLState class 08 is a connection exception; the pool reports its timeout as a transient one
+    static boolean isConnectionFailure(Throwable e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof SQLTransientConnectionException
+                    || cause instanceof SQLException sql && sql.getSQLState() != null && sql.getSQLState().startsWith("08")) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
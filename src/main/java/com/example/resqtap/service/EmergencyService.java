@@ -1,123 +1,501 @@
 package com.example.resqtap.service;
 
 import com.example.resqtap.dto.EmergencyDTO;
+import com.example.resqtap.jfr.DtoMappingEvent;
 import com.example.resqtap.model.Emergency;
+import com.example.resqtap.model.SearchText;
 import com.example.resqtap.model.Step;
 import com.example.resqtap.repository.EmergencyRepository;
+import com.example.resqtap.web.JsonMergePatch;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.LockModeType;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
 import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.interceptor.SimpleKey;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 @Service
 @Transactional
 public class EmergencyService {
 
+    private static final Logger logger = LoggerFactory.getLogger(EmergencyService.class);
+
     private final EmergencyRepository emergencyRepository;
+    private final CatalogRevision catalogRevision;
+    private final CatalogSnapshotStore catalogSnapshotStore;
+    private final StaleCacheTier staleCacheTier;
+    private final DatabaseCircuitBreaker database;
+    private final SearchResultCache searchResultCache;
+    private final CacheManager cacheManager;
+    private final EntityManager entityManager;
+    private final ObjectMapper objectMapper;
 
-    public EmergencyService(EmergencyRepository emergencyRepository) {
+    public EmergencyService(EmergencyRepository emergencyRepository, CatalogRevision catalogRevision,
+                            CatalogSnapshotStore catalogSnapshotStore, StaleCacheTier staleCacheTier,
+                            DatabaseCircuitBreaker database, SearchResultCache searchResultCache, CacheManager cacheManager,
+                            EntityManager entityManager, ObjectMapper objectMapper) {
         this.emergencyRepository = emergencyRepository;
+        this.catalogRevision = catalogRevision;
+        this.catalogSnapshotStore = catalogSnapshotStore;
+        this.staleCacheTier = staleCacheTier;
+        this.database = database;
+        this.searchResultCache = searchResultCache;
+        this.cacheManager = cacheManager;
+        this.entityManager = entityManager;
+        this.objectMapper = objectMapper;
     }
 
-    @Cacheable(value = "emergencies")
+    // Reads join a caller's transaction but never open one: a cache hit skips the transaction
+    // interceptor's work, and a connection failure surfaces here where the snapshot can answer instead.
+    @Cacheable(value = "emergencies", unless = "@staleCacheTier.servingStale")
+    @Transactional(readOnly = true, propagation = Propagation.SUPPORTS)
     public List<EmergencyDTO> getAllEmergencies() {
-        return emergencyRepository.findAll().stream()
-                .map(EmergencyDTO::new)
-                .collect(Collectors.toList());
+        return read(() -> toDtos(emergencyRepository.findAll()),
+                "emergencies", SimpleKey.EMPTY, EmergencyService::list, emergencies -> emergencies);
     }
 
-    @Cacheable(value = "emergency", key = "#id")
+    @Cacheable(value = "emergency", key = "#id", unless = "@staleCacheTier.servingStale")
+    @Transactional(readOnly = true, propagation = Propagation.SUPPORTS)
     public Optional<EmergencyDTO> getEmergencyById(Long id) {
-        return emergencyRepository.findById(id)
-                .map(EmergencyDTO::new);
+        return read(() -> emergencyRepository.findById(id).map(EmergencyService::toDto),
+                "emergency", id, EmergencyService::optional, emergencies -> findFirst(emergencies, dto -> id.equals(dto.getId())));
+    }
+
+    /**
+     * Emergencies for the given ids, in request order, leaving out ids that do not exist. Ids already
+     * in the {@code emergency} cache are answered from it; all others are loaded with one query and cached.
+     */
+    @Transactional(readOnly = true, propagation = Propagation.SUPPORTS)
+    public Map<Long, EmergencyDTO> getEmergenciesByIds(Collection<Long> ids) {
+        return getMany("emergency", ids, emergencyRepository::findAllWithStepsByIdIn, EmergencyDTO::getId,
+                id -> dto -> id.equals(dto.getId()));
+    }
+
+    // Same as getEmergenciesByIds, for lower-case slugs; loaded entries are cached by slug and by id
+    @Transactional(readOnly = true, propagation = Propagation.SUPPORTS)
+    public Map<String, EmergencyDTO> getEmergenciesBySlugs(Collection<String> slugs) {
+        Map<String, EmergencyDTO> found = getMany("emergencyBySlug", slugs, emergencyRepository::findAllWithStepsBySlugIn,
+                dto -> dto.getTitle().replace(' ', '-').toLowerCase(),
+                slug -> dto -> dto.getTitle().replace(' ', '-').equalsIgnoreCase(slug));
+        if (!staleCacheTier.isServingStale()) {
+            Cache byId = cacheManager.getCache("emergency");
+            found.values().forEach(dto -> byId.putIfAbsent(dto.getId(), dto));
+        }
+        return found;
+    }
+
+    private <K> Map<K, EmergencyDTO> getMany(String cacheName, Collection<K> keys,
+                                            Function<Collection<K>, List<Emergency>> query, Function<EmergencyDTO, K> keyOf,
+                                            Function<K, Predicate<EmergencyDTO>> matches) {
+        Cache cache = cacheManager.getCache(cacheName);
+        Map<K, EmergencyDTO> resolved = new HashMap<>();
+        Set<K> misses = new LinkedHashSet<>();
+        staleCacheTier.startRead();
+        for (K key : keys) {
+            Cache.ValueWrapper cached = cache.get(key);
+            if (cached == null) {
+                misses.add(key);
+            } else if (cached.get() != null) {
+                resolved.put(key, (EmergencyDTO) cached.get());
+            }
+        }
+        if (!misses.isEmpty()) {
+            try {
+                for (EmergencyDTO dto : toDtos(database.call(() -> query.apply(misses)))) {
+                    resolved.put(keyOf.apply(dto), dto);
+                }
+                // Absent keys are cached as null, as @Cacheable does for an empty Optional
+                misses.forEach(key -> cache.put(key, resolved.get(key)));
+            } catch (RuntimeException e) {
+                if (!DatabaseCircuitBreaker.isTransient(e)) {
+                    throw e;
+                }
+                for (K key : misses) {
+                    fallback(e, cacheName, key, EmergencyService::optional, emergencies -> findFirst(emergencies, matches.apply(key)))
+                            .ifPresent(dto -> resolved.put(key, dto));
+                }
+            }
+        }
+        Map<K, EmergencyDTO> found = new LinkedHashMap<>();
+        for (K key : keys) {
+            EmergencyDTO dto = resolved.get(key);
+            if (dto != null) {
+                found.put(key, dto);
+            }
+        }
+        return found;
     }
 
-    @Cacheable(value = "emergencyBySlug", key = "#slug")
+    @Cacheable(value = "emergencyBySlug", key = "#slug", unless = "@staleCacheTier.servingStale")
+    @Transactional(readOnly = true, propagation = Propagation.SUPPORTS)
     public Optional<EmergencyDTO> getEmergencyBySlug(String slug) {
-        return emergencyRepository.findBySlug(slug)
-                .map(EmergencyDTO::new);
+        return read(() -> emergencyRepository.findBySlug(slug).map(EmergencyService::toDto),
+                "emergencyBySlug", slug, EmergencyService::optional, emergencies -> findFirst(emergencies,
+                        dto -> dto.getTitle().replace(' ', '-').equalsIgnoreCase(slug)));
     }
 
-    @Cacheable(value = "emergencyByName", key = "#name")
+    @Cacheable(value = "emergencyByName", key = "#name", unless = "@staleCacheTier.servingStale")
+    @Transactional(readOnly = true, propagation = Propagation.SUPPORTS)
     public Optional<EmergencyDTO> getEmergencyByName(String name) {
-        return emergencyRepository.findByNameIgnoreCase(name)
-                .map(EmergencyDTO::new);
+        return read(() -> emergencyRepository.findByNameIgnoreCase(name).map(EmergencyService::toDto),
+                "emergencyByName", name, EmergencyService::optional, emergencies -> findFirst(emergencies, dto -> dto.getTitle().equalsIgnoreCase(name)));
     }
 
-    @Cacheable(value = "emergenciesByCategory", key = "#category")
+    @Cacheable(value = "emergenciesByCategory", key = "#category", unless = "@staleCacheTier.servingStale")
+    @Transactional(readOnly = true, propagation = Propagation.SUPPORTS)
     public List<EmergencyDTO> getEmergenciesByCategory(String category) {
-        return emergencyRepository.findByCategory(category).stream()
-                .map(EmergencyDTO::new)
-                .collect(Collectors.toList());
+        return read(() -> toDtos(emergencyRepository.findByCategory(category)),
+                "emergenciesByCategory", category, EmergencyService::list, emergencies -> filter(emergencies, dto -> category.equals(dto.getCategory())));
     }
 
-    @Cacheable(value = "emergenciesBySeverity", key = "#severity")
+    @Cacheable(value = "emergenciesBySeverity", key = "#severity", unless = "@staleCacheTier.servingStale")
+    @Transactional(readOnly = true, propagation = Propagation.SUPPORTS)
     public List<EmergencyDTO> getEmergenciesBySeverity(Emergency.Severity severity) {
-        return emergencyRepository.findBySeverity(severity).stream()
-                .map(EmergencyDTO::new)
-                .collect(Collectors.toList());
+        return read(() -> toDtos(emergencyRepository.findBySeverity(severity)),
+                "emergenciesBySeverity", severity, EmergencyService::list, emergencies -> filter(emergencies, dto -> severity.name().equals(dto.getSeverity())));
     }
 
-    @Cacheable(value = "criticalEmergencies")
+    @Cacheable(value = "criticalEmergencies", unless = "@staleCacheTier.servingStale")
+    @Transactional(readOnly = true, propagation = Propagation.SUPPORTS)
     public List<EmergencyDTO> getCriticalEmergencies() {
-        return emergencyRepository.findBySeverityIn(
-                List.of(Emergency.Severity.CRITICAL, Emergency.Severity.HIGH)
-        ).stream()
-                .map(EmergencyDTO::new)
-                .collect(Collectors.toList());
+        List<Emergency.Severity> severities = List.of(Emergency.Severity.CRITICAL, Emergency.Severity.HIGH);
+        return read(() -> toDtos(emergencyRepository.findBySeverityIn(severities)),
+                "criticalEmergencies", SimpleKey.EMPTY, EmergencyService::list, emergencies -> filter(emergencies,
+                        dto -> severities.stream().anyMatch(severity -> severity.name().equals(dto.getSeverity()))));
     }
 
+    @Transactional(readOnly = true, propagation = Propagation.SUPPORTS)
     public List<EmergencyDTO> search(String term) {
-        return emergencyRepository.search(term).stream()
+        String needle = SearchText.normalize(term);
+        // Read before the query, so results that race a write are stored under the older revision
+        long revision = catalogRevision.current();
+        Optional<List<EmergencyDTO>> cached = searchResultCache.get(revision, needle);
+        if (cached.isPresent()) {
+            return cached.get();
+        }
+        List<EmergencyDTO> found = read(() -> toDtos(emergencyRepository.search(needle)),
+                null, null, null, emergencies -> filter(emergencies, dto -> contains(dto.getTitle(), needle)
+                        || contains(dto.getCategory(), needle) || contains(dto.getShortDescription(), needle)));
+        if (!staleCacheTier.isServingStale()) {
+            searchResultCache.put(revision, needle, found);
+        }
+        return found;
+    }
+
+    private static List<EmergencyDTO> toDtos(List<Emergency> emergencies) {
+        DtoMappingEvent event = new DtoMappingEvent();
+        event.begin();
+        List<EmergencyDTO> dtos = emergencies.stream()
                 .map(EmergencyDTO::new)
                 .collect(Collectors.toList());
+        event.finish(dtos.size());
+        return dtos;
+    }
+
+    private static EmergencyDTO toDto(Emergency emergency) {
+        DtoMappingEvent event = new DtoMappingEvent();
+        event.begin();
+        EmergencyDTO dto = new EmergencyDTO(emergency);
+        event.finish(1);
+        return dto;
+    }
+
+    /**
+     * Runs {@code load} against the database through the circuit breaker, answering from {@link #fallback}
+     * if the database is unavailable; other failures, such as a rejected query, are rethrown. Starts a new
+     * read for the stale tier first, so {@code unless = "@staleCacheTier.servingStale"} only reflects this
+     * read and not an earlier one in the same request.
+     */
+    private <T> T read(Supplier<T> load, String cacheName, Object key,
+                       Function<Object, T> fromCache, Function<List<EmergencyDTO>, T> query) {
+        staleCacheTier.startRead();
+        try {
+            return database.call(load);
+        } catch (RuntimeException e) {
+            if (!DatabaseCircuitBreaker.isTransient(e)) {
+                throw e;
+            }
+            return fallback(e, cacheName, key, fromCache, query);
+        }
+    }
+
+    /**
+     * Answers a failed read with the last value cached under {@code cacheName}/{@code key} if the stale
+     * tier still holds it, otherwise by running {@code query} over the local catalog snapshot.
+     * Rethrows {@code cause} if neither is available.
+     */
+    private <T> T fallback(RuntimeException cause, String cacheName, Object key,
+                           Function<Object, T> fromCache, Function<List<EmergencyDTO>, T> query) {
+        if (cacheName != null) {
+            Optional<StaleCacheTier.Entry> stale = staleCacheTier.get(cacheName, key);
+            if (stale.isPresent()) {
+                catalogSnapshotStore.markDegraded();
+                staleCacheTier.markServed(stale.get().getStoredAt());
+                logger.debug("Read of {}[{}] answered from stale cache tier: {}", cacheName, key, cause.getMessage());
+                return fromCache.apply(stale.get().getValue());
+            }
+        }
+        CatalogSnapshotStore.Snapshot snapshot = catalogSnapshotStore.current().orElseThrow(() -> cause);
+        catalogSnapshotStore.markDegraded();
+        staleCacheTier.markServed(snapshot.getSavedAt());
+        logger.debug("Read answered from catalog snapshot revision {}: {}", snapshot.getRevision(), cause.getMessage());
+        return query.apply(snapshot.getEmergencies());
+    }
+
+    // Cached Optionals are stored unwrapped, so an empty result is a null entry
+    private static Optional<EmergencyDTO> optional(Object cached) {
+        return Optional.ofNullable((EmergencyDTO) cached);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static List<EmergencyDTO> list(Object cached) {
+        return (List<EmergencyDTO>) cached;
+    }
+
+    private static Optional<EmergencyDTO> findFirst(List<EmergencyDTO> emergencies, Predicate<EmergencyDTO> predicate) {
+        return emergencies.stream().filter(predicate).findFirst();
+    }
+
+    private static List<EmergencyDTO> filter(List<EmergencyDTO> emergencies, Predicate<EmergencyDTO> predicate) {
+        return emergencies.stream().filter(predicate).collect(Collectors.toList());
+    }
+
+    // Folded like the search_text column, so the fallback finds what the query would
+    private static boolean contains(String text, String needle) {
+        return text != null && SearchText.normalize(text).contains(needle);
     }
 
     @CacheEvict(value = {"emergencies", "emergency", "emergencyBySlug", "emergencyByName",
                          "emergenciesByCategory", "emergenciesBySeverity", "criticalEmergencies"},
                 allEntries = true)
     public Emergency createEmergency(Emergency emergency) {
-        return emergencyRepository.save(emergency);
+        Emergency saved = emergencyRepository.save(emergency);
+        catalogRevision.changed(List.of(saved.getId()));
+        return saved;
     }
 
-    @CacheEvict(value = {"emergencies", "emergency", "emergencyBySlug", "emergencyByName",
-                         "emergenciesByCategory", "emergenciesBySeverity", "criticalEmergencies"},
-                allEntries = true)
     public Optional<Emergency> updateEmergency(Long id, Emergency updatedEmergency) {
+        return emergencyRepository.findById(id)
+                .map(existing -> applyUpdate(existing, updatedEmergency));
+    }
+
+    // JSON Merge Patch (RFC 7396) against the stored emergency; arrays such as steps are replaced
+    // wholesale by the patch, then diffed like a PUT so only the steps that changed are written.
+    public Optional<Emergency> patchEmergency(Long id, JsonNode patch) {
         return emergencyRepository.findById(id)
                 .map(existing -> {
-                    existing.setName(updatedEmergency.getName());
-                    existing.setCategory(updatedEmergency.getCategory());
-                    existing.setSeverity(updatedEmergency.getSeverity());
-                    existing.setShortDescription(updatedEmergency.getShortDescription());
-                    existing.setImageUrl(updatedEmergency.getImageUrl());
-                    existing.setEmergencyContact(updatedEmergency.getEmergencyContact());
-
-                    // Update steps
-                    existing.getSteps().clear();
-                    for (Step step : updatedEmergency.getSteps()) {
-                        existing.addStep(step);
+                    JsonNode merged = JsonMergePatch.apply(objectMapper.valueToTree(existing), patch);
+                    try {
+                        return applyUpdate(existing, objectMapper.treeToValue(merged, Emergency.class));
+                    } catch (JsonProcessingException e) {
+                        throw new IllegalArgumentException("Invalid merge patch: " + e.getOriginalMessage(), e);
                     }
-
-                    return emergencyRepository.save(existing);
                 });
     }
 
+    private Emergency applyUpdate(Emergency existing, Emergency updatedEmergency) {
+        // A client that sends the version it read gets a conflict instead of overwriting a newer edit;
+        // concurrent transactions are caught by the version check in the UPDATE itself.
+        if (updatedEmergency.getVersion() != null && !updatedEmergency.getVersion().equals(existing.getVersion())) {
+            throw new ObjectOptimisticLockingFailureException(Emergency.class, existing.getId());
+        }
+
+        // Keys as they are before the change; a no-op update evicts nothing
+        CacheKeys affected = new CacheKeys();
+        affected.add(existing);
+        if (merge(existing, updatedEmergency)) {
+            affected.add(existing);
+            affected.ids.add(existing.getId());
+            evictAfterCommit(affected);
+            catalogRevision.changed(List.of(existing.getId()));
+        }
+        return existing;
+    }
+
+    // Writes the fields and steps that differ; returns whether anything did
+    private boolean merge(Emergency existing, Emergency updatedEmergency) {
+        checkStepNumbers(updatedEmergency.getSteps());
+        boolean changed = false;
+        changed |= set(existing.getName(), updatedEmergency.getName(), existing::setName);
+        changed |= set(existing.getCategory(), updatedEmergency.getCategory(), existing::setCategory);
+        changed |= set(existing.getSeverity(), updatedEmergency.getSeverity(), existing::setSeverity);
+        changed |= set(existing.getShortDescription(), updatedEmergency.getShortDescription(), existing::setShortDescription);
+        changed |= set(existing.getImageUrl(), updatedEmergency.getImageUrl(), existing::setImageUrl);
+        changed |= set(existing.getEmergencyContact(), updatedEmergency.getEmergencyContact(), existing::setEmergencyContact);
+
+        if (mergeSteps(existing, updatedEmergency.getSteps())) {
+            if (!changed) {
+                // Step rows changed but the emergency row did not; bump its version so concurrent edits still conflict
+                entityManager.lock(existing, LockModeType.OPTIMISTIC_FORCE_INCREMENT);
+            }
+            changed = true;
+        }
+        return changed;
+    }
+
+    // Steps are matched by number, so a missing or repeated one would silently drop a step
+    private static void checkStepNumbers(List<Step> steps) {
+        Set<Integer> numbers = new HashSet<>();
+        for (Step step : steps) {
+            if (step.getStepNumber() == null) {
+                throw new IllegalArgumentException("Every step needs a stepNumber");
+            }
+            if (!numbers.add(step.getStepNumber())) {
+                throw new IllegalArgumentException("Duplicate stepNumber " + step.getStepNumber());
+            }
+        }
+    }
+
+    // Diff steps by step number instead of clear-and-reinsert: unchanged rows are left alone,
+    // edited rows are updated in place, and only added or dropped numbers cause INSERT or DELETE.
+    private boolean mergeSteps(Emergency existing, List<Step> updatedSteps) {
+        Map<Integer, Step> incoming = new LinkedHashMap<>();
+        for (Step step : updatedSteps) {
+            incoming.put(step.getStepNumber(), step);
+        }
+
+        boolean changed = existing.getSteps().removeIf(step -> !incoming.containsKey(step.getStepNumber()));
+        Map<Integer, Step> current = new HashMap<>();
+        for (Step step : existing.getSteps()) {
+            current.put(step.getStepNumber(), step);
+        }
+        for (Step step : incoming.values()) {
+            Step target = current.get(step.getStepNumber());
+            if (target == null) {
+                existing.addStep(new Step(step.getStepNumber(), step.getDescription(), step.getImageUrl()));
+                changed = true;
+            } else {
+                changed |= set(target.getDescription(), step.getDescription(), target::setDescription);
+                changed |= set(target.getImageUrl(), step.getImageUrl(), target::setImageUrl);
+            }
+        }
+        if (changed) {
+            existing.getSteps().sort(Comparator.comparing(Step::getStepNumber));
+        }
+        return changed;
+    }
+
+    private static <T> boolean set(T current, T updated, Consumer<T> setter) {
+        if (Objects.equals(current, updated)) {
+            return false;
+        }
+        setter.accept(updated);
+        return true;
+    }
+
     @CacheEvict(value = {"emergencies", "emergency", "emergencyBySlug", "emergencyByName",
                          "emergenciesByCategory", "emergenciesBySeverity", "criticalEmergencies"},
                 allEntries = true)
     public boolean deleteEmergency(Long id) {
         if (emergencyRepository.existsById(id)) {
             emergencyRepository.deleteById(id);
+            catalogRevision.changed(List.of(id));
             return true;
         }
         return false;
     }
 
+    /**
+     * Brings the catalog in line with edited content in one transaction. Emergencies are matched by name
+     * (case-insensitive) and created, or updated field by field and step by step; emergencies named in
+     * {@code removedNames} are deleted. Unchanged ones are not written. The revision advances once for the
+     * whole batch, and after commit only the cache entries the changes can affect are evicted.
+     * Returns the ids of the emergencies created, updated or deleted.
+     */
+    public Set<Long> applyCatalogContent(Collection<Emergency> contents, Collection<String> removedNames) {
+        Set<String> names = new HashSet<>();
+        contents.forEach(content -> names.add(content.getName().toUpperCase(Locale.ROOT)));
+        removedNames.forEach(name -> names.add(name.toUpperCase(Locale.ROOT)));
+        Map<String, Emergency> existingByName = new HashMap<>();
+        if (!names.isEmpty()) {
+            for (Emergency existing : emergencyRepository.findAllWithStepsByNameIn(names)) {
+                existingByName.put(existing.getName().toLowerCase(Locale.ROOT), existing);
+            }
+        }
+
+        Set<Long> changed = new LinkedHashSet<>();
+        CacheKeys affected = new CacheKeys();
+        for (Emergency content : contents) {
+            Emergency existing = existingByName.get(content.getName().toLowerCase(Locale.ROOT));
+            if (existing == null) {
+                Emergency saved = emergencyRepository.save(content);
+                changed.add(saved.getId());
+                affected.add(saved);
+                continue;
+            }
+            // Not part of the content format; keep what the admin API set
+            content.setEmergencyContact(existing.getEmergencyContact());
+            String name = existing.getName();
+            String category = existing.getCategory();
+            Emergency.Severity severity = existing.getSeverity();
+            if (merge(existing, content)) {
+                changed.add(existing.getId());
+                affected.add(name, category, severity);
+                affected.add(existing);
+            }
+        }
+        for (String name : removedNames) {
+            Emergency existing = existingByName.get(name.toLowerCase(Locale.ROOT));
+            if (existing != null) {
+                changed.add(existing.getId());
+                affected.add(existing);
+                emergencyRepository.delete(existing);
+            }
+        }
+
+        if (!changed.isEmpty()) {
+            affected.ids.addAll(changed);
+            evictAfterCommit(affected);
+            catalogRevision.changed(changed);
+        }
+        return changed;
+    }
+
+    // Register before advancing the revision, so the caches are clean by the time revision listeners rebuild from them
+    private void evictAfterCommit(CacheKeys affected) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            affected.evictFrom(cacheManager);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                affected.evictFrom(cacheManager);
+            }
+        });
+    }
+
     public boolean existsByName(String name) {
         return emergencyRepository.existsByNameIgnoreCase(name);
     }
@@ -126,4 +504,49 @@ public class EmergencyService {
     public List<EmergencyDTO> getAllPlans() {
         return getAllEmergencies();
     }
+
+    /**
+     * The cache keys a set of emergencies can be found under, collected from their state before and after
+     * a change. Name and slug keys are whatever the caller asked with, so they are matched ignoring case.
+     */
+    private static class CacheKeys {
+
+        private final Set<Long> ids = new HashSet<>();
+        private final Set<String> names = new HashSet<>();
+        private final Set<String> categories = new HashSet<>();
+        private final Set<Emergency.Severity> severities = EnumSet.noneOf(Emergency.Severity.class);
+
+        void add(Emergency emergency) {
+            add(emergency.getName(), emergency.getCategory(), emergency.getSeverity());
+        }
+
+        void add(String name, String category, Emergency.Severity severity) {
+            names.add(name.toLowerCase(Locale.ROOT));
+            categories.add(category);
+            severities.add(severity);
+        }
+
+        void evictFrom(CacheManager cacheManager) {
+            cacheManager.getCache("emergencies").clear();
+            ids.forEach(cacheManager.getCache("emergency")::evict);
+            evictIgnoringCase(cacheManager.getCache("emergencyByName"), names);
+            evictIgnoringCase(cacheManager.getCache("emergencyBySlug"),
+                    names.stream().map(name -> name.replace(' ', '-')).collect(Collectors.toSet()));
+            categories.forEach(cacheManager.getCache("emergenciesByCategory")::evict);
+            severities.forEach(cacheManager.getCache("emergenciesBySeverity")::evict);
+            if (severities.contains(Emergency.Severity.CRITICAL) || severities.contains(Emergency.Severity.HIGH)) {
+                cacheManager.getCache("criticalEmergencies").clear();
+            }
+        }
+
+        private static void evictIgnoringCase(Cache cache, Set<String> lowerCaseKeys) {
+            if (cache.getNativeCache() instanceof com.github.benmanes.caffeine.cache.Cache<?, ?> nativeCache) {
+                List.copyOf(nativeCache.asMap().keySet()).stream()
+                        .filter(key -> key instanceof String text && lowerCaseKeys.contains(text.toLowerCase(Locale.ROOT)))
+                        .forEach(cache::evict);
+            } else {
+                cache.clear();
+            }
+        }
+    }
 }
@@ -0,0 +1,190 @@
+package com.example.resqtap.service;
+
+import com.example.resqtap.dto.EmergencyDTO;
+import com.example.resqtap.model.EmergencyViewCount;
+import com.example.resqtap.model.SearchText;
+import com.example.resqtap.repository.EmergencyViewCountRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.jdbc.DatabaseDriver;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionException;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counts how often each emergency guide is opened. Reads only bump a {@link LongAdder};
+ * a scheduled flush moves the pending increments into {@code emergency_view_counts} with one
+ * batched upsert, in one transaction, and reloads the cluster-wide totals used for ranking.
+ */
+@Service
+public class EmergencyViewCounter {
+
+    private static final Logger logger = LoggerFactory.getLogger(EmergencyViewCounter.class);
+
+    // How far views can lift a search match: the most viewed guide scores 1.5 times its text relevance
+    private static final double POPULARITY_WEIGHT = 0.5;
+
+    // Both add to an existing row or insert a new one. Standard SQL MERGE for H2; PostgreSQL only has MERGE
+    // from 15, and ON CONFLICT works from 9.5
+    static final String MERGE =
+            "MERGE INTO emergency_view_counts c "
+                    + "USING (VALUES (CAST(? AS BIGINT), CAST(? AS BIGINT))) AS v(emergency_id, views) "
+                    + "ON c.emergency_id = v.emergency_id "
+                    + "WHEN MATCHED THEN UPDATE SET views = c.views + v.views "
+                    + "WHEN NOT MATCHED THEN INSERT (emergency_id, views) VALUES (v.emergency_id, v.views)";
+    static final String ON_CONFLICT =
+            "INSERT INTO emergency_view_counts (emergency_id, views) VALUES (?, ?) "
+                    + "ON CONFLICT (emergency_id) DO UPDATE SET views = emergency_view_counts.views + EXCLUDED.views";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final EmergencyViewCountRepository viewCountRepository;
+    private final ConcurrentHashMap<Long, LongAdder> pending = new ConcurrentHashMap<>();
+    // Chosen on the first flush rather than at startup, which may run without the database
+    private volatile String upsert;
+
+    // Replaced wholesale after each flush, never mutated, so readers need no locking
+    private volatile Map<Long, Long> totals = Map.of();
+    private volatile List<Long> ranking = List.of();
+
+    public EmergencyViewCounter(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager,
+                                EmergencyViewCountRepository viewCountRepository) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.viewCountRepository = viewCountRepository;
+    }
+
+    public void recordView(Long emergencyId) {
+        LongAdder views = pending.get(emergencyId);
+        if (views == null) {
+            views = pending.computeIfAbsent(emergencyId, id -> new LongAdder());
+        }
+        views.increment();
+    }
+
+    @Scheduled(fixedDelayString = "${resqtap.views.flush-interval:PT30S}")
+    public synchronized void flush() {
+        List<Object[]> batch = new ArrayList<>();
+        for (Map.Entry<Long, LongAdder> entry : pending.entrySet()) {
+            // Increments racing with the reset land in this sum or stay in the adder for the next flush
+            long views = entry.getValue().sumThenReset();
+            if (views > 0) {
+                batch.add(new Object[]{entry.getKey(), views});
+            }
+        }
+        if (!batch.isEmpty()) {
+            try {
+                // All rows or none, so a retry never adds a row twice
+                transactionTemplate.executeWithoutResult(status -> jdbcTemplate.batchUpdate(upsert(), batch));
+                logger.debug("Flushed views for {} emergencies", batch.size());
+            } catch (DataAccessException | TransactionException e) {
+                // Keep the counts for the next attempt rather than dropping them
+                for (Object[] row : batch) {
+                    recordViews((Long) row[0], (Long) row[1]);
+                }
+                logger.warn("Could not flush view counts, will retry: {}", e.getMessage());
+                return;
+            }
+        }
+        try {
+            reloadTotals();
+        } catch (DataAccessException e) {
+            // The counts are stored; the ranking catches up with the next flush
+            logger.warn("Could not reload view totals: {}", e.getMessage());
+        }
+    }
+
+    private String upsert() {
+        String statement = upsert;
+        if (statement == null) {
+            statement = upsertFor(jdbcTemplate.execute(
+                    (ConnectionCallback<String>) connection -> connection.getMetaData().getDatabaseProductName()));
+            upsert = statement;
+        }
+        return statement;
+    }
+
+    static String upsertFor(String databaseProductName) {
+        return DatabaseDriver.fromProductName(databaseProductName) == DatabaseDriver.POSTGRESQL ? ON_CONFLICT : MERGE;
+    }
+
+    private void recordViews(Long emergencyId, long views) {
+        pending.computeIfAbsent(emergencyId, id -> new LongAdder()).add(views);
+    }
+
+    private void reloadTotals() {
+        List<EmergencyViewCount> counts = viewCountRepository.findAllByOrderByViewsDesc();
+        Map<Long, Long> byId = new HashMap<>(counts.size() * 2);
+        List<Long> order = new ArrayList<>(counts.size());
+        for (EmergencyViewCount count : counts) {
+            byId.put(count.getEmergencyId(), count.getViews());
+            order.add(count.getEmergencyId());
+        }
+        totals = Map.copyOf(byId);
+        ranking = List.copyOf(order);
+    }
+
+    // Emergency ids, most viewed first, as of the last flush
+    public List<Long> getRanking() {
+        return ranking;
+    }
+
+    public long getViews(Long emergencyId) {
+        return totals.getOrDefault(emergencyId, 0L);
+    }
+
+    /**
+     * Orders the matches of a search for {@code term}, best first. Text relevance comes first: a title
+     * word starting with the term, then the term elsewhere in the title, in the category, and only in the
+     * description. Views then lift a match by up to {@link #POPULARITY_WEIGHT}, on a log scale relative
+     * to the most viewed guide, so popularity reorders matches of similar relevance without letting a
+     * popular guide that merely mentions the term outrank one named after it. The sort is stable.
+     */
+    public List<EmergencyDTO> rankSearchResults(String term, List<EmergencyDTO> matches) {
+        if (matches.size() < 2) {
+            return matches;
+        }
+        String needle = SearchText.normalize(term);
+        Map<Long, Long> views = totals;
+        double mostViewed = Math.log1p(views.values().stream().mapToLong(Long::longValue).max().orElse(0));
+        Map<Long, Double> scores = new HashMap<>(matches.size() * 2);
+        for (EmergencyDTO dto : matches) {
+            double popularity = mostViewed == 0 ? 0 : Math.log1p(views.getOrDefault(dto.getId(), 0L)) / mostViewed;
+            scores.put(dto.getId(), relevance(dto, needle) * (1 + POPULARITY_WEIGHT * popularity));
+        }
+        List<EmergencyDTO> ranked = new ArrayList<>(matches);
+        ranked.sort(Comparator.comparingDouble((EmergencyDTO dto) -> scores.get(dto.getId())).reversed());
+        return ranked;
+    }
+
+    private static int relevance(EmergencyDTO dto, String needle) {
+        String title = fold(dto.getTitle());
+        if (title.startsWith(needle) || title.contains(" " + needle)) {
+            return 4;
+        }
+        if (title.contains(needle)) {
+            return 3;
+        }
+        if (fold(dto.getCategory()).contains(needle)) {
+            return 2;
+        }
+        return 1;
+    }
+
+    private static String fold(String text) {
+        return text == null ? "" : SearchText.normalize(text);
+    }
+}
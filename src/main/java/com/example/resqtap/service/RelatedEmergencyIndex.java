@@ -0,0 +1,472 @@
+package com.example.resqtap.service;
+
+import com.example.resqtap.dto.EmergencyDTO;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Top-k most similar emergencies per emergency, by cosine similarity of TF-IDF vectors over
+ * the category, title, short description and step texts.
+ *
+ * <p>The graph is rebuilt in full when the whole catalog may have changed. When a write names the
+ * emergencies it touched, only those are re-vectorized and compared against the rest; other
+ * vectors keep the IDF weights they were built with until the next full rebuild.
+ *
+ * <p>Changes are applied on a background thread; reads keep getting the previous graph until the
+ * new one is swapped in. Only the very first read, before any graph exists, waits for a build.
+ */
+@Service
+public class RelatedEmergencyIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(RelatedEmergencyIndex.class);
+
+    // More changed emergencies than this in one go are cheaper to handle with a full rebuild
+    static final int MAX_INCREMENTAL = 32;
+
+    // Guides in the same category are usually what a responder needs next, whatever their wording
+    private static final int CATEGORY_WEIGHT = 8;
+
+    private static final Set<String> STOP_WORDS = Set.of(
+            "and", "the", "for", "with", "from", "into", "that", "this", "are", "was", "not", "can",
+            "any", "all", "has", "have", "you", "your", "them", "they", "their", "its", "out", "off",
+            "over", "under", "until", "while", "then", "than", "may", "one", "two", "each", "per", "but");
+
+    private final EmergencyService emergencyService;
+    private final StaleCacheTier staleCacheTier;
+    private final int topK;
+
+    private final Executor executor;
+
+    private final Set<Long> pending = ConcurrentHashMap.newKeySet();
+    private final AtomicLong changedRevision = new AtomicLong();
+    private final AtomicBoolean rebuild = new AtomicBoolean(true);
+    // Set while a refresh is queued or running, so changes arriving meanwhile do not queue another
+    private final AtomicBoolean refreshing = new AtomicBoolean();
+
+    private volatile Graph graph;
+
+    @Autowired
+    public RelatedEmergencyIndex(EmergencyService emergencyService, StaleCacheTier staleCacheTier,
+                                 @Value("${resqtap.related.top-k:5}") int topK) {
+        this(emergencyService, staleCacheTier, topK, Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "related-emergencies");
+            thread.setDaemon(true);
+            return thread;
+        }));
+    }
+
+    RelatedEmergencyIndex(EmergencyService emergencyService, StaleCacheTier staleCacheTier, int topK, Executor executor) {
+        this.emergencyService = emergencyService;
+        this.staleCacheTier = staleCacheTier;
+        this.topK = topK;
+        this.executor = executor;
+    }
+
+    /**
+     * Emergencies most similar to the given one, best match first, or empty if the emergency
+     * is unknown.
+     */
+    public Optional<List<EmergencyDTO>> getRelated(Long emergencyId) {
+        Graph current = graph();
+        if (!current.emergencies.containsKey(emergencyId)) {
+            return Optional.empty();
+        }
+        List<Neighbour> neighbours = current.neighbours.getOrDefault(emergencyId, List.of());
+        List<EmergencyDTO> related = new ArrayList<>(neighbours.size());
+        for (Neighbour neighbour : neighbours) {
+            related.add(current.emergencies.get(neighbour.id));
+        }
+        return Optional.of(related);
+    }
+
+    // Records what changed and hands the work to the background thread, outside the writer's transaction
+    @EventListener
+    public void onCatalogChanged(CatalogChangedEvent event) {
+        if (event.getEmergencyIds().isEmpty()) {
+            rebuild.set(true);
+        } else {
+            pending.addAll(event.getEmergencyIds());
+        }
+        changedRevision.accumulateAndGet(event.getRevision(), Math::max);
+        if (graph != null) {
+            scheduleRefresh();
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        graph();
+    }
+
+    @PreDestroy
+    public void close() {
+        if (executor instanceof ExecutorService service) {
+            service.shutdownNow();
+        }
+    }
+
+    private Graph graph() {
+        Graph current = graph;
+        if (current == null) {
+            synchronized (this) {
+                current = graph;
+                if (current == null) {
+                    current = refresh();
+                }
+            }
+        } else if (current.revision != changedRevision.get()) {
+            scheduleRefresh();
+        }
+        if (current.staleAsOf != null) {
+            staleCacheTier.markServed(current.staleAsOf);
+        }
+        return current;
+    }
+
+    private void scheduleRefresh() {
+        if (refreshing.compareAndSet(false, true)) {
+            executor.execute(() -> {
+                boolean done = false;
+                try {
+                    refresh();
+                    done = true;
+                } catch (RuntimeException e) {
+                    // Retried in full with the next change or read rather than in a loop here
+                    rebuild.set(true);
+                    logger.error("Could not update related emergencies, still serving revision {}", graph.revision, e);
+                } finally {
+                    refreshing.set(false);
+                    // The stale marker is per thread; do not carry it into the next task
+                    staleCacheTier.resetServed();
+                }
+                // A change that arrived after the last pass but before the flag was cleared
+                if (done && graph.revision != changedRevision.get()) {
+                    scheduleRefresh();
+                }
+            });
+        }
+    }
+
+    // Brings the graph up to the latest change; builds run one at a time
+    private synchronized Graph refresh() {
+        Graph current = graph;
+        long revision = changedRevision.get();
+        while (current == null || current.revision != revision) {
+            // Claimed together with the pending ids, so a change recorded meanwhile is kept for the next pass
+            boolean full = rebuild.getAndSet(false) || current == null;
+            Set<Long> changed = new HashSet<>(pending);
+            pending.removeAll(changed);
+            current = full || changed.size() > MAX_INCREMENTAL
+                    ? build(revision)
+                    : update(current, revision, changed);
+            graph = current;
+            revision = changedRevision.get();
+        }
+        return current;
+    }
+
+    private Graph build(long revision) {
+        long start = System.nanoTime();
+        StaleCacheTier.Served<List<EmergencyDTO>> loaded = staleCacheTier.track(emergencyService::getAllEmergencies);
+        List<EmergencyDTO> all = loaded.value();
+        Instant staleAsOf = loaded.staleAsOf();
+
+        Graph next = new Graph(revision, staleAsOf);
+        for (EmergencyDTO emergency : all) {
+            next.add(emergency);
+        }
+        List<Long> ids = new ArrayList<>(next.emergencies.keySet());
+        for (Long id : ids) {
+            next.vectors.put(id, next.vector(next.termCounts.get(id)));
+        }
+
+        // Inverted index over dense positions, so each emergency is only scored against those sharing
+        // a term with it, accumulating into a primitive array rather than a map
+        Map<String, Postings> postings = new HashMap<>();
+        for (int i = 0; i < ids.size(); i++) {
+            for (Map.Entry<String, Double> term : next.vectors.get(ids.get(i)).entrySet()) {
+                postings.computeIfAbsent(term.getKey(), key -> new Postings()).add(i, term.getValue());
+            }
+        }
+        double[] scores = new double[ids.size()];
+        int[] touched = new int[ids.size()];
+        for (int i = 0; i < ids.size(); i++) {
+            int count = 0;
+            for (Map.Entry<String, Double> term : next.vectors.get(ids.get(i)).entrySet()) {
+                Postings list = postings.get(term.getKey());
+                double weight = term.getValue();
+                for (int p = 0; p < list.size; p++) {
+                    int other = list.positions[p];
+                    if (scores[other] == 0) {
+                        touched[count++] = other;
+                    }
+                    scores[other] += weight * list.weights[p];
+                }
+            }
+            Map<Long, Double> candidates = new HashMap<>(count * 2);
+            for (int t = 0; t < count; t++) {
+                int other = touched[t];
+                if (other != i) {
+                    candidates.put(ids.get(other), scores[other]);
+                }
+                scores[other] = 0;
+            }
+            next.neighbours.put(ids.get(i), top(candidates));
+        }
+        logger.info("Related emergencies for revision {} computed in {} ms ({} emergencies, {} terms)",
+                revision, (System.nanoTime() - start) / 1_000_000, ids.size(), postings.size());
+        return next;
+    }
+
+    private Graph update(Graph previous, long revision, Set<Long> changed) {
+        long start = System.nanoTime();
+        Graph next = previous.copy(revision);
+        for (Long id : changed) {
+            next.remove(id);
+        }
+        Set<Long> present = new HashSet<>();
+        StaleCacheTier.Served<Set<Long>> loaded = staleCacheTier.track(() -> {
+            for (Long id : changed) {
+                emergencyService.getEmergencyById(id).ifPresent(emergency -> {
+                    next.add(emergency);
+                    present.add(id);
+                });
+            }
+            return present;
+        });
+        if (loaded.staleAsOf() != null) {
+            // Do not mix stale texts into a graph built from live data; rebuild it all from the same source
+            return build(revision);
+        }
+        for (Long id : present) {
+            next.vectors.put(id, next.vector(next.termCounts.get(id)));
+        }
+
+        // Fresh neighbour lists for the changed emergencies; remember their scores against everyone else
+        Map<Long, Map<Long, Double>> changedScores = new HashMap<>();
+        for (Long id : present) {
+            Map<Long, Double> scores = next.scoresAgainstAll(id);
+            changedScores.put(id, scores);
+            next.neighbours.put(id, top(scores));
+        }
+
+        // Everyone else only needs the changed emergencies taken out of, or merged into, their lists
+        for (Long id : next.emergencies.keySet()) {
+            if (present.contains(id)) {
+                continue;
+            }
+            List<Neighbour> neighbours = next.neighbours.getOrDefault(id, List.of());
+            boolean lostNeighbour = neighbours.stream().anyMatch(neighbour -> changed.contains(neighbour.id));
+            if (lostNeighbour && neighbours.size() >= topK) {
+                // The k+1-th best is not kept, so a list that lost an entry has to be recomputed
+                next.neighbours.put(id, top(next.scoresAgainstAll(id)));
+                continue;
+            }
+            Map<Long, Double> scores = new HashMap<>();
+            for (Neighbour neighbour : neighbours) {
+                if (!changed.contains(neighbour.id)) {
+                    scores.put(neighbour.id, neighbour.score);
+                }
+            }
+            for (Long other : present) {
+                Double score = changedScores.get(other).get(id);
+                if (score != null) {
+                    scores.put(other, score);
+                }
+            }
+            next.neighbours.put(id, top(scores));
+        }
+        logger.debug("Related emergencies for revision {} updated for {} changed in {} ms",
+                revision, changed.size(), (System.nanoTime() - start) / 1_000_000);
+        return next;
+    }
+
+    // Best first; ties broken by id so that the result does not depend on map iteration order
+    private List<Neighbour> top(Map<Long, Double> scores) {
+        Comparator<Neighbour> worstFirst = Comparator.comparingDouble((Neighbour neighbour) -> neighbour.score)
+                .thenComparing((Neighbour neighbour) -> neighbour.id, Comparator.reverseOrder());
+        PriorityQueue<Neighbour> best = new PriorityQueue<>(topK + 1, worstFirst);
+        for (Map.Entry<Long, Double> score : scores.entrySet()) {
+            if (score.getValue() > 0) {
+                best.add(new Neighbour(score.getKey(), score.getValue()));
+                if (best.size() > topK) {
+                    best.poll();
+                }
+            }
+        }
+        List<Neighbour> top = new ArrayList<>(best);
+        top.sort(worstFirst.reversed());
+        return List.copyOf(top);
+    }
+
+    static Map<String, Integer> terms(EmergencyDTO emergency) {
+        Map<String, Integer> counts = new HashMap<>();
+        if (emergency.getCategory() != null) {
+            counts.put("category:" + emergency.getCategory(), CATEGORY_WEIGHT);
+        }
+        tokenize(emergency.getTitle(), counts, 1);
+        tokenize(emergency.getShortDescription(), counts, 1);
+        if (emergency.getSteps() != null) {
+            for (EmergencyDTO.StepDTO step : emergency.getSteps()) {
+                tokenize(step.getDescription(), counts, 1);
+            }
+        }
+        return counts;
+    }
+
+    private static void tokenize(String text, Map<String, Integer> counts, int weight) {
+        if (text == null) {
+            return;
+        }
+        for (String token : text.toLowerCase(Locale.ROOT).split("[^\\p{L}\\p{N}]+")) {
+            if (token.length() >= 3 && !STOP_WORDS.contains(token)) {
+                counts.merge(token, weight, Integer::sum);
+            }
+        }
+    }
+
+    private static final class Graph {
+
+        private final long revision;
+        private final Instant staleAsOf;
+        private final Map<Long, EmergencyDTO> emergencies;
+        private final Map<Long, Map<String, Integer>> termCounts;
+        private final Map<String, Integer> documentFrequency;
+        private final Map<Long, Map<String, Double>> vectors;
+        private final Map<Long, List<Neighbour>> neighbours;
+
+        private Graph(long revision, Instant staleAsOf) {
+            this(revision, staleAsOf, new HashMap<>(), new HashMap<>(), new HashMap<>(), new HashMap<>(), new HashMap<>());
+        }
+
+        private Graph(long revision, Instant staleAsOf, Map<Long, EmergencyDTO> emergencies,
+                      Map<Long, Map<String, Integer>> termCounts, Map<String, Integer> documentFrequency,
+                      Map<Long, Map<String, Double>> vectors, Map<Long, List<Neighbour>> neighbours) {
+            this.revision = revision;
+            this.staleAsOf = staleAsOf;
+            this.emergencies = emergencies;
+            this.termCounts = termCounts;
+            this.documentFrequency = documentFrequency;
+            this.vectors = vectors;
+            this.neighbours = neighbours;
+        }
+
+        // Copies the maps, not the immutable values in them; readers keep using the previous graph
+        private Graph copy(long nextRevision) {
+            return new Graph(nextRevision, staleAsOf, new HashMap<>(emergencies), new HashMap<>(termCounts),
+                    new HashMap<>(documentFrequency), new HashMap<>(vectors), new HashMap<>(neighbours));
+        }
+
+        private void add(EmergencyDTO emergency) {
+            Map<String, Integer> counts = Map.copyOf(terms(emergency));
+            emergencies.put(emergency.getId(), emergency);
+            termCounts.put(emergency.getId(), counts);
+            for (String term : counts.keySet()) {
+                documentFrequency.merge(term, 1, Integer::sum);
+            }
+        }
+
+        private void remove(Long id) {
+            emergencies.remove(id);
+            vectors.remove(id);
+            neighbours.remove(id);
+            Map<String, Integer> counts = termCounts.remove(id);
+            if (counts != null) {
+                for (String term : counts.keySet()) {
+                    documentFrequency.computeIfPresent(term, (key, df) -> df == 1 ? null : df - 1);
+                }
+            }
+        }
+
+        // Unit-length TF-IDF vector; terms found in every emergency get weight 0 and are dropped
+        private Map<String, Double> vector(Map<String, Integer> counts) {
+            int documents = emergencies.size();
+            Map<String, Double> weights = new HashMap<>(counts.size() * 2);
+            double norm = 0;
+            for (Map.Entry<String, Integer> term : counts.entrySet()) {
+                double idf = Math.log((1.0 + documents) / (1.0 + documentFrequency.getOrDefault(term.getKey(), 0)));
+                double weight = (1 + Math.log(term.getValue())) * idf;
+                if (weight > 0) {
+                    weights.put(term.getKey(), weight);
+                    norm += weight * weight;
+                }
+            }
+            double length = Math.sqrt(norm);
+            weights.replaceAll((term, weight) -> weight / length);
+            return Map.copyOf(weights);
+        }
+
+        private Map<Long, Double> scoresAgainstAll(Long id) {
+            Map<String, Double> vector = vectors.get(id);
+            Map<Long, Double> scores = new HashMap<>();
+            for (Map.Entry<Long, Map<String, Double>> other : vectors.entrySet()) {
+                if (!other.getKey().equals(id)) {
+                    double score = dot(vector, other.getValue());
+                    if (score > 0) {
+                        scores.put(other.getKey(), score);
+                    }
+                }
+            }
+            return scores;
+        }
+
+        private static double dot(Map<String, Double> a, Map<String, Double> b) {
+            if (a.size() > b.size()) {
+                return dot(b, a);
+            }
+            double sum = 0;
+            for (Map.Entry<String, Double> term : a.entrySet()) {
+                Double weight = b.get(term.getKey());
+                if (weight != null) {
+                    sum += term.getValue() * weight;
+                }
+            }
+            return sum;
+        }
+    }
+
+    private static final class Postings {
+
+        private int[] positions = new int[4];
+        private double[] weights = new double[4];
+        private int size;
+
+        private void add(int position, double weight) {
+            if (size == positions.length) {
+                positions = Arrays.copyOf(positions, size * 2);
+                weights = Arrays.copyOf(weights, size * 2);
+            }
+            positions[size] = position;
+            weights[size] = weight;
+            size++;
+        }
+    }
+
+    private record Neighbour(Long id, double score) {
+    }
+}
@@ -0,0 +1,116 @@
+package com.example.resqtap.service;
+
+import com.example.resqtap.dto.EmergencyDTO;
+import com.example.resqtap.web.CacheOutcome;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Search results by normalized query ({@link com.example.resqtap.model.SearchText#normalize}), so "burn",
+ * "Burn " and "BURN" are one database query.
+ *
+ * <p>Non-empty results are kept until the catalog changes, bounded by the total number of results held.
+ * Empty results are kept apart with a short TTL: as-you-type search produces many prefixes and typos
+ * that match nothing, and they should not push out real answers. Entries are tagged with the catalog
+ * revision they were read at, so a search that races a write never stores pre-write results for later readers.
+ */
+@Component
+public class SearchResultCache {
+
+    private final Cache<Key, List<EmergencyDTO>> results;
+    private final Cache<Key, Boolean> misses;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder lookups = new LongAdder();
+
+    public SearchResultCache(MeterRegistry meterRegistry,
+                             @Value("${resqtap.search.cache.max-results:20000}") long maxResults,
+                             @Value("${resqtap.search.cache.max-misses:10000}") long maxMisses,
+                             @Value("${resqtap.search.cache.miss-ttl:PT1M}") Duration missTtl) {
+        this.results = Caffeine.newBuilder()
+                // Weighed by the number of results, plus one for the entry itself
+                .<Key, List<EmergencyDTO>>weigher((key, value) -> value.size() + 1)
+                .maximumWeight(maxResults)
+                .build();
+        this.misses = Caffeine.newBuilder()
+                .expireAfterWrite(missTtl)
+                .maximumSize(maxMisses)
+                .build();
+        FunctionCounter.builder("resqtap.search.cache.requests", hits, LongAdder::sum)
+                .description("Lookups in the search result cache")
+                .tag("result", "hit")
+                .register(meterRegistry);
+        FunctionCounter.builder("resqtap.search.cache.requests", this, cache -> cache.lookups.sum() - cache.hits.sum())
+                .description("Lookups in the search result cache")
+                .tag("result", "miss")
+                .register(meterRegistry);
+        Gauge.builder("resqtap.search.cache.hit-ratio", this, SearchResultCache::hitRatio)
+                .description("Share of searches answered from the search result cache")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Cached results for an already normalized query at the given revision. Always empty inside a
+     * read-write transaction, whose own uncommitted rows the cache must neither serve nor remember.
+     */
+    public Optional<List<EmergencyDTO>> get(long revision, String query) {
+        if (inWriteTransaction()) {
+            return Optional.empty();
+        }
+        lookups.increment();
+        Key key = new Key(revision, query);
+        List<EmergencyDTO> found = results.getIfPresent(key);
+        if (found == null && misses.getIfPresent(key) != null) {
+            found = List.of();
+        }
+        if (found != null) {
+            hits.increment();
+        }
+        CacheOutcome.record(found != null);
+        return Optional.ofNullable(found);
+    }
+
+    public void put(long revision, String query, List<EmergencyDTO> found) {
+        if (inWriteTransaction()) {
+            return;
+        }
+        Key key = new Key(revision, query);
+        if (found.isEmpty()) {
+            misses.put(key, Boolean.TRUE);
+        } else {
+            // Shared by every caller from now on
+            results.put(key, List.copyOf(found));
+        }
+    }
+
+    // Entries of older revisions can no longer be looked up; this just frees them early
+    @EventListener
+    public void onCatalogChanged(CatalogChangedEvent event) {
+        results.invalidateAll();
+        misses.invalidateAll();
+    }
+
+    double hitRatio() {
+        long total = lookups.sum();
+        return total == 0 ? 0 : (double) hits.sum() / total;
+    }
+
+    private static boolean inWriteTransaction() {
+        return TransactionSynchronizationManager.isActualTransactionActive()
+                && !TransactionSynchronizationManager.isCurrentTransactionReadOnly();
+    }
+
+    private record Key(long revision, String query) {
+    }
+}
@@ -0,0 +1,143 @@
+package com.example.resqtap.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Optional;
+import java.util.function.Supplier;
+
+/**
+ * Second copy of every catalog cache entry, kept well past the normal cache TTL and used only
+ * when loading the fresh value fails (stale-if-error). Entries are removed together with the
+ * fresh ones when the catalog is invalidated, so the stale tier never outlives a known change.
+ *
+ * <p>Also tracks, per thread, whether the value being served is stale and as of when, so the
+ * response can carry {@code Warning}/{@code Age} headers and the result is not cached as fresh.
+ * The response-level mark collects every stale read of the request; whether the read in progress was
+ * stale is tracked separately from {@link #startRead()}, so one stale read does not keep a later, fresh
+ * read in the same request out of the cache.
+ */
+@Component
+public class StaleCacheTier {
+
+    private final Cache<Key, Entry> entries;
+    private final ThreadLocal<Instant> servedAsOf = new ThreadLocal<>();
+    private final ThreadLocal<Boolean> readServedStale = new ThreadLocal<>();
+
+    public StaleCacheTier(MeterRegistry meterRegistry,
+                          @Value("${resqtap.cache.stale-ttl:PT24H}") Duration ttl,
+                          @Value("${resqtap.cache.stale-maximum-size:10000}") long maximumSize) {
+        this.entries = Caffeine.newBuilder()
+                .expireAfterWrite(ttl)
+                .maximumSize(maximumSize)
+                .build();
+        Gauge.builder("resqtap.cache.stale.entries", entries, Cache::estimatedSize)
+                .description("Entries retained in the stale-if-error cache tier")
+                .register(meterRegistry);
+    }
+
+    public void put(String cacheName, Object key, Object value) {
+        entries.put(new Key(cacheName, key), new Entry(value, Instant.now()));
+    }
+
+    public Optional<Entry> get(String cacheName, Object key) {
+        return Optional.ofNullable(entries.getIfPresent(new Key(cacheName, key)));
+    }
+
+    public void evict(String cacheName, Object key) {
+        entries.invalidate(new Key(cacheName, key));
+    }
+
+    public void clear(String cacheName) {
+        entries.asMap().keySet().removeIf(key -> key.cacheName.equals(cacheName));
+    }
+
+    // Records that the current thread is answering with data as of the given time; keeps the oldest
+    public void markServed(Instant asOf) {
+        Instant previous = servedAsOf.get();
+        if (previous == null || asOf.isBefore(previous)) {
+            servedAsOf.set(asOf);
+        }
+        readServedStale.set(Boolean.TRUE);
+    }
+
+    // Called at the start of each database read, which then only sees its own stale answers in isServingStale
+    public void startRead() {
+        readServedStale.remove();
+    }
+
+    // Referenced from @Cacheable(unless = ...) so stale answers never land in the fresh tier
+    public boolean isServingStale() {
+        return readServedStale.get() != null;
+    }
+
+    /**
+     * Runs {@code read} and returns its value with the time of the oldest stale data it was answered
+     * from, or {@code null} if it was all fresh, leaving out marks made before the call. The call's
+     * marks are kept for the rest of the request as well.
+     */
+    public <T> Served<T> track(Supplier<T> read) {
+        Instant outer = servedAsOf.get();
+        Boolean outerRead = readServedStale.get();
+        servedAsOf.remove();
+        readServedStale.remove();
+        Instant inner = null;
+        try {
+            T value = read.get();
+            inner = servedAsOf.get();
+            return new Served<>(value, inner);
+        } finally {
+            servedAsOf.remove();
+            readServedStale.remove();
+            if (outer != null) {
+                markServed(outer);
+            }
+            if (inner != null) {
+                markServed(inner);
+            }
+            if (outerRead == null) {
+                readServedStale.remove();
+            }
+        }
+    }
+
+    public Optional<Instant> servedAsOf() {
+        return Optional.ofNullable(servedAsOf.get());
+    }
+
+    public void resetServed() {
+        servedAsOf.remove();
+        readServedStale.remove();
+    }
+
+    public record Served<T>(T value, Instant staleAsOf) {
+    }
+
+    private record Key(String cacheName, Object key) {
+    }
+
+    public static class Entry {
+
+        private final Object value;
+        private final Instant storedAt;
+
+        Entry(Object value, Instant storedAt) {
+            this.value = value;
+            this.storedAt = storedAt;
+        }
+
+        public Object getValue() {
+            return value;
+        }
+
+        public Instant getStoredAt() {
+            return storedAt;
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package com.example.resqtap.web;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Concurrency limit that adapts to latency, after the gradient algorithm: a slow moving
+ * average of response time serves as the no-load baseline, and each sample scales the limit
+ * by {@code tolerance * baseline / sample} (clamped to [0.5, 1]) plus a small headroom of
+ * {@code sqrt(limit)}. Latency creeping above the baseline shrinks the limit before queues
+ * build up; steady latency lets it grow again.
+ */
+public class AdaptiveLimit {
+
+    private static final double SMOOTHING = 0.2;
+    private static final double BASELINE_WINDOW = 600;
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final double tolerance;
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    private volatile double limit;
+    private double baselineNanos;
+
+    public AdaptiveLimit(int initialLimit, int minLimit, int maxLimit, double tolerance) {
+        this.limit = initialLimit;
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.tolerance = tolerance;
+    }
+
+    // Takes a slot unless the limit is reached; a successful acquire must be paired with onComplete
+    public boolean tryAcquire() {
+        while (true) {
+            int current = inFlight.get();
+            if (current >= (int) limit) {
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    public void onComplete(long latencyNanos) {
+        int current = inFlight.getAndDecrement();
+        update(latencyNanos, current);
+    }
+
+    private synchronized void update(long latencyNanos, int inFlightAtCompletion) {
+        if (baselineNanos == 0) {
+            baselineNanos = latencyNanos;
+            return;
+        }
+        // Below half the limit the server is not the bottleneck; latency says nothing about capacity
+        if (inFlightAtCompletion < limit / 2) {
+            return;
+        }
+        baselineNanos += (latencyNanos - baselineNanos) / BASELINE_WINDOW;
+        double gradient = Math.max(0.5, Math.min(1.0, tolerance * baselineNanos / latencyNanos));
+        double target = limit * gradient + Math.sqrt(limit);
+        double next = limit * (1 - SMOOTHING) + target * SMOOTHING;
+        limit = Math.max(minLimit, Math.min(maxLimit, next));
+    }
+
+    public int getLimit() {
+        return (int) limit;
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+}
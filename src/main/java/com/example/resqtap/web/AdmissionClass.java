@@ -0,0 +1,81 @@
+package com.example.resqtap.web;
+
+import jakarta.servlet.http.HttpServletRequest;
+
+/**
+ * Priority classes for catalog API traffic, highest first. Each class gets its own adaptive
+ * concurrency limit; a class with a higher {@code latencyTolerance} keeps its limit while
+ * lower classes are already backing off, so overload sheds search and writes first.
+ */
+public enum AdmissionClass {
+
+    // Guide lookups a responder needs right now: /critical, /slug/{slug}, /{id}, /name/{name}
+    CRITICAL(40, 8, 400, 2.0),
+    // Browsing: app bootstrap, full catalog, by category, by severity, faceted filter, most viewed,
+    // related guides, batches
+    LIST(20, 4, 200, 1.5),
+    // Search-as-you-type and admin writes
+    DEFERRABLE(10, 1, 100, 1.1);
+
+    private static final String[] API_PREFIXES = {"/api/emergencies", "/api/crisis-plans", "/api/bootstrap"};
+
+    private final int initialLimit;
+    private final int minLimit;
+    private final int maxLimit;
+    private final double latencyTolerance;
+
+    AdmissionClass(int initialLimit, int minLimit, int maxLimit, double latencyTolerance) {
+        this.initialLimit = initialLimit;
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.latencyTolerance = latencyTolerance;
+    }
+
+    /**
+     * The class of a catalog API request, or {@code null} for anything else
+     * (static assets, actuator, CORS preflight, event streams), which is never shed.
+     */
+    public static AdmissionClass of(HttpServletRequest request) {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        String rest = null;
+        for (String prefix : API_PREFIXES) {
+            if (path.startsWith(prefix)) {
+                rest = path.substring(prefix.length());
+                break;
+            }
+        }
+        if (rest == null || (!rest.isEmpty() && rest.charAt(0) != '/')) {
+            return null;
+        }
+        String method = request.getMethod();
+        // Event streams stay open for minutes and would pin a slot for as long
+        if ("OPTIONS".equals(method) || "HEAD".equals(method) || rest.equals("/events")) {
+            return null;
+        }
+        if (!"GET".equals(method) || rest.startsWith("/search")) {
+            return DEFERRABLE;
+        }
+        if (rest.isEmpty() || rest.equals("/") || rest.startsWith("/category/") || rest.startsWith("/severity/")
+                || rest.equals("/filter") || rest.equals("/popular") || rest.endsWith("/related")
+                || rest.equals("/batch")) {
+            return LIST;
+        }
+        return CRITICAL;
+    }
+
+    public int getInitialLimit() {
+        return initialLimit;
+    }
+
+    public int getMinLimit() {
+        return minLimit;
+    }
+
+    public int getMaxLimit() {
+        return maxLimit;
+    }
+
+    public double getLatencyTolerance() {
+        return latencyTolerance;
+    }
+}
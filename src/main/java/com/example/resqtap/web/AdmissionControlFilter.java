@@ -0,0 +1,104 @@
+package com.example.resqtap.web;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.security.SecurityProperties;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Admission control in front of the catalog API. Requests are classified by {@link AdmissionClass}
+ * and each class runs under its own {@link AdaptiveLimit}; a request over its class limit is
+ * rejected with 503 and {@code Retry-After} instead of queueing for a Tomcat thread.
+ *
+ * <p>Lower classes also give way while a higher class is close to its limit, so a flood of
+ * search keystrokes is shed before a CPR lookup has to wait.
+ */
+@Component
+// After Spring Security, whose CorsFilter answers preflights and adds the CORS headers a shed 503 needs to be
+// readable cross-origin; before the rate limiter, so shedding stays the first and cheapest check
+@Order(SecurityProperties.DEFAULT_FILTER_ORDER + 1)
+public class AdmissionControlFilter extends OncePerRequestFilter {
+
+    // Share of a higher class's limit in use at which lower classes start to give way
+    private static final double PRIORITY_HEADROOM = 0.9;
+
+    private final boolean enabled;
+    private final Map<AdmissionClass, AdaptiveLimit> limits = new EnumMap<>(AdmissionClass.class);
+    private final Map<AdmissionClass, Counter> rejected = new EnumMap<>(AdmissionClass.class);
+
+    public AdmissionControlFilter(@Value("${resqtap.admission.enabled:true}") boolean enabled,
+                                  MeterRegistry meterRegistry) {
+        this.enabled = enabled;
+        for (AdmissionClass admissionClass : AdmissionClass.values()) {
+            AdaptiveLimit limit = new AdaptiveLimit(admissionClass.getInitialLimit(), admissionClass.getMinLimit(),
+                    admissionClass.getMaxLimit(), admissionClass.getLatencyTolerance());
+            limits.put(admissionClass, limit);
+            String tag = admissionClass.name().toLowerCase();
+            Gauge.builder("resqtap.admission.limit", limit, AdaptiveLimit::getLimit)
+                    .tag("class", tag)
+                    .register(meterRegistry);
+            Gauge.builder("resqtap.admission.in_flight", limit, AdaptiveLimit::getInFlight)
+                    .tag("class", tag)
+                    .register(meterRegistry);
+            rejected.put(admissionClass, Counter.builder("resqtap.admission.rejected")
+                    .description("Requests shed with 503 by admission control")
+                    .tag("class", tag)
+                    .register(meterRegistry));
+        }
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !enabled || AdmissionClass.of(request) == null;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        AdmissionClass admissionClass = AdmissionClass.of(request);
+        AdaptiveLimit limit = limits.get(admissionClass);
+        if (higherClassSaturated(admissionClass) || !limit.tryAcquire()) {
+            rejected.get(admissionClass).increment();
+            response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+            response.setHeader(HttpHeaders.RETRY_AFTER, "1");
+            return;
+        }
+        long start = System.nanoTime();
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            limit.onComplete(System.nanoTime() - start);
+        }
+    }
+
+    private boolean higherClassSaturated(AdmissionClass admissionClass) {
+        for (AdmissionClass higher : AdmissionClass.values()) {
+            if (higher == admissionClass) {
+                return false;
+            }
+            AdaptiveLimit limit = limits.get(higher);
+            if (limit.getInFlight() >= limit.getLimit() * PRIORITY_HEADROOM) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    AdaptiveLimit getLimit(AdmissionClass admissionClass) {
+        return limits.get(admissionClass);
+    }
+}
@@ -0,0 +1,49 @@
+package com.example.resqtap.web;
+
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+/**
+ * Whether the current request was answered from caches: {@code hit} when every cache it read already held
+ * the value, {@code miss} when at least one had to load it, {@code none} when it read no cache at all.
+ * Kept as a request attribute, so cache reads outside a web request (warm-up, scheduled tasks) are ignored.
+ */
+public final class CacheOutcome {
+
+    public static final String HIT = "hit";
+    public static final String MISS = "miss";
+    public static final String NONE = "none";
+
+    private static final String ATTRIBUTE = CacheOutcome.class.getName();
+
+    private CacheOutcome() {
+    }
+
+    public static void hit() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes != null && attributes.getAttribute(ATTRIBUTE, RequestAttributes.SCOPE_REQUEST) == null) {
+            attributes.setAttribute(ATTRIBUTE, HIT, RequestAttributes.SCOPE_REQUEST);
+        }
+    }
+
+    public static void miss() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes != null) {
+            attributes.setAttribute(ATTRIBUTE, MISS, RequestAttributes.SCOPE_REQUEST);
+        }
+    }
+
+    public static void record(boolean hit) {
+        if (hit) {
+            hit();
+        } else {
+            miss();
+        }
+    }
+
+    public static String of(HttpServletRequest request) {
+        Object outcome = request.getAttribute(ATTRIBUTE);
+        return outcome == null ? NONE : (String) outcome;
+    }
+}
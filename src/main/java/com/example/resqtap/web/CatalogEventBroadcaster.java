@@ -0,0 +1,317 @@
+package com.example.resqtap.web;
+
+import com.example.resqtap.service.CatalogChangedEvent;
+import com.example.resqtap.service.CatalogPayloadService;
+import com.example.resqtap.service.StaleCacheTier;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.aot.hint.annotation.RegisterReflectionForBinding;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Pushes a notice to every open {@code /api/emergencies/events} stream when the catalog changes.
+ *
+ * <p>Each connection has a small bounded queue drained by a shared pool of sender threads, so a slow
+ * client never holds up the committing thread or other clients. When a queue overflows it is replaced
+ * by a single notice with no emergency ids, meaning "refetch the catalog", which is always safe because
+ * notices only ever point at newer content.
+ *
+ * <p>A notice's event id is the version of the catalog it leads to: the value of the catalog's ETag,
+ * which is derived from its content, so a client that reconnects to another node resumes from the same
+ * place. Notices are published by a single thread that builds that catalog first; changes committed
+ * meanwhile are folded into one notice.
+ *
+ * <p>Changes come from {@link com.example.resqtap.service.CatalogRevision}, which follows the cluster-wide
+ * revision: a change committed on another node reaches this node's streams once it is polled, as a notice
+ * with no ids.
+ */
+@Component
+@RegisterReflectionForBinding(CatalogEventBroadcaster.Notice.class)
+public class CatalogEventBroadcaster {
+
+    private static final Logger logger = LoggerFactory.getLogger(CatalogEventBroadcaster.class);
+
+    static final String EVENT_NAME = "revision";
+    private static final int HISTORY_SIZE = 64;
+
+    private final CatalogPayloadService catalogPayloadService;
+    private final StaleCacheTier staleCacheTier;
+    private final Duration timeout;
+    private final int bufferSize;
+    private final int maxSubscribers;
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+    // Published notices, oldest first, and versions handed to new streams (no ids); subscribers join and
+    // notices go out under its lock, so none falls in between
+    private final List<Notice> history = new ArrayList<>(HISTORY_SIZE);
+    private final Queue<CatalogChangedEvent> unpublished = new ConcurrentLinkedQueue<>();
+    private final ExecutorService publisher;
+    private final ExecutorService senders;
+    private final Counter overflows;
+
+    public CatalogEventBroadcaster(CatalogPayloadService catalogPayloadService, StaleCacheTier staleCacheTier,
+                                   MeterRegistry meterRegistry,
+                                   @Value("${resqtap.events.timeout:PT30M}") Duration timeout,
+                                   @Value("${resqtap.events.buffer-size:16}") int bufferSize,
+                                   @Value("${resqtap.events.max-subscribers:10000}") int maxSubscribers,
+                                   @Value("${resqtap.events.sender-threads:4}") int senderThreads) {
+        this.catalogPayloadService = catalogPayloadService;
+        this.staleCacheTier = staleCacheTier;
+        this.timeout = timeout;
+        this.bufferSize = bufferSize;
+        this.maxSubscribers = maxSubscribers;
+        this.publisher = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "catalog-events-publisher");
+            thread.setDaemon(true);
+            return thread;
+        });
+        AtomicInteger threads = new AtomicInteger();
+        this.senders = Executors.newFixedThreadPool(senderThreads, runnable -> {
+            Thread thread = new Thread(runnable, "catalog-events-" + threads.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        Gauge.builder("resqtap.events.subscribers", subscribers, Set::size)
+                .description("Open catalog event streams")
+                .register(meterRegistry);
+        this.overflows = Counter.builder("resqtap.events.overflows")
+                .description("Event streams whose queue overflowed and were told to refetch")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Opens a stream. It starts with the notices since version {@code lastVersion} when they are still
+     * in the recent history, with nothing when that is the current version, otherwise with the current
+     * version and no ids.
+     *
+     * <p>What the stream starts with is sent before it is returned, so the response and its headers are
+     * written on the request thread rather than by a sender thread.
+     */
+    public SseEmitter subscribe(String lastVersion) {
+        if (subscribers.size() >= maxSubscribers) {
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Too many event streams");
+        }
+        SseEmitter emitter = new SseEmitter(timeout.toMillis());
+        Subscriber subscriber = new Subscriber(emitter);
+        emitter.onCompletion(() -> subscribers.remove(subscriber));
+        emitter.onTimeout(emitter::complete);
+        emitter.onError(error -> subscribers.remove(subscriber));
+
+        try {
+            synchronized (history) {
+                List<Notice> catchUp = catchUp(lastVersion);
+                for (Notice notice : catchUp) {
+                    emitter.send(notice.event());
+                }
+                if (catchUp.isEmpty()) {
+                    emitter.send(SseEmitter.event().comment("current"));
+                }
+                subscribers.add(subscriber);
+            }
+        } catch (IOException e) {
+            // Not sent yet, only buffered until the handler returns
+            throw new IllegalStateException(e);
+        }
+        return emitter;
+    }
+
+    // Called with the history lock held
+    private List<Notice> catchUp(String lastVersion) {
+        if (lastVersion != null) {
+            int last = -1;
+            for (int i = history.size() - 1; i >= 0; i--) {
+                if (history.get(i).version().equals(lastVersion)) {
+                    last = i;
+                    break;
+                }
+            }
+            if (last >= 0) {
+                // Back to the first of a run with the same version, which may hold a change made while it was built
+                while (last > 0 && history.get(last - 1).version().equals(lastVersion)) {
+                    last--;
+                }
+                return history.subList(last + 1, history.size()).stream()
+                        .filter(notice -> notice.emergencyIds() != null)
+                        .toList();
+            }
+        }
+        String current = version(staleCacheTier.track(catalogPayloadService::getCatalog).value());
+        // Handed out without a notice; kept as a point later notices can be replayed from
+        if (history.isEmpty() || !history.get(history.size() - 1).version().equals(current)) {
+            append(new Notice(current, null));
+        }
+        if (current.equals(lastVersion)) {
+            // Changes still being published reach this stream as it is registered
+            return List.of();
+        }
+        return List.of(new Notice(current, Set.of()));
+    }
+
+    @EventListener
+    public void onCatalogChanged(CatalogChangedEvent event) {
+        unpublished.add(event);
+        publisher.execute(this::publish);
+    }
+
+    private void publish() {
+        CatalogPayloadService.CatalogPayload catalog;
+        try {
+            catalog = staleCacheTier.track(catalogPayloadService::getCatalog).value();
+        } catch (RuntimeException e) {
+            // Left unpublished until the next change
+            logger.warn("Could not build the catalog for event streams: {}", e.getMessage());
+            return;
+        }
+        // Only changes the built catalog contains, so a notice's version never claims a change it does not list;
+        // later ones are published by their own task
+        Set<Long> ids = new HashSet<>();
+        boolean everything = false;
+        boolean any = false;
+        for (Iterator<CatalogChangedEvent> it = unpublished.iterator(); it.hasNext(); ) {
+            CatalogChangedEvent event = it.next();
+            if (event.getRevision() <= catalog.getRevision()) {
+                everything |= event.getEmergencyIds().isEmpty();
+                ids.addAll(event.getEmergencyIds());
+                any = true;
+                it.remove();
+            }
+        }
+        if (!any) {
+            return;
+        }
+        Notice notice = new Notice(version(catalog), everything ? Set.of() : ids);
+        synchronized (history) {
+            append(notice);
+            for (Subscriber subscriber : subscribers) {
+                subscriber.offer(notice);
+            }
+        }
+    }
+
+    // Called with the history lock held
+    private void append(Notice notice) {
+        if (history.size() == HISTORY_SIZE) {
+            history.remove(0);
+        }
+        history.add(notice);
+    }
+
+    // Keeps idle connections from being closed by proxies and load balancers, and detects dead clients
+    @Scheduled(fixedDelayString = "${resqtap.events.heartbeat-interval:PT15S}")
+    public void heartbeat() {
+        for (Subscriber subscriber : subscribers) {
+            subscriber.ping();
+        }
+    }
+
+    public int getSubscriberCount() {
+        return subscribers.size();
+    }
+
+    @PreDestroy
+    public void close() {
+        subscribers.forEach(subscriber -> subscriber.emitter.complete());
+        publisher.shutdownNow();
+        senders.shutdownNow();
+    }
+
+    // The opaque part of the weak ETag, which is all an event id needs
+    private static String version(CatalogPayloadService.CatalogPayload catalog) {
+        String etag = catalog.getEtag();
+        return etag.substring(etag.indexOf('"') + 1, etag.lastIndexOf('"'));
+    }
+
+    /**
+     * The data of a notice: the catalog version it leads to, also sent as the event id, and the ids of the
+     * emergencies that changed, none meaning "refetch the catalog". Null ids mark a version in the history
+     * that was handed to a new stream rather than sent as a notice.
+     */
+    record Notice(String version, Set<Long> emergencyIds) {
+
+        private SseEmitter.SseEventBuilder event() {
+            return SseEmitter.event()
+                    .id(version)
+                    .name(EVENT_NAME)
+                    .data(this, MediaType.APPLICATION_JSON);
+        }
+    }
+
+    private final class Subscriber {
+
+        private final SseEmitter emitter;
+        private final ArrayBlockingQueue<SseEmitter.SseEventBuilder> queue = new ArrayBlockingQueue<>(bufferSize);
+        private final AtomicBoolean draining = new AtomicBoolean();
+
+        private Subscriber(SseEmitter emitter) {
+            this.emitter = emitter;
+        }
+
+        private void offer(Notice notice) {
+            synchronized (queue) {
+                if (!queue.offer(notice.event())) {
+                    queue.clear();
+                    queue.offer(new Notice(notice.version(), Set.of()).event());
+                    overflows.increment();
+                }
+            }
+            schedule();
+        }
+
+        // Only when nothing else is waiting; any pending notice keeps the connection alive just as well
+        private void ping() {
+            if (queue.isEmpty() && queue.offer(SseEmitter.event().comment("ping"))) {
+                schedule();
+            }
+        }
+
+        private void schedule() {
+            if (draining.compareAndSet(false, true)) {
+                senders.execute(this::drain);
+            }
+        }
+
+        private void drain() {
+            do {
+                SseEmitter.SseEventBuilder event;
+                while ((event = queue.poll()) != null) {
+                    try {
+                        emitter.send(event);
+                    } catch (IOException | IllegalStateException e) {
+                        // Client went away; the container completes the emitter
+                        logger.debug("Dropping catalog event stream: {}", e.getMessage());
+                        subscribers.remove(this);
+                        queue.clear();
+                        return;
+                    }
+                }
+                draining.set(false);
+            } while (!queue.isEmpty() && draining.compareAndSet(false, true));
+        }
+    }
+}
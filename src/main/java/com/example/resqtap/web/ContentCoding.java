@@ -0,0 +1,108 @@
+package com.example.resqtap.web;
+
+import com.aayushatharva.brotli4j.Brotli4jLoader;
+import com.aayushatharva.brotli4j.encoder.Encoder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPOutputStream;
+
+// HTTP content codings we can produce ahead of time, in order of preference.
+public enum ContentCoding {
+
+    BROTLI("br", ".br"),
+    GZIP("gzip", ".gz"),
+    IDENTITY("identity", "");
+
+    private final String token;
+    private final String fileExtension;
+
+    ContentCoding(String token, String fileExtension) {
+        this.token = token;
+        this.fileExtension = fileExtension;
+    }
+
+    public String getToken() {
+        return token;
+    }
+
+    public String getFileExtension() {
+        return fileExtension;
+    }
+
+    public boolean isSupported() {
+        return this != BROTLI || Brotli4jLoader.isAvailable();
+    }
+
+    // Compresses at the highest level; only ever called once per payload, never per request.
+    public byte[] encode(byte[] data) {
+        switch (this) {
+            case BROTLI:
+                try {
+                    return Encoder.compress(data, new Encoder.Parameters().setQuality(11));
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            case GZIP:
+                ByteArrayOutputStream buffer = new ByteArrayOutputStream(data.length / 4 + 64);
+                try (GZIPOutputStream gzip = new GZIPOutputStream(buffer) {
+                    {
+                        def.setLevel(Deflater.BEST_COMPRESSION);
+                    }
+                }) {
+                    gzip.write(data);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                return buffer.toByteArray();
+            default:
+                return data;
+        }
+    }
+
+    /**
+     * Picks the preferred coding out of {@code available} that the client accepts.
+     * Honours q-values (including {@code q=0} opt-outs) and the {@code *} wildcard;
+     * identity is always the fallback.
+     */
+    public static ContentCoding negotiate(String acceptEncoding, Set<ContentCoding> available) {
+        if (acceptEncoding == null || acceptEncoding.isBlank()) {
+            return IDENTITY;
+        }
+        Map<String, Double> weights = new HashMap<>();
+        for (String part : acceptEncoding.split(",")) {
+            String[] params = part.trim().split(";");
+            String name = params[0].trim().toLowerCase(Locale.ROOT);
+            double q = 1.0;
+            for (int i = 1; i < params.length; i++) {
+                String param = params[i].trim();
+                if (param.startsWith("q=")) {
+                    try {
+                        q = Double.parseDouble(param.substring(2));
+                    } catch (NumberFormatException e) {
+                        q = 0;
+                    }
+                }
+            }
+            if (!name.isEmpty()) {
+                weights.put(name, q);
+            }
+        }
+        double wildcard = weights.getOrDefault("*", 0.0);
+        for (ContentCoding coding : values()) {
+            if (coding == IDENTITY || !available.contains(coding)) {
+                continue;
+            }
+            if (weights.getOrDefault(coding.token, wildcard) > 0) {
+                return coding;
+            }
+        }
+        return IDENTITY;
+    }
+}
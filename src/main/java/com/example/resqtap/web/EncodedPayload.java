@@ -0,0 +1,52 @@
+package com.example.resqtap.web;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * One response body held in every content coding we can serve, compressed once up front
+ * so that serving it costs no compression CPU.
+ */
+public final class EncodedPayload {
+
+    private final Map<ContentCoding, byte[]> variants;
+
+    private EncodedPayload(Map<ContentCoding, byte[]> variants) {
+        this.variants = variants;
+    }
+
+    public static EncodedPayload of(byte[] identity) {
+        Map<ContentCoding, byte[]> variants = new EnumMap<>(ContentCoding.class);
+        variants.put(ContentCoding.IDENTITY, identity);
+        for (ContentCoding coding : ContentCoding.values()) {
+            if (coding == ContentCoding.IDENTITY || !coding.isSupported()) {
+                continue;
+            }
+            byte[] encoded = coding.encode(identity);
+            // Tiny bodies can grow when compressed; keep the variant only if it pays off
+            if (encoded.length < identity.length) {
+                variants.put(coding, encoded);
+            }
+        }
+        return new EncodedPayload(variants);
+    }
+
+    public Set<ContentCoding> getCodings() {
+        return Collections.unmodifiableSet(variants.keySet());
+    }
+
+    public ContentCoding negotiate(String acceptEncoding) {
+        return ContentCoding.negotiate(acceptEncoding, variants.keySet());
+    }
+
+    public byte[] get(ContentCoding coding) {
+        return variants.get(coding);
+    }
+
+    public int size(ContentCoding coding) {
+        byte[] bytes = variants.get(coding);
+        return bytes == null ? -1 : bytes.length;
+    }
+}
@@ -0,0 +1,52 @@
+package com.example.resqtap.web;
+
+// Conditional request checks against the entity tags the API hands out.
+public final class EntityTags {
+
+    private EntityTags() {
+    }
+
+    /**
+     * True when an {@code If-None-Match} header matches {@code etag}, so the client's copy is current
+     * (RFC 9110, section 13.1.2): {@code *} matches any tag, otherwise any tag in the comma-separated
+     * list must match using weak comparison, i.e. ignoring {@code W/} on both sides. A header that
+     * does not parse matches nothing, which leaves the full response to be sent.
+     */
+    public static boolean noneMatch(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null || etag == null) {
+            return false;
+        }
+        String opaque = opaque(etag);
+        int i = 0;
+        int length = ifNoneMatch.length();
+        while (i < length) {
+            char c = ifNoneMatch.charAt(i);
+            if (c == ',' || c == ' ' || c == '\t') {
+                i++;
+            } else if (c == '*') {
+                return true;
+            } else {
+                if (ifNoneMatch.startsWith("W/", i)) {
+                    i += 2;
+                }
+                if (i >= length || ifNoneMatch.charAt(i) != '"') {
+                    return false;
+                }
+                // Opaque tags cannot contain a quote, but may contain commas
+                int end = ifNoneMatch.indexOf('"', i + 1);
+                if (end < 0) {
+                    return false;
+                }
+                if (ifNoneMatch.regionMatches(i, opaque, 0, opaque.length()) && end + 1 - i == opaque.length()) {
+                    return true;
+                }
+                i = end + 1;
+            }
+        }
+        return false;
+    }
+
+    private static String opaque(String etag) {
+        return etag.startsWith("W/") ? etag.substring(2) : etag;
+    }
+}
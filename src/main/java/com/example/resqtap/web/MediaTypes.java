@@ -0,0 +1,51 @@
+package com.example.resqtap.web;
+
+import org.springframework.http.MediaType;
+
+import java.util.List;
+
+// Media types the API serves beyond the ones Spring already defines.
+public final class MediaTypes {
+
+    public static final String SMILE_VALUE = "application/x-jackson-smile";
+    public static final MediaType SMILE = MediaType.parseMediaType(SMILE_VALUE);
+
+    private MediaTypes() {
+    }
+
+    /**
+     * True when the Accept header names {@code mediaType} explicitly and ranks it at least as high as
+     * {@code alternative}. Each type takes the quality of the most specific range that matches it
+     * (RFC 9110, section 12.5.1), so {@code q=0} rules a type out and {@code application/json,
+     * application/x-jackson-smile;q=0.5} keeps JSON. Wildcards can rank the alternative but never select
+     * {@code mediaType}, so clients that send {@code *}{@code /*} keep getting the alternative.
+     */
+    public static boolean prefers(String accept, MediaType mediaType, MediaType alternative) {
+        if (accept == null || accept.isBlank()) {
+            return false;
+        }
+        try {
+            List<MediaType> accepted = MediaType.parseMediaTypes(accept);
+            double quality = quality(accepted, mediaType, false);
+            return quality > 0 && quality >= quality(accepted, alternative, true);
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+    }
+
+    private static double quality(List<MediaType> accepted, MediaType type, boolean wildcards) {
+        MediaType best = null;
+        for (MediaType range : accepted) {
+            boolean wildcard = range.isWildcardType() || range.isWildcardSubtype();
+            if ((wildcards || !wildcard) && range.includes(type)
+                    && (best == null || specificity(range) > specificity(best))) {
+                best = range;
+            }
+        }
+        return best == null ? 0 : best.getQualityValue();
+    }
+
+    private static int specificity(MediaType range) {
+        return range.isWildcardType() ? 0 : range.isWildcardSubtype() ? 1 : 2;
+    }
+}
@@ -0,0 +1,84 @@
+package com.example.resqtap.web;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.security.SecurityProperties;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Per-client rate limits on the expensive endpoint groups: search and admin writes.
+ * Clients are keyed by remote address; behind the load balancer that is the client address from
+ * {@code X-Forwarded-For}, which the prod profile only accepts from trusted proxies.
+ * Every limited response carries {@code RateLimit-Limit}, {@code RateLimit-Remaining}
+ * and {@code RateLimit-Reset}; a refused one is a 429 with {@code Retry-After}.
+ */
+@Component
+@Order(SecurityProperties.DEFAULT_FILTER_ORDER + 2)
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    public static final String LIMIT = "RateLimit-Limit";
+    public static final String REMAINING = "RateLimit-Remaining";
+    public static final String RESET = "RateLimit-Reset";
+
+    private final boolean enabled;
+    private final RateLimiter search;
+    private final RateLimiter write;
+    private final Counter searchRejected;
+    private final Counter writeRejected;
+
+    public RateLimitFilter(@Value("${resqtap.rate-limit.enabled:true}") boolean enabled,
+                           @Value("${resqtap.rate-limit.search.capacity:30}") int searchCapacity,
+                           @Value("${resqtap.rate-limit.search.refill-per-second:10}") double searchRefill,
+                           @Value("${resqtap.rate-limit.write.capacity:10}") int writeCapacity,
+                           @Value("${resqtap.rate-limit.write.refill-per-second:1}") double writeRefill,
+                           @Value("${resqtap.rate-limit.maximum-clients:100000}") long maximumClients,
+                           MeterRegistry meterRegistry) {
+        this.enabled = enabled;
+        this.search = new RateLimiter(searchCapacity, searchRefill, maximumClients);
+        this.write = new RateLimiter(writeCapacity, writeRefill, maximumClients);
+        this.searchRejected = rejectedCounter(meterRegistry, "search");
+        this.writeRejected = rejectedCounter(meterRegistry, "write");
+    }
+
+    private static Counter rejectedCounter(MeterRegistry meterRegistry, String group) {
+        return Counter.builder("resqtap.ratelimit.rejected")
+                .description("Requests refused with 429 by the per-client rate limiter")
+                .tag("group", group)
+                .register(meterRegistry);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !enabled || AdmissionClass.of(request) != AdmissionClass.DEFERRABLE;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        boolean isSearch = "GET".equals(request.getMethod());
+        RateLimiter limiter = isSearch ? search : write;
+        RateLimiter.Decision decision = limiter.tryAcquire(request.getRemoteAddr());
+
+        response.setHeader(LIMIT, Integer.toString(limiter.getCapacity()));
+        response.setHeader(REMAINING, Long.toString(decision.getRemaining()));
+        response.setHeader(RESET, Long.toString(decision.getResetSeconds()));
+        if (!decision.isAllowed()) {
+            (isSearch ? searchRejected : writeRejected).increment();
+            response.setHeader(HttpHeaders.RETRY_AFTER, Long.toString(decision.getRetryAfterSeconds()));
+            response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+            return;
+        }
+        chain.doFilter(request, response);
+    }
+}
@@ -0,0 +1,89 @@
+package com.example.resqtap.web;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Token buckets for one endpoint group, one per client key, kept in a bounded map from which
+ * idle clients expire. An idle client's bucket would be full again anyway, so expiry loses nothing.
+ */
+public class RateLimiter {
+
+    private final int capacity;
+    private final long intervalNanos;
+    private final Cache<String, TokenBucket> buckets;
+
+    public RateLimiter(int capacity, double refillPerSecond, long maximumClients) {
+        // Checked here as well as in TokenBucket, so a bad setting fails startup rather than the first request
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Capacity must be at least 1, was " + capacity);
+        }
+        // Refill is one token per whole nanosecond at most
+        if (!(refillPerSecond > 0 && refillPerSecond <= TimeUnit.SECONDS.toNanos(1))) {
+            throw new IllegalArgumentException("Refill must be between 0 and 1e9 per second, was " + refillPerSecond);
+        }
+        this.capacity = capacity;
+        this.intervalNanos = (long) (TimeUnit.SECONDS.toNanos(1) / refillPerSecond);
+        this.buckets = Caffeine.newBuilder()
+                .maximumSize(maximumClients)
+                .expireAfterAccess(Duration.ofNanos(intervalNanos * capacity).plusMinutes(1))
+                .build();
+    }
+
+    public Decision tryAcquire(String client) {
+        long now = System.nanoTime();
+        TokenBucket bucket = buckets.get(client, key -> new TokenBucket(capacity, intervalNanos, now));
+        long ahead = bucket.tryConsume(now);
+        if (ahead < 0) {
+            return new Decision(false, 0, seconds(-ahead + intervalNanos * (capacity - 1)), seconds(-ahead));
+        }
+        return new Decision(true, bucket.remaining(ahead), seconds(ahead), 0);
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    public long estimatedClients() {
+        return buckets.estimatedSize();
+    }
+
+    private static long seconds(long nanos) {
+        return Math.max(0, (nanos + TimeUnit.SECONDS.toNanos(1) - 1) / TimeUnit.SECONDS.toNanos(1));
+    }
+
+    public static class Decision {
+
+        private final boolean allowed;
+        private final long remaining;
+        private final long resetSeconds;
+        private final long retryAfterSeconds;
+
+        Decision(boolean allowed, long remaining, long resetSeconds, long retryAfterSeconds) {
+            this.allowed = allowed;
+            this.remaining = remaining;
+            this.resetSeconds = resetSeconds;
+            this.retryAfterSeconds = retryAfterSeconds;
+        }
+
+        public boolean isAllowed() {
+            return allowed;
+        }
+
+        public long getRemaining() {
+            return remaining;
+        }
+
+        // Seconds until the bucket is full again
+        public long getResetSeconds() {
+            return resetSeconds;
+        }
+
+        public long getRetryAfterSeconds() {
+            return retryAfterSeconds;
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package com.example.resqtap.web;
+
+import com.example.resqtap.service.StaleCacheTier;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * Labels responses built from stale data (stale cache tier or catalog snapshot) with
+ * {@code Warning: 110} and an {@code Age} header, and counts them.
+ */
+@RestControllerAdvice
+public class StaleResponseAdvice implements ResponseBodyAdvice<Object> {
+
+    static final String STALE_WARNING = "110 - \"Response is Stale\"";
+
+    private final StaleCacheTier staleCacheTier;
+    private final Counter staleResponses;
+
+    public StaleResponseAdvice(StaleCacheTier staleCacheTier, MeterRegistry meterRegistry) {
+        this.staleCacheTier = staleCacheTier;
+        this.staleResponses = Counter.builder("resqtap.responses.stale")
+                .description("Responses served from stale data because the database could not be read")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public boolean supports(MethodParameter returnType, Class<? extends HttpMessageConverter<?>> converterType) {
+        return true;
+    }
+
+    @Override
+    public Object beforeBodyWrite(Object body, MethodParameter returnType, MediaType selectedContentType,
+                                  Class<? extends HttpMessageConverter<?>> selectedConverterType,
+                                  ServerHttpRequest request, ServerHttpResponse response) {
+        staleCacheTier.servedAsOf().ifPresent(asOf -> {
+            long age = Math.max(0, Duration.between(asOf, Instant.now()).toSeconds());
+            response.getHeaders().set("Warning", STALE_WARNING);
+            response.getHeaders().set(HttpHeaders.AGE, Long.toString(age));
+            staleResponses.increment();
+        });
+        staleCacheTier.resetServed();
+        return body;
+    }
+}
@@ -0,0 +1,83 @@
+package com.example.resqtap.web;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.Locale;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Build-time step (bound to {@code process-classes} in the pom) that writes {@code .br} and
+ * {@code .gz} siblings next to every text asset under {@code static/}. Spring's
+ * {@code EncodedResourceResolver} then serves them by {@code Accept-Encoding} with a
+ * {@code Vary} header, so static text is never compressed at request time.
+ */
+public final class StaticAssetPrecompressor {
+
+    private static final Logger logger = LoggerFactory.getLogger(StaticAssetPrecompressor.class);
+
+    private static final List<String> TEXT_EXTENSIONS = List.of(".js", ".css", ".json", ".html", ".svg", ".txt");
+
+    private StaticAssetPrecompressor() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        Path root = Paths.get(args.length > 0 ? args[0] : "target/classes/static");
+        if (!Files.isDirectory(root)) {
+            logger.info("No static assets at {}, nothing to precompress", root);
+            return;
+        }
+
+        List<Path> assets;
+        try (Stream<Path> files = Files.walk(root)) {
+            assets = files.filter(Files::isRegularFile)
+                    .filter(StaticAssetPrecompressor::isText)
+                    .collect(Collectors.toList());
+        }
+
+        long identityTotal = 0;
+        long gzipTotal = 0;
+        long brotliTotal = 0;
+        long start = System.nanoTime();
+        for (Path asset : assets) {
+            EncodedPayload payload = EncodedPayload.of(Files.readAllBytes(asset));
+            for (ContentCoding coding : payload.getCodings()) {
+                if (coding != ContentCoding.IDENTITY) {
+                    Path target = asset.resolveSibling(asset.getFileName() + coding.getFileExtension());
+                    Files.write(target, payload.get(coding));
+                }
+            }
+            int identity = payload.size(ContentCoding.IDENTITY);
+            identityTotal += identity;
+            gzipTotal += smallest(payload, ContentCoding.GZIP, identity);
+            brotliTotal += smallest(payload, ContentCoding.BROTLI, identity);
+            logger.debug("{}: identity={} B, gzip={} B, br={} B", root.relativize(asset), identity,
+                    payload.size(ContentCoding.GZIP), payload.size(ContentCoding.BROTLI));
+        }
+
+        logger.info("Precompressed {} static assets in {} ms: identity={} B, gzip={} B ({}%), br={} B ({}%)",
+                assets.size(), (System.nanoTime() - start) / 1_000_000,
+                identityTotal, gzipTotal, percent(gzipTotal, identityTotal),
+                brotliTotal, percent(brotliTotal, identityTotal));
+    }
+
+    private static boolean isText(Path file) {
+        String name = file.getFileName().toString().toLowerCase(Locale.ROOT);
+        return TEXT_EXTENSIONS.stream().anyMatch(name::endsWith);
+    }
+
+    private static int smallest(EncodedPayload payload, ContentCoding coding, int identity) {
+        int size = payload.size(coding);
+        return size < 0 ? identity : size;
+    }
+
+    private static long percent(long part, long whole) {
+        return whole == 0 ? 100 : Math.round(part * 100.0 / whole);
+    }
+}
@@ -0,0 +1,57 @@
+package com.example.resqtap.web;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Lock-free token bucket in its GCRA form: instead of a token count plus a refill timestamp,
+ * the whole state is one "theoretical arrival time" (TAT) updated by compare-and-set.
+ * A request is allowed while {@code TAT - now} stays within the burst tolerance,
+ * which is exactly a bucket of {@code capacity} tokens refilled at one token per {@code intervalNanos}.
+ */
+public class TokenBucket {
+
+    private final long intervalNanos;
+    private final long toleranceNanos;
+    private final AtomicLong theoreticalArrival;
+
+    public TokenBucket(int capacity, long intervalNanos, long nowNanos) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Capacity must be at least 1, was " + capacity);
+        }
+        if (intervalNanos < 1) {
+            throw new IllegalArgumentException("Refill interval must be at least 1 ns, was " + intervalNanos);
+        }
+        this.intervalNanos = intervalNanos;
+        this.toleranceNanos = Math.multiplyExact(intervalNanos, capacity - 1);
+        this.theoreticalArrival = new AtomicLong(nowNanos);
+    }
+
+    /**
+     * Takes one token if available. Returns the nanoseconds the bucket is "ahead" after the call:
+     * non-negative when the token was granted (smaller means more tokens left), or the negated wait
+     * until the next token when it was refused.
+     */
+    public long tryConsume(long nowNanos) {
+        while (true) {
+            long tat = theoreticalArrival.get();
+            long start = Math.max(tat, nowNanos);
+            long next = start + intervalNanos;
+            long ahead = next - nowNanos;
+            if (ahead - intervalNanos > toleranceNanos) {
+                return -(ahead - intervalNanos - toleranceNanos);
+            }
+            if (theoreticalArrival.compareAndSet(tat, next)) {
+                return ahead;
+            }
+        }
+    }
+
+    // Tokens left once the bucket is "ahead" by the value returned from tryConsume
+    public long remaining(long aheadNanos) {
+        return Math.max(0, (toleranceNanos + intervalNanos - aheadNanos) / intervalNanos);
+    }
+
+    public long getIntervalNanos() {
+        return intervalNanos;
+    }
+}
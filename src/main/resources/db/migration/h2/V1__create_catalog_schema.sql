@@ -0,0 +1,32 @@
+-- Development schema; mirrors db/migration/postgresql/V1 in H2 types (Hibernate maps enums to ENUM on H2).
+
+CREATE TABLE emergencies (
+    id                BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    name              VARCHAR(255) NOT NULL,
+    category          VARCHAR(255) NOT NULL,
+    severity          ENUM ('LOW', 'MEDIUM', 'HIGH', 'CRITICAL') NOT NULL,
+    short_description VARCHAR(500),
+    image_url         VARCHAR(255),
+    emergency_contact VARCHAR(255),
+    version           BIGINT,
+    search_text       VARCHAR(2000)
+);
+
+CREATE TABLE steps (
+    id           BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    emergency_id BIGINT        NOT NULL CONSTRAINT fk_steps_emergency REFERENCES emergencies (id),
+    step_number  INTEGER       NOT NULL,
+    description  VARCHAR(1000) NOT NULL,
+    image_url    VARCHAR(255)
+);
+
+CREATE TABLE emergency_view_counts (
+    emergency_id BIGINT NOT NULL PRIMARY KEY,
+    views        BIGINT NOT NULL
+);
+
+CREATE TABLE catalog_revision (
+    id       INTEGER NOT NULL PRIMARY KEY,
+    revision BIGINT  NOT NULL
+);
+INSERT INTO catalog_revision (id, revision) VALUES (1, 0);
@@ -0,0 +1,6 @@
+-- The column indexes of db/migration/postgresql/V2. H2 has no expression or trigram indexes,
+-- so the upper(name), slug and search indexes exist on PostgreSQL only.
+CREATE INDEX idx_emergencies_category ON emergencies (category);
+CREATE INDEX idx_emergencies_severity ON emergencies (severity);
+CREATE INDEX idx_steps_emergency_step ON steps (emergency_id, step_number);
+
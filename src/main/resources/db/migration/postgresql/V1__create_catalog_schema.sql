@@ -0,0 +1,44 @@
+-- Catalog schema as mapped by the JPA entities (checked by ddl-auto=validate).
+-- IF NOT EXISTS lets this run against databases created by Hibernate before migrations existed,
+-- adding only what is missing (see spring.flyway.baseline-version in application-prod.yml).
+
+CREATE TABLE IF NOT EXISTS emergencies (
+    id                BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    name              VARCHAR(255) NOT NULL,
+    category          VARCHAR(255) NOT NULL,
+    severity          VARCHAR(255) NOT NULL CHECK (severity IN ('LOW', 'MEDIUM', 'HIGH', 'CRITICAL')),
+    short_description VARCHAR(500),
+    image_url         VARCHAR(255),
+    emergency_contact VARCHAR(255),
+    version           BIGINT,
+    search_text       VARCHAR(2000)
+);
+
+-- Optimistic lock column, added after the first deployments; existing rows start at version 0
+ALTER TABLE emergencies ADD COLUMN IF NOT EXISTS version BIGINT;
+UPDATE emergencies SET version = 0 WHERE version IS NULL;
+
+-- Folded text that search matches against; filled for existing rows by the Java migration V3
+ALTER TABLE emergencies ADD COLUMN IF NOT EXISTS search_text VARCHAR(2000);
+
+CREATE TABLE IF NOT EXISTS steps (
+    id           BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    emergency_id BIGINT        NOT NULL CONSTRAINT fk_steps_emergency REFERENCES emergencies (id),
+    step_number  INTEGER       NOT NULL,
+    description  VARCHAR(1000) NOT NULL,
+    image_url    VARCHAR(255)
+);
+
+-- Upserted by EmergencyViewCounter with INSERT ... ON CONFLICT. No foreign key: a flush that
+-- still carries views of a just-deleted guide must not fail the whole batch.
+CREATE TABLE IF NOT EXISTS emergency_view_counts (
+    emergency_id BIGINT NOT NULL PRIMARY KEY,
+    views        BIGINT NOT NULL
+);
+
+-- One row, bumped by every catalog write (CatalogRevision) and polled by every node
+CREATE TABLE IF NOT EXISTS catalog_revision (
+    id       INTEGER NOT NULL PRIMARY KEY,
+    revision BIGINT  NOT NULL
+);
+INSERT INTO catalog_revision (id, revision) VALUES (1, 0) ON CONFLICT (id) DO NOTHING;
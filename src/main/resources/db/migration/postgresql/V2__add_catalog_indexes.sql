@@ -0,0 +1,19 @@
+-- findByCategory, findBySeverity / findBySeverityIn
+CREATE INDEX IF NOT EXISTS idx_emergencies_category ON emergencies (category);
+CREATE INDEX IF NOT EXISTS idx_emergencies_severity ON emergencies (severity);
+
+-- findByNameIgnoreCase, existsByNameIgnoreCase: Spring Data compares upper(name) = upper(?);
+-- findAllWithStepsByNameIn compares upper(name) too
+CREATE INDEX IF NOT EXISTS idx_emergencies_upper_name ON emergencies (upper(name));
+
+-- findBySlug, findAllWithStepsBySlugIn: same expression as the queries
+CREATE INDEX IF NOT EXISTS idx_emergencies_slug ON emergencies (lower(replace(name, ' ', '-')));
+
+-- EmergencyRepository.search matches search_text LIKE '%term%', which no B-tree can serve; a trigram GIN index can.
+-- Creating the extension needs rds_superuser (or equivalent) unless it is already installed.
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+CREATE INDEX IF NOT EXISTS idx_emergencies_search_text_trgm
+    ON emergencies USING gin (search_text gin_trgm_ops);
+
+-- Loading the steps of an emergency, already in step order
+CREATE INDEX IF NOT EXISTS idx_steps_emergency_step ON steps (emergency_id, step_number);
@@ -0,0 +1,30 @@
+package com.example.resqtap;
+
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Fails the test when it issues more SQL statements or allocates more memory on the test thread than
+ * declared. Statements are the ones Hibernate prepares on the test thread and bytes come from the JVM's
+ * per-thread allocation counter, from the start of the test method, or from
+ * {@link PerformanceBudgetExtension.Measurement#start()} when the test takes a {@code Measurement} parameter to leave its own setup out.
+ *
+ * <p>Statement counts are exact, so a budget equal to today's count catches a new lazy load or EAGER
+ * association. Allocation varies with JIT and first-use initialization; leave it room for that and
+ * treat it as a guard against a change in kind, like a query compiled or a regex built per call.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@ExtendWith(PerformanceBudgetExtension.class)
+public @interface PerformanceBudget {
+
+    // Most SQL statements prepared; negative for no limit
+    long statements() default -1;
+
+    // Most bytes allocated by the test thread; negative for no limit
+    long allocatedBytes() default -1;
+}
@@ -0,0 +1,87 @@
+package com.example.resqtap;
+
+import org.junit.jupiter.api.extension.AfterTestExecutionCallback;
+import org.junit.jupiter.api.extension.BeforeTestExecutionCallback;
+import org.junit.jupiter.api.extension.ExtensionContext;
+import org.junit.jupiter.api.extension.ParameterContext;
+import org.junit.jupiter.api.extension.ParameterResolver;
+import org.opentest4j.AssertionFailedError;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Checks {@link PerformanceBudget}s. Statements are counted by {@link RecordingStatementInspector}, so the test
+ * context needs it registered with Hibernate, as the test configuration does.
+ */
+public class PerformanceBudgetExtension implements BeforeTestExecutionCallback, AfterTestExecutionCallback, ParameterResolver {
+
+    private static final ExtensionContext.Namespace NAMESPACE = ExtensionContext.Namespace.create(PerformanceBudgetExtension.class);
+
+    private static final com.sun.management.ThreadMXBean THREADS =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    @Override
+    public boolean supportsParameter(ParameterContext parameterContext, ExtensionContext extensionContext) {
+        return parameterContext.getParameter().getType() == Measurement.class;
+    }
+
+    @Override
+    public Object resolveParameter(ParameterContext parameterContext, ExtensionContext extensionContext) {
+        return measurement(extensionContext);
+    }
+
+    @Override
+    public void beforeTestExecution(ExtensionContext context) {
+        measurement(context).start();
+    }
+
+    @Override
+    public void afterTestExecution(ExtensionContext context) {
+        Measurement measurement = measurement(context);
+        PerformanceBudget budget = context.getRequiredTestMethod().getAnnotation(PerformanceBudget.class);
+        long statements = measurement.statements();
+        long allocated = measurement.allocatedBytes();
+        List<String> exceeded = new ArrayList<>();
+        if (budget.statements() >= 0 && statements > budget.statements()) {
+            exceeded.add(statements + " SQL statements, budget " + budget.statements());
+        }
+        if (budget.allocatedBytes() >= 0 && allocated > budget.allocatedBytes()) {
+            exceeded.add(allocated + " bytes allocated, budget " + budget.allocatedBytes());
+        }
+        if (!exceeded.isEmpty()) {
+            throw new AssertionFailedError("Over performance budget: " + String.join("; ", exceeded));
+        }
+    }
+
+    private static Measurement measurement(ExtensionContext context) {
+        return context.getStore(NAMESPACE).getOrComputeIfAbsent(Measurement.class, type -> new Measurement(),
+                Measurement.class);
+    }
+
+    /**
+     * Running counts for one test, both the test thread's alone: scheduled tasks and other background work
+     * running meanwhile are not counted.
+     */
+    public static class Measurement {
+
+        private final Thread thread = Thread.currentThread();
+        private long statementsAtStart;
+        private long bytesAtStart;
+
+        // Restarts the counts, e.g. once the test has created its data
+        public void start() {
+            statementsAtStart = RecordingStatementInspector.count();
+            bytesAtStart = THREADS.getThreadAllocatedBytes(thread.getId());
+        }
+
+        public long statements() {
+            return RecordingStatementInspector.count() - statementsAtStart;
+        }
+
+        public long allocatedBytes() {
+            return THREADS.getThreadAllocatedBytes(thread.getId()) - bytesAtStart;
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package com.example.resqtap;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Records the SQL Hibernate prepares on the calling thread while {@link #record} runs, so tests can look at
+ * the queries the repositories actually generate, and counts every statement per thread, so work the
+ * application does on its own threads meanwhile is not charged to a test. Registered for all tests in
+ * {@code config/application.properties}.
+ */
+public class RecordingStatementInspector implements StatementInspector {
+
+    private static final ThreadLocal<List<String>> RECORDED = new ThreadLocal<>();
+    private static final ThreadLocal<long[]> COUNT = ThreadLocal.withInitial(() -> new long[1]);
+
+    public static List<String> record(Runnable work) {
+        List<String> outer = RECORDED.get();
+        List<String> recorded = new ArrayList<>();
+        RECORDED.set(recorded);
+        try {
+            work.run();
+        } finally {
+            RECORDED.set(outer);
+        }
+        return recorded;
+    }
+
+    // Statements prepared on the calling thread so far
+    public static long count() {
+        return COUNT.get()[0];
+    }
+
+    @Override
+    public String inspect(String sql) {
+        COUNT.get()[0]++;
+        List<String> recorded = RECORDED.get();
+        if (recorded != null) {
+            recorded.add(sql);
+        }
+        return sql;
+    }
+}
@@ -5,6 +5,7 @@ import com.example.resqtap.service.EmergencyService;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.mock.env.MockEnvironment;
 import org.springframework.test.context.ActiveProfiles;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -38,4 +39,17 @@ class ResqtapApplicationTests {
 		var criticalEmergencies = emergencyService.getCriticalEmergencies();
 		assertFalse(criticalEmergencies.isEmpty(), "Expected critical emergencies to be seeded");
 	}
+
+	@Test
+	void startupStepsAreBufferedOnlyWhereTheEndpointIsExposed() {
+		String include = "management.endpoints.web.exposure.include";
+		assertTrue(ResqtapApplication.startupEndpointExposed(
+				new MockEnvironment().withProperty(include, "health,info,caches,metrics,prometheus,startup")));
+		assertTrue(ResqtapApplication.startupEndpointExposed(new MockEnvironment().withProperty(include, "*")));
+		assertFalse(ResqtapApplication.startupEndpointExposed(
+				new MockEnvironment().withProperty(include, "health,info,caches,metrics,prometheus")));
+		assertFalse(ResqtapApplication.startupEndpointExposed(new MockEnvironment()));
+		assertFalse(ResqtapApplication.startupEndpointExposed(new MockEnvironment().withProperty(include, "*")
+				.withProperty("management.endpoints.web.exposure.exclude", "startup")));
+	}
 }
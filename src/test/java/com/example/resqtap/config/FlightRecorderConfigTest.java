@@ -0,0 +1,69 @@
+package com.example.resqtap.config;
+
+import com.example.resqtap.service.EmergencyService;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.function.Predicate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("dev")
+class FlightRecorderConfigTest {
+
+    @Autowired
+    private EmergencyService emergencyService;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void catalogReadsAreRecordedWithTheBundledSettings() throws Exception {
+        Long id = emergencyService.getEmergencyBySlug("bee-sting").orElseThrow().getId();
+        Path file = dir.resolve("reads.jfr");
+
+        try (Recording recording = new Recording(FlightRecorderConfig.settings())) {
+            recording.start();
+            cacheManager.getCache("emergency").evict(id);
+            emergencyService.getEmergencyById(id);
+            emergencyService.getEmergencyById(id);
+            emergencyService.getEmergencyByName("Typed By A Client");
+            recording.stop();
+            recording.dump(file);
+        }
+
+        List<RecordedEvent> events = RecordingFile.readAllEvents(file);
+        assertRecorded(events, "com.example.resqtap.CacheEviction",
+                event -> "emergency".equals(event.getString("cache")) && id.toString().equals(event.getString("key")));
+        assertRecorded(events, "com.example.resqtap.CacheLookup",
+                event -> "emergency".equals(event.getString("cache")) && !event.getBoolean("hit"));
+        assertRecorded(events, "com.example.resqtap.CacheLookup",
+                event -> "emergency".equals(event.getString("cache")) && event.getBoolean("hit")
+                        && id.toString().equals(event.getString("key")));
+        // Client input is not written to the recording
+        assertRecorded(events, "com.example.resqtap.CacheLookup",
+                event -> "emergencyByName".equals(event.getString("cache")) && event.getString("key").startsWith("#"));
+        assertRecorded(events, "com.example.resqtap.RepositoryQuery",
+                event -> "EmergencyRepository".equals(event.getString("repository"))
+                        && "findById".equals(event.getString("method")) && event.getLong("rows") == 1);
+        assertRecorded(events, "com.example.resqtap.DtoMapping", event -> event.getInt("emergencies") == 1);
+    }
+
+    private static void assertRecorded(List<RecordedEvent> events, String type, Predicate<RecordedEvent> matches) {
+        assertTrue(events.stream().anyMatch(event -> event.getEventType().getName().equals(type) && matches.test(event)),
+                () -> "No matching " + type + " in " + events);
+    }
+}
@@ -0,0 +1,102 @@
+package com.example.resqtap.config;
+
+import com.example.resqtap.model.Emergency;
+import com.example.resqtap.model.Emergency.Severity;
+import com.example.resqtap.repository.EmergencyRepository;
+import com.example.resqtap.service.EmergencyService;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Not @Transactional: second-level cache entries for new rows are only written when a transaction commits
+@SpringBootTest
+@ActiveProfiles("dev")
+class HibernateCacheConfigTest {
+
+    @Autowired
+    private EmergencyService emergencyService;
+
+    @Autowired
+    private EmergencyRepository emergencyRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private Statistics statistics;
+    private final List<Long> created = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @AfterEach
+    void tearDown() {
+        created.forEach(emergencyService::deleteEmergency);
+    }
+
+    @Test
+    void entityLoadsWithStepsComeFromTheSecondLevelCache() {
+        Long id = create("Splinter", "L2 Test", 3);
+        // Inserts cache the rows; the steps collection is cached the first time it is loaded
+        emergencyRepository.findById(id).orElseThrow();
+
+        statistics.clear();
+        Emergency loaded = emergencyRepository.findById(id).orElseThrow();
+
+        assertEquals(3, loaded.getSteps().size());
+        assertEquals(0, statistics.getPrepareStatementCount());
+        assertTrue(statistics.getDomainDataRegionStatistics(HibernateCacheConfig.EMERGENCIES).getHitCount() > 0);
+        assertEquals(1, statistics.getDomainDataRegionStatistics(HibernateCacheConfig.EMERGENCY_STEPS).getHitCount());
+        assertEquals(3, statistics.getDomainDataRegionStatistics(HibernateCacheConfig.STEPS).getHitCount());
+        assertTrue(meterRegistry.get("hibernate.second.level.cache.requests")
+                .tags("region", HibernateCacheConfig.EMERGENCIES, "result", "hit")
+                .functionCounter().count() > 0);
+    }
+
+    @Test
+    void finderResultsAreCachedUntilTheTableChanges() {
+        Long id = create("Paper Cut", "L2 Query Test", 1);
+
+        assertEquals(1, emergencyRepository.findByCategory("L2 Query Test").size());
+        statistics.clear();
+        assertEquals(1, emergencyRepository.findByCategory("L2 Query Test").size());
+        assertTrue(emergencyRepository.existsByNameIgnoreCase("paper cut"));
+        assertEquals(1, statistics.getQueryCacheHitCount());
+        assertEquals(1, statistics.getQueryExecutionCount());
+
+        Emergency renamed = emergencyRepository.findById(id).orElseThrow();
+        renamed.setCategory("L2 Query Test Moved");
+        emergencyService.updateEmergency(id, renamed);
+
+        statistics.clear();
+        assertTrue(emergencyRepository.findByCategory("L2 Query Test").isEmpty());
+        assertEquals(0, statistics.getQueryCacheHitCount());
+        assertEquals(1, statistics.getQueryExecutionCount());
+    }
+
+    private Long create(String name, String category, int steps) {
+        Emergency emergency = new Emergency(name, category, Severity.LOW, "Test description for " + name, null);
+        for (int i = 1; i <= steps; i++) {
+            emergency.addStep(i, "Step " + i + " description", null);
+        }
+        Long id = emergencyService.createEmergency(emergency).getId();
+        created.add(id);
+        return id;
+    }
+}
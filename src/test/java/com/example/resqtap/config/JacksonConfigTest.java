@@ -0,0 +1,66 @@
+package com.example.resqtap.config;
+
+import com.example.resqtap.dto.EmergencyDTO;
+import com.example.resqtap.model.Emergency;
+import com.example.resqtap.model.Emergency.Severity;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("dev")
+class JacksonConfigTest {
+
+    // Configured like the application's mapper, without Blackbird
+    private final ObjectMapper reflective = Jackson2ObjectMapperBuilder.json().build();
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    void applicationMapperUsesBlackbird() {
+        assertTrue(objectMapper.getRegisteredModuleIds().contains(new BlackbirdModule().getTypeId()));
+        assertTrue(objectMapper.copyWith(new SmileFactory()).getRegisteredModuleIds()
+                .contains(new BlackbirdModule().getTypeId()));
+    }
+
+    @Test
+    void writesTheSameJsonAndSmileAsReflection() throws Exception {
+        List<EmergencyDTO> emergencies = List.of(emergency(), new EmergencyDTO(), withNullStep());
+
+        assertEquals(reflective.writeValueAsString(emergencies), objectMapper.writeValueAsString(emergencies));
+        assertArrayEquals(reflective.copyWith(new SmileFactory()).writeValueAsBytes(emergencies),
+                objectMapper.copyWith(new SmileFactory()).writeValueAsBytes(emergencies));
+    }
+
+    private static EmergencyDTO emergency() {
+        Emergency emergency = new Emergency("Eye \"Chemical\" Burn – ñ", "eye", Severity.HIGH,
+                "Flush with water\tfor 15 minutes\n😀  ", "/images/eye/chemical.png");
+        emergency.setId(42L);
+        emergency.setEmergencyContact("911");
+        emergency.setVersion(3L);
+        emergency.addStep(1, "Rinse <immediately> & keep the eye open", "/images/eye/rinse.png");
+        emergency.addStep(2, "Call poison control: \\ 1-800-222-1222", null);
+        return new EmergencyDTO(emergency);
+    }
+
+    private static EmergencyDTO withNullStep() {
+        EmergencyDTO dto = emergency();
+        List<EmergencyDTO.StepDTO> steps = new ArrayList<>(dto.getSteps());
+        steps.add(null);
+        steps.add(new EmergencyDTO.StepDTO());
+        dto.setSteps(steps);
+        dto.setVersion(null);
+        return dto;
+    }
+}
@@ -0,0 +1,63 @@
+package com.example.resqtap.config;
+
+import com.example.resqtap.dto.CompactCatalog;
+import com.example.resqtap.dto.EmergencyDTO;
+import com.example.resqtap.model.Emergency;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.junit.jupiter.api.Test;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.TypeReference;
+import org.springframework.aot.hint.annotation.ReflectiveRuntimeHintsRegistrar;
+import org.springframework.aot.hint.predicate.RuntimeHintsPredicates;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class NativeImageConfigTest {
+
+    private final RuntimeHints hints = new RuntimeHints();
+
+    NativeImageConfigTest() {
+        new NativeImageConfig.Hints().registerHints(hints, getClass().getClassLoader());
+        new ReflectiveRuntimeHintsRegistrar().registerRuntimeHints(hints, NativeImageConfig.class);
+    }
+
+    @Test
+    void entitiesAndDtosAreReflectable() {
+        assertTrue(RuntimeHintsPredicates.reflection().onType(Emergency.class).test(hints));
+        assertTrue(RuntimeHintsPredicates.reflection().onMethod(EmergencyDTO.class, "getSteps").test(hints));
+        assertTrue(RuntimeHintsPredicates.reflection().onType(EmergencyDTO.StepDTO.class).test(hints));
+        assertTrue(RuntimeHintsPredicates.reflection().onType(CompactCatalog.CompactStep.class).test(hints));
+    }
+
+    @Test
+    void caffeineClassesOfTheCachesInUseAreReflectable() {
+        // Built like the Spring caches in CacheConfig
+        Object cache = Caffeine.newBuilder().expireAfterWrite(Duration.ofMinutes(30)).maximumSize(500).recordStats().build();
+        Class<?> implementation = localCacheClass(cache);
+
+        assertTrue(RuntimeHintsPredicates.reflection().onType(TypeReference.of(implementation)).test(hints),
+                () -> implementation.getName() + " is not in NativeImageConfig.CAFFEINE_CLASSES");
+    }
+
+    @Test
+    void resourcesReadAtRuntimeAreIncluded() {
+        assertTrue(RuntimeHintsPredicates.resource().forResource("db/migration/postgresql/V1__create_catalog_schema.sql").test(hints));
+        assertTrue(RuntimeHintsPredicates.resource().forResource("db/migration/h2/V1__create_catalog_schema.sql").test(hints));
+        assertTrue(RuntimeHintsPredicates.resource().forResource(FlightRecorderConfig.SETTINGS).test(hints));
+        assertTrue(RuntimeHintsPredicates.resource().forResource("reference.conf").test(hints));
+        assertTrue(RuntimeHintsPredicates.resource().forResource("lib/linux-x86_64/libbrotli.so").test(hints));
+    }
+
+    // The generated class behind a manual cache, e.g. SSMSW
+    private static Class<?> localCacheClass(Object cache) {
+        try {
+            var field = cache.getClass().getDeclaredField("cache");
+            field.setAccessible(true);
+            return field.get(cache).getClass();
+        } catch (ReflectiveOperationException e) {
+            throw new AssertionError(e);
+        }
+    }
+}
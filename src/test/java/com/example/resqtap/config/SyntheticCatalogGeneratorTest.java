@@ -0,0 +1,57 @@
+package com.example.resqtap.config;
+
+import com.example.resqtap.repository.EmergencyRepository;
+import com.example.resqtap.repository.StepRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("dev")
+@Transactional
+class SyntheticCatalogGeneratorTest {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private EmergencyRepository emergencyRepository;
+
+    @Autowired
+    private StepRepository stepRepository;
+
+    @Test
+    void generatesEmergenciesWithStepsThroughJdbc() {
+        long emergenciesBefore = emergencyRepository.count();
+        long stepsBefore = stepRepository.count();
+
+        SyntheticCatalogGenerator generator = new SyntheticCatalogGenerator(jdbcTemplate, entityManagerFactory, 500, 3, 12, 100, 7L);
+        long stepsInserted = generator.generate();
+
+        assertEquals(emergenciesBefore + 500, emergencyRepository.count());
+        assertEquals(stepsBefore + stepsInserted, stepRepository.count());
+        assertTrue(stepsInserted >= 500 * 3 && stepsInserted <= 500 * 12, "steps=" + stepsInserted);
+    }
+
+    @Test
+    void generatedRowsAreReadableThroughJpa() {
+        Long maxIdBefore = jdbcTemplate.queryForObject("SELECT MAX(id) FROM emergencies", Long.class);
+        new SyntheticCatalogGenerator(jdbcTemplate, entityManagerFactory, 20, 3, 5, 10, 11L).generate();
+
+        var generated = emergencyRepository.findAll().stream()
+                .filter(emergency -> emergency.getId() > maxIdBefore)
+                .toList();
+        assertEquals(20, generated.size());
+        assertTrue(generated.get(0).getSteps().size() >= 3);
+        assertEquals(1, generated.get(0).getSteps().get(0).getStepNumber());
+    }
+}
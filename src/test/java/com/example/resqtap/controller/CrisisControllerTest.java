@@ -0,0 +1,564 @@
+package com.example.resqtap.controller;
+
+import com.example.resqtap.PerformanceBudget;
+import com.example.resqtap.PerformanceBudgetExtension.Measurement;
+import com.example.resqtap.dto.CompactCatalog;
+import com.example.resqtap.dto.EmergencyDTO;
+import com.example.resqtap.model.Emergency;
+import com.example.resqtap.service.CatalogRevision;
+import com.example.resqtap.service.EmergencyService;
+import com.example.resqtap.service.EmergencyViewCounter;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mock.web.MockHttpSession;
+import org.springframework.security.core.context.SecurityContextImpl;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationToken;
+import org.springframework.security.web.context.HttpSessionSecurityContextRepository;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.json.JsonCompareMode;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+import java.util.zip.GZIPInputStream;
+
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.hasItem;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.startsWith;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("dev")
+class CrisisControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private EmergencyService emergencyService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private EmergencyViewCounter viewCounter;
+
+    @Autowired
+    private CatalogRevision catalogRevision;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void mostOpenedGuidesAreListedFirst() throws Exception {
+        resetViewCounts();
+        for (int i = 0; i < 5; i++) {
+            mockMvc.perform(get("/api/emergencies/slug/choking-infant")).andExpect(status().isOk());
+        }
+        for (int i = 0; i < 3; i++) {
+            mockMvc.perform(get("/api/emergencies/slug/bee-sting")).andExpect(status().isOk());
+        }
+        viewCounter.flush();
+
+        mockMvc.perform(get("/api/emergencies/popular").param("limit", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(2))
+                .andExpect(jsonPath("$[0].title").value("Choking Infant"))
+                .andExpect(jsonPath("$[1].title").value("Bee Sting"));
+    }
+
+    @Test
+    void searchRanksByRelevanceWeightedByViews() throws Exception {
+        resetViewCounts();
+        // Sprain only matches "sting" in its description ("twisting or stretching")
+        for (int i = 0; i < 10; i++) {
+            mockMvc.perform(get("/api/emergencies/slug/sprain")).andExpect(status().isOk());
+        }
+        for (int i = 0; i < 2; i++) {
+            mockMvc.perform(get("/api/emergencies/slug/jellyfish-sting")).andExpect(status().isOk());
+        }
+        viewCounter.flush();
+
+        mockMvc.perform(get("/api/emergencies/search").param("term", "sting"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[*].title", contains("Jellyfish Sting", "Bee Sting", "Sprain")));
+    }
+
+    // Views recorded by other tests in this context would otherwise decide the order
+    private void resetViewCounts() {
+        viewCounter.flush();
+        jdbcTemplate.update("DELETE FROM emergency_view_counts");
+        viewCounter.flush();
+    }
+
+    @Test
+    void filterCombinesFacetsAndCountsValues() throws Exception {
+        List<String> categories = List.of("burns", "trauma");
+        List<String> severities = List.of("HIGH", "CRITICAL");
+        List<EmergencyDTO> all = emergencyService.getAllEmergencies();
+        List<String> expected = all.stream()
+                .filter(dto -> categories.contains(dto.getCategory()) && severities.contains(dto.getSeverity()))
+                .map(EmergencyDTO::getTitle)
+                .toList();
+        long lowBurnsOrTrauma = all.stream()
+                .filter(dto -> categories.contains(dto.getCategory()) && dto.getSeverity().equals("LOW"))
+                .count();
+        long highCardiac = all.stream()
+                .filter(dto -> dto.getCategory().equals("cardiac") && severities.contains(dto.getSeverity()))
+                .count();
+
+        mockMvc.perform(get("/api/emergencies/filter").param("category", "burns,trauma").param("severity", "high,CRITICAL"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.emergencies[*].title", contains(expected.toArray())))
+                .andExpect(jsonPath("$.facets.severity.LOW").value(lowBurnsOrTrauma))
+                .andExpect(jsonPath("$.facets.category.cardiac").value(highCardiac));
+
+        mockMvc.perform(get("/api/emergencies/filter"))
+                .andExpect(jsonPath("$.emergencies.length()").value(all.size()));
+        mockMvc.perform(get("/api/emergencies/filter").param("severity", "URGENT"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void relatedGuidesAreSimilarOnes() throws Exception {
+        Long heartAttack = emergencyService.getEmergencyBySlug("heart-attack").orElseThrow().getId();
+
+        mockMvc.perform(get("/api/emergencies/{id}/related", heartAttack))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(5))
+                .andExpect(jsonPath("$[*].title", hasItem("Cardiac Arrest")))
+                .andExpect(jsonPath("$[*].title", not(hasItem("Heart Attack"))));
+
+        mockMvc.perform(get("/api/emergencies/{id}/related", 999_999))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void batchReturnsRequestedGuidesInOrderAndReportsMissing() throws Exception {
+        mockMvc.perform(get("/api/emergencies/batch").param("slugs", "bee-sting,no-such-guide,CPR-Adult,bee-sting"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.emergencies[*].title", contains("Bee Sting", "CPR Adult")))
+                .andExpect(jsonPath("$.missing", contains("no-such-guide")));
+
+        Long cprAdult = emergencyService.getEmergencyBySlug("cpr-adult").orElseThrow().getId();
+        mockMvc.perform(get("/api/emergencies/batch").param("ids", cprAdult + ",999999"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.emergencies[0].title").value("CPR Adult"))
+                .andExpect(jsonPath("$.missing[0]").value(999999));
+
+        String tooMany = String.join(",", IntStream.rangeClosed(1, 51).mapToObj(Integer::toString).toList());
+        mockMvc.perform(get("/api/emergencies/batch").param("ids", tooMany))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void bootstrapCombinesHomeScreenParts() throws Exception {
+        String etag = mockMvc.perform(get("/api/emergencies"))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        int critical = emergencyService.getCriticalEmergencies().size();
+        Long beeSting = emergencyService.getEmergencyBySlug("bee-sting").orElseThrow().getId();
+
+        mockMvc.perform(get("/api/bootstrap").param("favorites", beeSting + ",999999"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.catalog.etag").value(etag))
+                .andExpect(jsonPath("$.catalog.emergencies").value(emergencyService.getAllEmergencies().size()))
+                .andExpect(jsonPath("$.catalog.facets.severity.CRITICAL").exists())
+                .andExpect(jsonPath("$.critical.length()").value(critical))
+                .andExpect(jsonPath("$.user").doesNotExist())
+                .andExpect(jsonPath("$.favorites.emergencies[0].title").value("Bee Sting"))
+                .andExpect(jsonPath("$.favorites.missing[0]").value(999999));
+
+        // Every part is read on the request thread, so the request is tagged with its cache outcome
+        double hits = requestCount("/api/bootstrap", "hit");
+        mockMvc.perform(get("/api/bootstrap").param("favorites", beeSting.toString())).andExpect(status().isOk());
+        assertEquals(hits + 1, requestCount("/api/bootstrap", "hit"));
+    }
+
+    @Test
+    void bootstrapIncludesTheSignedInUsersProfile() throws Exception {
+        Jwt jwt = Jwt.withTokenValue("token").header("alg", "none")
+                .subject("user-1").claim("username", "responder").build();
+        MockHttpSession session = new MockHttpSession();
+        session.setAttribute(HttpSessionSecurityContextRepository.SPRING_SECURITY_CONTEXT_KEY,
+                new SecurityContextImpl(new JwtAuthenticationToken(jwt)));
+
+        mockMvc.perform(get("/api/bootstrap").session(session))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.user.id").value("user-1"))
+                .andExpect(jsonPath("$.user.username").value("responder"))
+                .andExpect(jsonPath("$.user.email").doesNotExist())
+                .andExpect(jsonPath("$.critical").isArray());
+    }
+
+    // Most of the allocation is the dev profile's DEBUG log of the precompressed byte[] bodies
+    @Test
+    @PerformanceBudget(statements = 0, allocatedBytes = 6_000_000)
+    void cachedReadsIssueNoSql(Measurement measurement) throws Exception {
+        // Batch lookups rather than /slug, which would count as views
+        List<String> reads = List.of("/api/emergencies/critical", "/api/emergencies/batch?slugs=bee-sting",
+                "/api/emergencies/category/burns", "/api/emergencies/search?term=burn");
+        for (String read : reads) {
+            mockMvc.perform(get(read)).andExpect(status().isOk());
+        }
+
+        measurement.start();
+        for (String read : reads) {
+            mockMvc.perform(get(read)).andExpect(status().isOk());
+        }
+    }
+
+    @Test
+    @PerformanceBudget(statements = 1, allocatedBytes = 4_000_000)
+    void uncachedGuidesLoadWithTheirStepsInOneQuery(Measurement measurement) throws Exception {
+        // Initialize the request path and the batch query before measuring
+        mockMvc.perform(get("/api/emergencies/batch").param("slugs", "bee-sting")).andExpect(status().isOk());
+        cacheManager.getCache("emergencyBySlug").clear();
+        entityManagerFactory.getCache().evictAll();
+
+        measurement.start();
+        mockMvc.perform(get("/api/emergencies/batch").param("slugs", "bee-sting,choking-infant"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.emergencies.length()").value(2))
+                .andExpect(jsonPath("$.emergencies[0].steps.length()").value(greaterThan(0)))
+                .andExpect(jsonPath("$.emergencies[1].steps.length()").value(greaterThan(0)));
+    }
+
+    @Test
+    void searchVariantsAreAnsweredFromOneQuery() throws Exception {
+        String expected = mockMvc.perform(get("/api/emergencies/search").param("term", "burn"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(greaterThan(0)))
+                .andReturn().getResponse().getContentAsString();
+        double hits = searchCacheHits();
+
+        for (String variant : List.of("Burn ", "BURN", "  bürn")) {
+            mockMvc.perform(get("/api/emergencies/search").param("term", variant))
+                    .andExpect(status().isOk())
+                    .andExpect(content().json(expected, JsonCompareMode.STRICT));
+        }
+
+        assertEquals(hits + 3, searchCacheHits());
+    }
+
+    @Test
+    void searchFindsAccentedTextWithOrWithoutAccents() throws Exception {
+        emergencyService.applyCatalogContent(
+                List.of(new Emergency("Brûlure Chimique", "peau", Emergency.Severity.HIGH, "Rincer à l'eau", null)), List.of());
+        try {
+            for (String term : List.of("brûlure", "brulure", "BRÛLURE", "rincer a l")) {
+                mockMvc.perform(get("/api/emergencies/search").param("term", term))
+                        .andExpect(status().isOk())
+                        .andExpect(jsonPath("$[*].title", hasItem("Brûlure Chimique")));
+            }
+        } finally {
+            emergencyService.applyCatalogContent(List.of(), List.of("Brûlure Chimique"));
+        }
+    }
+
+    @Test
+    void eventStreamPushesCommittedRevisions() throws Exception {
+        String etag = mockMvc.perform(get("/api/emergencies")).andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        String version = etag.substring(etag.indexOf('"') + 1, etag.lastIndexOf('"'));
+        MvcResult stream = mockMvc.perform(get("/api/emergencies/events"))
+                .andExpect(request().asyncStarted())
+                .andExpect(header().string(HttpHeaders.CONTENT_TYPE, startsWith(MediaType.TEXT_EVENT_STREAM_VALUE)))
+                .andReturn();
+        awaitEvent(stream, "id:" + version + "\n");
+
+        try {
+            Long id = emergencyService.applyCatalogContent(
+                    List.of(new Emergency("Streamed Burn", "streamed", Emergency.Severity.LOW, "Red skin", null)), List.of())
+                    .iterator().next();
+            String events = awaitEvent(stream, "\"emergencyIds\":[" + id + "]}");
+            String next = events.substring(events.lastIndexOf("id:", events.indexOf("\"emergencyIds\":[" + id + "]")));
+            String nextVersion = next.substring(3, next.indexOf('\n'));
+            assertNotEquals(version, nextVersion);
+            assertTrue(next.contains("event:revision\ndata:{\"version\":\"" + nextVersion + "\",\"emergencyIds\":[" + id + "]}"), next);
+
+            // Versions come from the content, so any node can resume a stream
+            MvcResult resumed = mockMvc.perform(get("/api/emergencies/events").header("Last-Event-ID", version))
+                    .andExpect(request().asyncStarted())
+                    .andReturn();
+            String replayed = awaitEvent(resumed, "id:" + nextVersion + "\n");
+            assertTrue(replayed.contains("\"emergencyIds\":[" + id + "]"), replayed);
+
+            MvcResult current = mockMvc.perform(get("/api/emergencies/events").header("Last-Event-ID", nextVersion))
+                    .andExpect(request().asyncStarted())
+                    .andReturn();
+            assertEquals(":current\n\n", current.getResponse().getContentAsString());
+        } finally {
+            emergencyService.applyCatalogContent(List.of(), List.of("Streamed Burn"));
+        }
+    }
+
+    @Test
+    void eventStreamPushesChangesCommittedOnAnotherNode() throws Exception {
+        EmergencyDTO guide = emergencyService.getEmergencyBySlug("bee-sting").orElseThrow();
+        MvcResult stream = mockMvc.perform(get("/api/emergencies/events"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        // Another node's write: the row and the cluster revision, nothing on this node
+        jdbcTemplate.update("UPDATE emergencies SET short_description = ? WHERE id = ?", "Stung elsewhere", guide.getId());
+        jdbcTemplate.update("UPDATE catalog_revision SET revision = revision + 1 WHERE id = 1");
+        try {
+            catalogRevision.poll();
+            String etag = mockMvc.perform(get("/api/emergencies")).andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+            String version = etag.substring(etag.indexOf('"') + 1, etag.lastIndexOf('"'));
+            String events = awaitEvent(stream, "id:" + version + "\n");
+            assertTrue(events.contains("data:{\"version\":\"" + version + "\",\"emergencyIds\":[]}"), events);
+        } finally {
+            jdbcTemplate.update("UPDATE emergencies SET short_description = ? WHERE id = ?", guide.getShortDescription(), guide.getId());
+            catalogRevision.changed(List.of(guide.getId()));
+        }
+    }
+
+    private double requestCount(String uri, String cache) {
+        Timer timer = meterRegistry.find("http.server.requests").tags("uri", uri, "cache", cache).timer();
+        return timer == null ? 0 : timer.count();
+    }
+
+    private double searchCacheHits() {
+        return meterRegistry.get("resqtap.search.cache.requests").tag("result", "hit").functionCounter().count();
+    }
+
+    // Waits until the event starting with marker is complete; its lines may be written separately
+    private static String awaitEvent(MvcResult stream, String marker) throws Exception {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        String content = stream.getResponse().getContentAsString();
+        while (!eventComplete(content, marker) && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+            content = stream.getResponse().getContentAsString();
+        }
+        assertTrue(eventComplete(content, marker), content);
+        return content;
+    }
+
+    private static boolean eventComplete(String content, String marker) {
+        int start = content.indexOf(marker);
+        return start >= 0 && content.indexOf("\n\n", start) >= 0;
+    }
+
+    @Test
+    void unchangedPutEvictsNothingAndRepeatedStepNumbersAreRejected() throws Exception {
+        EmergencyDTO guide = emergencyService.getEmergencyBySlug("bee-sting").orElseThrow();
+        emergencyService.getEmergenciesByCategory(guide.getCategory());
+        long revision = catalogRevision.current();
+        ObjectNode body = objectMapper.createObjectNode()
+                .put("name", guide.getTitle())
+                .put("category", guide.getCategory())
+                .put("severity", guide.getSeverity())
+                .put("shortDescription", guide.getShortDescription())
+                .put("imageUrl", guide.getImageUrl())
+                .put("emergencyContact", guide.getEmergencyContact());
+        ArrayNode steps = body.putArray("steps");
+        for (EmergencyDTO.StepDTO step : guide.getSteps()) {
+            steps.addObject()
+                    .put("stepNumber", step.getStepNumber())
+                    .put("description", step.getDescription())
+                    .put("imageUrl", step.getImage());
+        }
+
+        mockMvc.perform(put("/api/emergencies/" + guide.getId()).param("role", "admin")
+                        .contentType(MediaType.APPLICATION_JSON).content(body.toString()))
+                .andExpect(status().isOk());
+
+        assertEquals(revision, catalogRevision.current());
+        assertNotNull(cacheManager.getCache("emergencyBySlug").get("bee-sting"));
+        assertNotNull(cacheManager.getCache("emergenciesByCategory").get(guide.getCategory()));
+
+        steps.addObject().put("stepNumber", 1).put("description", "Scrape the stinger out");
+        mockMvc.perform(put("/api/emergencies/" + guide.getId()).param("role", "admin")
+                        .contentType(MediaType.APPLICATION_JSON).content(body.toString()))
+                .andExpect(status().isBadRequest());
+        assertEquals(revision, catalogRevision.current());
+    }
+
+    @Test
+    void catalogIsServedUncompressedByDefault() throws Exception {
+        List<EmergencyDTO> expected = emergencyService.getAllEmergencies();
+
+        MvcResult result = mockMvc.perform(get("/api/emergencies"))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist(HttpHeaders.CONTENT_ENCODING))
+                .andExpect(header().stringValues(HttpHeaders.VARY, hasItem(containsString(HttpHeaders.ACCEPT_ENCODING))))
+                .andReturn();
+
+        assertArrayEquals(objectMapper.writeValueAsBytes(expected), result.getResponse().getContentAsByteArray());
+    }
+
+    @Test
+    void catalogIsServedPrecompressedWhenAccepted() throws Exception {
+        byte[] identity = mockMvc.perform(get("/api/emergencies"))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        MvcResult gzip = mockMvc.perform(get("/api/emergencies").header(HttpHeaders.ACCEPT_ENCODING, "gzip"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CONTENT_ENCODING, "gzip"))
+                .andReturn();
+        byte[] compressed = gzip.getResponse().getContentAsByteArray();
+        assertTrue(compressed.length < identity.length);
+        assertArrayEquals(identity, gunzip(compressed));
+
+        mockMvc.perform(get("/api/emergencies").header(HttpHeaders.ACCEPT_ENCODING, "gzip, deflate, br"))
+                .andExpect(header().string(HttpHeaders.CONTENT_ENCODING, "br"));
+
+        mockMvc.perform(get("/api/emergencies").header(HttpHeaders.ACCEPT_ENCODING, "br;q=0, gzip"))
+                .andExpect(header().string(HttpHeaders.CONTENT_ENCODING, "gzip"));
+    }
+
+    @Test
+    void catalogAnswersNotModifiedForCurrentEtag() throws Exception {
+        // Storable, so browsers and the service worker keep the body and revalidate with If-None-Match
+        String etag = mockMvc.perform(get("/api/emergencies"))
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "no-cache"))
+                .andExpect(header().doesNotExist(HttpHeaders.PRAGMA))
+                .andExpect(header().doesNotExist(HttpHeaders.EXPIRES))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertNotNull(etag);
+
+        double notModified = meterRegistry.get("resqtap.responses.not-modified").counter().count();
+
+        mockMvc.perform(get("/api/emergencies").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "no-cache"));
+        assertEquals(notModified + 1, meterRegistry.get("resqtap.responses.not-modified").counter().count());
+    }
+
+    @Test
+    void notModifiedAcceptsTagListsWildcardAndStrongForm() throws Exception {
+        String etag = mockMvc.perform(get("/api/emergencies"))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertTrue(etag.startsWith("W/"), etag);
+        String strong = etag.substring(2);
+
+        mockMvc.perform(get("/api/emergencies").header(HttpHeaders.IF_NONE_MATCH, "\"a,b\", " + strong))
+                .andExpect(status().isNotModified());
+        mockMvc.perform(get("/api/emergencies").header(HttpHeaders.IF_NONE_MATCH, "*"))
+                .andExpect(status().isNotModified());
+        mockMvc.perform(get("/api/emergencies").header(HttpHeaders.IF_NONE_MATCH, "W/\"a\", \"" + strong))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void listViewsAreServedPrecompressed() throws Exception {
+        byte[] identity = mockMvc.perform(get("/api/emergencies/category/burns"))
+                .andExpect(content().contentType("application/json"))
+                .andExpect(jsonPath("$[0].category").value("burns"))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        MvcResult gzip = mockMvc.perform(get("/api/emergencies/category/burns").header(HttpHeaders.ACCEPT_ENCODING, "gzip"))
+                .andExpect(header().string(HttpHeaders.CONTENT_ENCODING, "gzip"))
+                .andExpect(header().stringValues(HttpHeaders.VARY, hasItem(containsString(HttpHeaders.ACCEPT_ENCODING))))
+                .andReturn();
+        assertArrayEquals(identity, gunzip(gzip.getResponse().getContentAsByteArray()));
+
+        mockMvc.perform(get("/api/emergencies/category/burns")
+                        .header(HttpHeaders.IF_NONE_MATCH, gzip.getResponse().getHeader(HttpHeaders.ETAG)))
+                .andExpect(status().isNotModified());
+        mockMvc.perform(get("/api/emergencies/category/no-such-category"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(0));
+    }
+
+    @Test
+    void requestLatencyIsRecordedPerRouteAndCacheOutcome() throws Exception {
+        // Not searched before, so the first request misses the search cache
+        String term = "latency " + System.nanoTime();
+        double misses = requestCount("/api/emergencies/search", "miss");
+        double hits = requestCount("/api/emergencies/search", "hit");
+
+        mockMvc.perform(get("/api/emergencies/search").param("term", term)).andExpect(status().isOk());
+        mockMvc.perform(get("/api/emergencies/search").param("term", term)).andExpect(status().isOk());
+
+        assertEquals(misses + 1, requestCount("/api/emergencies/search", "miss"));
+        assertEquals(hits + 1, requestCount("/api/emergencies/search", "hit"));
+        Timer timer = meterRegistry.get("http.server.requests").tags("uri", "/api/emergencies/search", "cache", "hit").timer();
+        List<Double> bucketsMs = Arrays.stream(timer.takeSnapshot().histogramCounts())
+                .map(bucket -> bucket.bucket(TimeUnit.MILLISECONDS))
+                .toList();
+        assertTrue(bucketsMs.containsAll(List.of(10.0, 50.0, 200.0)), bucketsMs::toString);
+    }
+
+    @Test
+    void catalogIsServedAsCompactSmileWhenRequested() throws Exception {
+        byte[] json = mockMvc.perform(get("/api/emergencies").header(HttpHeaders.ACCEPT, "*/*"))
+                .andExpect(content().contentType("application/json"))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        MvcResult result = mockMvc.perform(get("/api/emergencies")
+                        .header(HttpHeaders.ACCEPT, "application/x-jackson-smile, application/json;q=0.5"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("application/x-jackson-smile"))
+                .andExpect(header().stringValues(HttpHeaders.VARY, hasItem(containsString(HttpHeaders.ACCEPT))))
+                .andReturn();
+        byte[] smile = result.getResponse().getContentAsByteArray();
+
+        CompactCatalog catalog = objectMapper.copyWith(new SmileFactory()).readValue(smile, CompactCatalog.class);
+        assertTrue(smile.length < json.length, "smile=" + smile.length + " json=" + json.length);
+        assertArrayEquals(json, objectMapper.writeValueAsBytes(catalog.toEmergencies()));
+        assertTrue(catalog.getImagePrefixes().contains("/images/cpr/adult/"));
+    }
+
+    @Test
+    void smileIsOnlyServedWhenRankedAtLeastAsHighAsJson() throws Exception {
+        mockMvc.perform(get("/api/emergencies").header(HttpHeaders.ACCEPT, "application/x-jackson-smile;q=0, */*"))
+                .andExpect(content().contentType("application/json"));
+        mockMvc.perform(get("/api/emergencies").header(HttpHeaders.ACCEPT, "application/json, application/x-jackson-smile;q=0.5"))
+                .andExpect(content().contentType("application/json"));
+        mockMvc.perform(get("/api/emergencies").header(HttpHeaders.ACCEPT, "application/x-jackson-smile;q=0.5, */*;q=0.1"))
+                .andExpect(content().contentType("application/x-jackson-smile"));
+    }
+
+    @Test
+    void smileEtagDependsOnContentNotRevision() throws Exception {
+        String before = mockMvc.perform(get("/api/emergencies").header(HttpHeaders.ACCEPT, "application/x-jackson-smile"))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        catalogRevision.changed(List.of());
+
+        mockMvc.perform(get("/api/emergencies").header(HttpHeaders.ACCEPT, "application/x-jackson-smile"))
+                .andExpect(header().string(HttpHeaders.ETAG, before));
+    }
+
+    private static byte[] gunzip(byte[] data) throws IOException {
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(data))) {
+            return in.readAllBytes();
+        }
+    }
+}
@@ -0,0 +1,142 @@
+package com.example.resqtap.repository;
+
+import com.example.resqtap.RecordingStatementInspector;
+import com.example.resqtap.model.Emergency;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// The dev schema comes from db/migration/h2. Each query is the SQL the repository generates, recorded as it
+// runs: H2 explains the column indexes, and the expression indexes, which exist on PostgreSQL only, must
+// match the generated expression exactly to be used.
+@SpringBootTest
+@ActiveProfiles("dev")
+class SchemaIndexTest {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EmergencyRepository emergencyRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    // Otherwise the query and entity caches answer without SQL
+    @BeforeEach
+    void evictCaches() {
+        entityManagerFactory.unwrap(SessionFactory.class).getCache().evictAllRegions();
+    }
+
+    @Test
+    void migrationsCreateTheSchema() {
+        List<String> versions = jdbcTemplate.queryForList(
+                "SELECT \"version\" FROM \"flyway_schema_history\" WHERE \"version\" IS NOT NULL AND \"success\" ORDER BY \"installed_rank\"", String.class);
+        assertEquals(List.of("1", "2", "3"), versions);
+    }
+
+    @Test
+    void categoryLookupUsesIndex() {
+        String sql = query(() -> emergencyRepository.findByCategory("cardiac"), "from emergencies");
+        assertUsesIndex("idx_emergencies_category", sql, "cardiac");
+    }
+
+    @Test
+    void severityLookupUsesIndex() {
+        String sql = query(() -> emergencyRepository.findBySeverity(Emergency.Severity.LOW), "from emergencies");
+        assertUsesIndex("idx_emergencies_severity", sql, "LOW");
+        sql = query(() -> emergencyRepository.findBySeverityIn(List.of(Emergency.Severity.CRITICAL, Emergency.Severity.HIGH)),
+                "from emergencies");
+        assertUsesIndex("idx_emergencies_severity", sql, "CRITICAL", "HIGH");
+    }
+
+    @Test
+    void stepsOfAnEmergencyAreAnIndexLookup() {
+        Long id = emergencyRepository.findByCategory("cardiac").get(0).getId();
+        evictCaches();
+        // Eager steps are loaded in batches, for all the emergencies the finder returns; H2 pads the IN list
+        String sql = query(() -> emergencyRepository.findByCategory("cardiac"), "from steps");
+        Object[] ids = new Object[(int) sql.chars().filter(c -> c == '?').count()];
+        Arrays.fill(ids, id);
+        // H2 also gives the foreign key an index of its own and may pick either; PostgreSQL has only the composite one
+        String plan = explain(sql, ids);
+        assertFalse(plan.contains("tableScan"), plan);
+    }
+
+    @Test
+    void nameLookupsMatchTheNameIndex() throws IOException {
+        String expression = "upper(name)";
+        assertIndexedOnPostgres("idx_emergencies_upper_name", expression);
+        assertComparesIndexedExpression(expression,
+                query(() -> emergencyRepository.findByNameIgnoreCase("No Such Name"), "from emergencies"));
+        assertComparesIndexedExpression(expression,
+                query(() -> emergencyRepository.existsByNameIgnoreCase("No Such Name"), "from emergencies"));
+        assertComparesIndexedExpression(expression,
+                query(() -> emergencyRepository.findAllWithStepsByNameIn(List.of("NO SUCH NAME")), "from emergencies"));
+    }
+
+    @Test
+    void slugLookupsMatchTheSlugIndex() throws IOException {
+        String expression = "lower(replace(name,' ','-'))";
+        assertIndexedOnPostgres("idx_emergencies_slug", expression);
+        assertComparesIndexedExpression(expression,
+                query(() -> emergencyRepository.findBySlug("no-such-slug"), "from emergencies"));
+        assertComparesIndexedExpression(expression,
+                query(() -> emergencyRepository.findAllWithStepsBySlugIn(List.of("no-such-slug")), "from emergencies"));
+    }
+
+    @Test
+    void searchMatchesTheTrigramIndex() throws IOException {
+        assertIndexedOnPostgres("idx_emergencies_search_text_trgm", "search_text gin_trgm_ops");
+        String sql = query(() -> emergencyRepository.search("no such term"), "from emergencies");
+        assertTrue(sql.replaceAll("\\b\\w+_\\d+\\.", "").contains("search_text like"), sql);
+    }
+
+    // The one statement of the recorded ones that reads the given table
+    private static String query(Runnable work, String from) {
+        List<String> matching = RecordingStatementInspector.record(work).stream()
+                .filter(sql -> sql.contains(from))
+                .toList();
+        assertFalse(matching.isEmpty(), "No statement " + from);
+        return matching.get(0);
+    }
+
+    private void assertUsesIndex(String index, String sql, Object... args) {
+        String plan = explain(sql, args);
+        assertTrue(plan.contains(index.toUpperCase()), plan);
+    }
+
+    private String explain(String sql, Object... args) {
+        return String.join("\n", jdbcTemplate.queryForList("EXPLAIN " + sql, String.class, args));
+    }
+
+    // Compared with = or IN; table aliases and whitespace do not matter to the planner
+    private static void assertComparesIndexedExpression(String expression, String sql) {
+        String normalized = sql.replaceAll("\\b\\w+_\\d+\\.", "").replaceAll(",\\s+", ",");
+        assertTrue(normalized.contains(expression + "=") || normalized.contains(expression + " in"), sql);
+    }
+
+    private static void assertIndexedOnPostgres(String index, String expression) throws IOException {
+        StringBuilder migrations = new StringBuilder();
+        for (Resource resource : new PathMatchingResourcePatternResolver()
+                .getResources("classpath:db/migration/postgresql/*.sql")) {
+            migrations.append(resource.getContentAsString(StandardCharsets.UTF_8).replaceAll(",\\s+", ","));
+        }
+        assertTrue(migrations.toString().matches("(?s).*" + index + "\\s+ON emergencies (USING \\w+ )?\\(" + Pattern.quote(expression) + "\\).*"), index);
+    }
+}
@@ -0,0 +1,131 @@
+package com.example.resqtap.service;
+
+import com.example.resqtap.dto.EmergencyDTO;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("dev")
+class CatalogContentWatcherTest {
+
+    private static final String SPRAIN = """
+            {"id": "watched-sprain", "name": "Watched Sprain", "category": "watched", "severity": "LOW",
+             "description": "Stretched ligament", "image": "/images/watched/sprain.jpg",
+             "steps": [{"order": 1, "text": "Rest the joint", "image": null},
+                       {"order": 2, "text": "%s", "image": null}]}""";
+
+    private static final String CUT = """
+            {"id": "watched-cut", "name": "Watched Cut", "category": "watched", "severity": "MEDIUM",
+             "description": "Shallow cut", "image": null,
+             "steps": [{"order": 1, "text": "Press with a clean cloth", "image": null}]}""";
+
+    @Autowired
+    private EmergencyService emergencyService;
+
+    @Autowired
+    private CatalogRevision catalogRevision;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @TempDir
+    Path dir;
+
+    private Path file;
+    private CatalogContentWatcher watcher;
+
+    @BeforeEach
+    void setUp() {
+        file = dir.resolve("watched.json");
+        watcher = new CatalogContentWatcher(emergencyService, objectMapper, dir.toString(), Duration.ofMillis(50));
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        watcher.stop();
+        emergencyService.applyCatalogContent(List.of(), List.of("Watched Sprain", "Watched Cut"));
+    }
+
+    @Test
+    void onlyChangedEmergenciesAreWrittenUnderOneRevision() throws Exception {
+        write(SPRAIN.formatted("Apply ice"), CUT);
+        assertEquals(2, watcher.reload(List.of(file)).size());
+        Long sprainId = emergencyService.getEmergencyBySlug("watched-sprain").orElseThrow().getId();
+        emergencyService.getEmergencyBySlug("Watched-Sprain");
+        emergencyService.getEmergenciesByCategory("watched");
+        emergencyService.getEmergenciesByCategory("cardiac");
+        long revision = catalogRevision.current();
+
+        write(SPRAIN.formatted("Apply ice wrapped in a cloth"), CUT);
+
+        assertEquals(Set.of(sprainId), watcher.reload(List.of(file)));
+        assertEquals(revision + 1, catalogRevision.current());
+        assertNull(cacheManager.getCache("emergencyBySlug").get("watched-sprain"));
+        assertNull(cacheManager.getCache("emergencyBySlug").get("Watched-Sprain"));
+        assertNull(cacheManager.getCache("emergenciesByCategory").get("watched"));
+        assertNotNull(cacheManager.getCache("emergenciesByCategory").get("cardiac"));
+        EmergencyDTO sprain = emergencyService.getEmergencyBySlug("watched-sprain").orElseThrow();
+        assertEquals("Apply ice wrapped in a cloth", sprain.getSteps().get(1).getDescription());
+
+        assertEquals(Set.of(), watcher.reload(List.of(file)));
+        assertEquals(revision + 1, catalogRevision.current());
+    }
+
+    @Test
+    void entriesDroppedFromAFileAreDeleted() throws Exception {
+        write(SPRAIN.formatted("Apply ice"), CUT);
+        watcher.reload(List.of(file));
+
+        write(CUT);
+        watcher.reload(List.of(file));
+
+        assertTrue(emergencyService.getEmergencyBySlug("watched-sprain").isEmpty());
+        assertTrue(emergencyService.getEmergencyBySlug("watched-cut").isPresent());
+    }
+
+    @Test
+    void fileThatDoesNotParseKeepsItsPreviousContent() throws Exception {
+        write(SPRAIN.formatted("Apply ice"));
+        watcher.reload(List.of(file));
+
+        Files.writeString(file, "[" + SPRAIN.formatted("Apply ice").replace("\"LOW\"", "\"SEVERE\"") + "]");
+
+        assertEquals(Set.of(), watcher.reload(List.of(file)));
+        assertEquals("LOW", emergencyService.getEmergencyBySlug("watched-sprain").orElseThrow().getSeverity());
+    }
+
+    @Test
+    void writtenFilesAreAppliedWithoutARestart() throws Exception {
+        watcher.start();
+
+        write(CUT);
+
+        long deadline = System.nanoTime() + Duration.ofSeconds(20).toNanos();
+        while (!emergencyService.existsByName("Watched Cut") && System.nanoTime() < deadline) {
+            Thread.sleep(50);
+        }
+        assertTrue(emergencyService.existsByName("Watched Cut"));
+    }
+
+    private void write(String... entries) throws Exception {
+        Files.writeString(file, "[" + String.join(",", entries) + "]");
+    }
+}
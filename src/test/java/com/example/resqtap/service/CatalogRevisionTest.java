@@ -0,0 +1,88 @@
+package com.example.resqtap.service;
+
+import com.example.resqtap.dto.EmergencyDTO;
+import com.example.resqtap.model.Emergency;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.event.ApplicationEvents;
+import org.springframework.test.context.event.RecordApplicationEvents;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Another node is simulated by writing to the database directly and bumping the cluster revision
+@SpringBootTest
+@ActiveProfiles("dev")
+@RecordApplicationEvents
+class CatalogRevisionTest {
+
+    @Autowired
+    private CatalogRevision catalogRevision;
+
+    @Autowired
+    private EmergencyService emergencyService;
+
+    @Autowired
+    private CatalogPayloadService catalogPayloadService;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ApplicationEvents events;
+
+    @Test
+    void changeCommittedByAnotherNodeIsPickedUpByPolling() {
+        EmergencyDTO guide = emergencyService.getEmergencyBySlug("bee-sting").orElseThrow();
+        String etag = catalogPayloadService.getCatalog().getEtag();
+        long revision = catalogRevision.current();
+
+        jdbcTemplate.update("UPDATE emergencies SET short_description = ? WHERE id = ?", "Edited elsewhere", guide.getId());
+        jdbcTemplate.update("UPDATE catalog_revision SET revision = revision + 1 WHERE id = 1");
+        try {
+            catalogRevision.poll();
+
+            assertEquals(revision + 1, catalogRevision.current());
+            assertNull(cacheManager.getCache("emergencyBySlug").get("bee-sting"));
+            assertEquals("Edited elsewhere", emergencyService.getEmergencyBySlug("bee-sting").orElseThrow().getShortDescription());
+            assertNotEquals(etag, catalogPayloadService.getCatalog().getEtag());
+            assertEquals(List.of(Set.of()), events.stream(CatalogChangedEvent.class)
+                    .filter(event -> event.getRevision() == revision + 1)
+                    .map(CatalogChangedEvent::getEmergencyIds)
+                    .toList());
+
+            catalogRevision.poll();
+            assertEquals(revision + 1, catalogRevision.current());
+        } finally {
+            jdbcTemplate.update("UPDATE emergencies SET short_description = ? WHERE id = ?", guide.getShortDescription(), guide.getId());
+            catalogRevision.changed(List.of(guide.getId()));
+        }
+    }
+
+    @Test
+    void ownWriteAdvancesOnceWithItsIds() {
+        long revision = catalogRevision.current();
+
+        Emergency saved = emergencyService.createEmergency(
+                new Emergency("Revision Probe", "probe", Emergency.Severity.LOW, "Probe", null));
+        try {
+            catalogRevision.poll();
+
+            assertEquals(revision + 1, catalogRevision.current());
+            assertEquals(List.of(Set.of(saved.getId())), events.stream(CatalogChangedEvent.class)
+                    .map(CatalogChangedEvent::getEmergencyIds)
+                    .toList());
+        } finally {
+            emergencyService.deleteEmergency(saved.getId());
+        }
+    }
+}
@@ -0,0 +1,209 @@
+package com.example.resqtap.service;
+
+import com.example.resqtap.dto.CompactCatalog;
+import com.example.resqtap.dto.EmergencyDTO;
+import com.example.resqtap.model.Emergency;
+import com.example.resqtap.model.Emergency.Severity;
+import com.example.resqtap.repository.EmergencyRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManager;
+import org.flywaydb.core.Flyway;
+import org.flywaydb.core.api.FlywayException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.dao.InvalidDataAccessResourceUsageException;
+import org.springframework.transaction.CannotCreateTransactionException;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class CatalogSnapshotStoreTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @TempDir
+    Path dir;
+
+    private Path file;
+    private List<EmergencyDTO> emergencies;
+    private EmergencyRepository repository;
+    private StaleCacheTier staleCacheTier;
+    private DatabaseCircuitBreaker database;
+
+    @BeforeEach
+    void setUp() {
+        file = dir.resolve("catalog.snapshot");
+        repository = mock(EmergencyRepository.class);
+        staleCacheTier = new StaleCacheTier(new SimpleMeterRegistry(), Duration.ofHours(1), 100);
+        database = new DatabaseCircuitBreaker(new SimpleMeterRegistry(), 50, Duration.ofSeconds(2), Duration.ofMinutes(1));
+        emergencies = List.of(
+                dto(1L, "CPR Adult", "cardiac", Severity.CRITICAL),
+                dto(2L, "Minor Cut", "trauma", Severity.LOW));
+    }
+
+    @Test
+    void testSnapshotSurvivesRestart() throws Exception {
+        new CatalogSnapshotStore(file, objectMapper).save(7, smile(), emergencies);
+
+        Optional<CatalogSnapshotStore.Snapshot> loaded = new CatalogSnapshotStore(file, objectMapper).current();
+
+        assertTrue(loaded.isPresent());
+        assertEquals(7, loaded.get().getRevision());
+        assertEquals(List.of("CPR Adult", "Minor Cut"),
+                loaded.get().getEmergencies().stream().map(EmergencyDTO::getTitle).toList());
+        assertEquals("Check for responsiveness", loaded.get().getEmergencies().get(0).getSteps().get(0).getDescription());
+    }
+
+    @Test
+    void testCorruptSnapshotIsIgnored() throws Exception {
+        new CatalogSnapshotStore(file, objectMapper).save(7, smile(), emergencies);
+        byte[] bytes = Files.readAllBytes(file);
+        bytes[bytes.length - 1] ^= 0x01;
+        Files.write(file, bytes);
+
+        assertTrue(new CatalogSnapshotStore(file, objectMapper).current().isEmpty());
+    }
+
+    @Test
+    void testBackgroundSaveIsCurrentBeforeItIsWritten() throws Exception {
+        CatalogSnapshotStore store = new CatalogSnapshotStore(file, objectMapper);
+
+        store.saveInBackground(7, smile(), emergencies);
+
+        assertEquals(7, store.current().orElseThrow().getRevision());
+        store.close();
+        assertEquals(7, new CatalogSnapshotStore(file, objectMapper).current().orElseThrow().getRevision());
+    }
+
+    @Test
+    void testMigrationIsDeferredOnlyWithSnapshot() throws Exception {
+        Flyway unreachable = Flyway.configure()
+                .dataSource("jdbc:postgresql://127.0.0.1:1/resqtap", "resqtap", "resqtap")
+                .load();
+        CatalogSnapshotStore empty = new CatalogSnapshotStore(file, objectMapper);
+        assertThrows(FlywayException.class, () -> new DeferredMigration(empty).migrate(unreachable));
+
+        new CatalogSnapshotStore(file, objectMapper).save(7, smile(), emergencies);
+        CatalogSnapshotStore restarted = new CatalogSnapshotStore(file, objectMapper);
+        DeferredMigration migration = new DeferredMigration(restarted);
+        migration.migrate(unreachable);
+
+        assertTrue(migration.isPending());
+        assertTrue(restarted.isDegraded());
+        assertThrows(FlywayException.class, migration::runPending);
+        assertTrue(migration.isPending());
+    }
+
+    @Test
+    void testReadsFallBackToSnapshotWhenDatabaseIsDown() throws Exception {
+        new CatalogSnapshotStore(file, objectMapper).save(7, smile(), emergencies);
+        CatalogSnapshotStore restarted = new CatalogSnapshotStore(file, objectMapper);
+        EmergencyService service = serviceWithDatabaseDown(restarted);
+
+        assertEquals("CPR Adult", service.getEmergencyBySlug("cpr-adult").orElseThrow().getTitle());
+        assertEquals(1, service.getCriticalEmergencies().size());
+        assertEquals(1, service.search("cut").size());
+        assertEquals(2, service.getAllEmergencies().size());
+        assertTrue(restarted.isDegraded());
+    }
+
+    @Test
+    void testReadsFailWithoutSnapshot() {
+        CatalogSnapshotStore store = new CatalogSnapshotStore(file, objectMapper);
+        EmergencyService service = serviceWithDatabaseDown(store);
+
+        assertThrows(CannotCreateTransactionException.class, service::getAllEmergencies);
+        assertFalse(store.isDegraded());
+    }
+
+    @Test
+    void testReadsPreferStaleCacheEntryOverSnapshot() throws Exception {
+        new CatalogSnapshotStore(file, objectMapper).save(7, smile(), emergencies);
+        staleCacheTier.put("emergency", 1L, dto(1L, "CPR Adult (cached)", "cardiac", Severity.CRITICAL));
+        EmergencyService service = serviceWithDatabaseDown(new CatalogSnapshotStore(file, objectMapper));
+
+        assertEquals("CPR Adult (cached)", service.getEmergencyById(1L).orElseThrow().getTitle());
+        assertEquals("Minor Cut", service.getEmergencyById(2L).orElseThrow().getTitle());
+        assertTrue(staleCacheTier.isServingStale());
+    }
+
+    @Test
+    void testOpenCircuitStopsHittingDatabase() throws Exception {
+        new CatalogSnapshotStore(file, objectMapper).save(7, smile(), emergencies);
+        EmergencyService service = serviceWithDatabaseDown(new CatalogSnapshotStore(file, objectMapper));
+
+        for (int i = 0; i < 20; i++) {
+            assertEquals(2, service.getAllEmergencies().size());
+        }
+
+        assertEquals(CircuitBreaker.State.OPEN, database.getState());
+        verify(repository, times(5)).findAll();
+    }
+
+    @Test
+    void testRejectedQueriesDoNotOpenCircuit() {
+        when(repository.findAll()).thenThrow(new InvalidDataAccessResourceUsageException("Bad SQL"));
+        EmergencyService service = new EmergencyService(repository, mock(CatalogRevision.class),
+                new CatalogSnapshotStore(file, objectMapper), staleCacheTier, database,
+                new SearchResultCache(new SimpleMeterRegistry(), 100, 100, Duration.ofMinutes(1)),
+                new ConcurrentMapCacheManager(), mock(EntityManager.class), objectMapper);
+
+        for (int i = 0; i < 20; i++) {
+            assertThrows(InvalidDataAccessResourceUsageException.class, service::getAllEmergencies);
+        }
+
+        assertEquals(CircuitBreaker.State.CLOSED, database.getState());
+    }
+
+    @Test
+    void testStaleMarkIsScopedToEachRead() throws Exception {
+        new CatalogSnapshotStore(file, objectMapper).save(7, smile(), emergencies);
+        EmergencyService service = serviceWithDatabaseDown(new CatalogSnapshotStore(file, objectMapper));
+        when(repository.findByCategory("cardiac")).thenReturn(List.of());
+
+        StaleCacheTier.Served<Integer> stale = staleCacheTier.track(() -> service.getAllEmergencies().size());
+        service.getEmergenciesByCategory("cardiac");
+
+        assertNotNull(stale.staleAsOf());
+        assertFalse(staleCacheTier.isServingStale());
+        assertTrue(staleCacheTier.servedAsOf().isPresent());
+    }
+
+    private EmergencyService serviceWithDatabaseDown(CatalogSnapshotStore store) {
+        CannotCreateTransactionException down = new CannotCreateTransactionException("Connection refused");
+        when(repository.findAll()).thenThrow(down);
+        when(repository.findById(any())).thenThrow(down);
+        when(repository.findBySlug(any())).thenThrow(down);
+        when(repository.findBySeverityIn(any())).thenThrow(down);
+        when(repository.search(any())).thenThrow(down);
+        return new EmergencyService(repository, mock(CatalogRevision.class), store, staleCacheTier, database,
+                new SearchResultCache(new SimpleMeterRegistry(), 100, 100, Duration.ofMinutes(1)),
+                new ConcurrentMapCacheManager("emergency", "emergencyBySlug"), mock(EntityManager.class), objectMapper);
+    }
+
+    private byte[] smile() throws Exception {
+        return new ObjectMapper(new SmileFactory()).writeValueAsBytes(CompactCatalog.from(emergencies));
+    }
+
+    private static EmergencyDTO dto(Long id, String name, String category, Severity severity) {
+        Emergency emergency = new Emergency(name, category, severity, "Test description for " + name, "/images/test.png");
+        emergency.setId(id);
+        emergency.addStep(1, "Check for responsiveness", "/images/step1.png");
+        return new EmergencyDTO(emergency);
+    }
+}
@@ -1,17 +1,26 @@
 package com.example.resqtap.service;
 
+import com.example.resqtap.PerformanceBudget;
+import com.example.resqtap.PerformanceBudgetExtension.Measurement;
 import com.example.resqtap.dto.EmergencyDTO;
 import com.example.resqtap.model.Emergency;
 import com.example.resqtap.model.Emergency.Severity;
+import com.example.resqtap.model.Step;
 import com.example.resqtap.repository.EmergencyRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -27,9 +36,21 @@ class EmergencyServiceTest {
     @Autowired
     private EmergencyRepository emergencyRepository;
 
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private Statistics statistics;
+
     @BeforeEach
     void setUp() {
         emergencyRepository.deleteAll();
+        // Write the deletes now rather than at the first query of a budgeted test
+        entityManager.flush();
+        statistics = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
     }
 
     @Test
@@ -44,20 +65,24 @@ class EmergencyServiceTest {
     }
 
     @Test
-    void testGetEmergencyById() {
+    @PerformanceBudget(statements = 1, allocatedBytes = 1_000_000)
+    void testGetEmergencyById(Measurement measurement) {
         Emergency emergency = createTestEmergency("Burn", "Burns", Severity.MEDIUM);
         Emergency saved = emergencyService.createEmergency(emergency);
 
+        startMeasuring(measurement);
         Optional<EmergencyDTO> fetched = emergencyService.getEmergencyById(saved.getId());
         assertTrue(fetched.isPresent());
         assertEquals("Burn", fetched.get().getTitle());
     }
 
     @Test
-    void testGetAllEmergencies() {
+    @PerformanceBudget(statements = 2, allocatedBytes = 1_000_000)
+    void testGetAllEmergencies(Measurement measurement) {
         emergencyService.createEmergency(createTestEmergency("Fire", "Safety", Severity.HIGH));
         emergencyService.createEmergency(createTestEmergency("Earthquake", "Natural Disaster", Severity.HIGH));
 
+        startMeasuring(measurement);
         List<EmergencyDTO> all = emergencyService.getAllEmergencies();
         assertEquals(2, all.size());
     }
@@ -75,46 +100,55 @@ class EmergencyServiceTest {
     }
 
     @Test
-    void testSearchEmergencies() {
+    @PerformanceBudget(statements = 2, allocatedBytes = 2_000_000)
+    void testSearchEmergencies(Measurement measurement) {
         emergencyService.createEmergency(createTestEmergency("Panic Attack", "Mental Health", Severity.MEDIUM));
 
+        startMeasuring(measurement);
         List<EmergencyDTO> result = emergencyService.search("panic");
         assertEquals(1, result.size());
         assertEquals("Panic Attack", result.get(0).getTitle());
     }
 
     @Test
-    void testGetEmergenciesByCategory() {
+    @PerformanceBudget(statements = 2, allocatedBytes = 1_000_000)
+    void testGetEmergenciesByCategory(Measurement measurement) {
         emergencyService.createEmergency(createTestEmergency("CPR Adult", "Cardiac", Severity.CRITICAL));
         emergencyService.createEmergency(createTestEmergency("Heart Attack", "Cardiac", Severity.CRITICAL));
         emergencyService.createEmergency(createTestEmergency("Burn", "Burns", Severity.MEDIUM));
 
+        startMeasuring(measurement);
         List<EmergencyDTO> cardiacEmergencies = emergencyService.getEmergenciesByCategory("Cardiac");
         assertEquals(2, cardiacEmergencies.size());
     }
 
     @Test
-    void testGetEmergenciesBySeverity() {
+    @PerformanceBudget(statements = 2, allocatedBytes = 1_000_000)
+    void testGetEmergenciesBySeverity(Measurement measurement) {
         emergencyService.createEmergency(createTestEmergency("CPR", "Cardiac", Severity.CRITICAL));
         emergencyService.createEmergency(createTestEmergency("Minor Cut", "Trauma", Severity.LOW));
 
+        startMeasuring(measurement);
         List<EmergencyDTO> criticalEmergencies = emergencyService.getEmergenciesBySeverity(Severity.CRITICAL);
         assertEquals(1, criticalEmergencies.size());
         assertEquals("CPR", criticalEmergencies.get(0).getTitle());
     }
 
     @Test
-    void testGetCriticalEmergencies() {
+    @PerformanceBudget(statements = 2, allocatedBytes = 1_000_000)
+    void testGetCriticalEmergencies(Measurement measurement) {
         emergencyService.createEmergency(createTestEmergency("CPR", "Cardiac", Severity.CRITICAL));
         emergencyService.createEmergency(createTestEmergency("Severe Bleeding", "Trauma", Severity.HIGH));
         emergencyService.createEmergency(createTestEmergency("Minor Cut", "Trauma", Severity.LOW));
 
+        startMeasuring(measurement);
         List<EmergencyDTO> criticalAndHigh = emergencyService.getCriticalEmergencies();
         assertEquals(2, criticalAndHigh.size());
     }
 
     @Test
-    void testEmergencyWithSteps() {
+    @PerformanceBudget(statements = 1, allocatedBytes = 1_000_000)
+    void testEmergencyWithSteps(Measurement measurement) {
         Emergency emergency = createTestEmergency("Test Emergency", "Test", Severity.MEDIUM);
         emergency.addStep(1, "Step 1 description", "/images/step1.png");
         emergency.addStep(2, "Step 2 description", "/images/step2.png");
@@ -122,6 +156,7 @@ class EmergencyServiceTest {
 
         Emergency saved = emergencyService.createEmergency(emergency);
 
+        startMeasuring(measurement);
         Optional<EmergencyDTO> fetched = emergencyService.getEmergencyById(saved.getId());
         assertTrue(fetched.isPresent());
         assertEquals(3, fetched.get().getSteps().size());
@@ -129,9 +164,11 @@ class EmergencyServiceTest {
     }
 
     @Test
-    void testGetEmergencyBySlug() {
+    @PerformanceBudget(statements = 2, allocatedBytes = 2_000_000)
+    void testGetEmergencyBySlug(Measurement measurement) {
         emergencyService.createEmergency(createTestEmergency("CPR Adult", "Cardiac", Severity.CRITICAL));
 
+        startMeasuring(measurement);
         Optional<EmergencyDTO> fetched = emergencyService.getEmergencyBySlug("cpr-adult");
         assertTrue(fetched.isPresent());
         assertEquals("CPR Adult", fetched.get().getTitle());
@@ -151,6 +188,141 @@ class EmergencyServiceTest {
         assertEquals(Severity.HIGH, result.get().getSeverity());
     }
 
+    // The SELECT of the emergency with its steps, then one UPDATE, one DELETE and one INSERT
+    @Test
+    @PerformanceBudget(statements = 4)
+    void testUpdateEmergencyWritesOnlyChangedSteps(Measurement measurement) {
+        Emergency saved = createWithSteps("Choking", 3);
+
+        Emergency updated = createTestEmergency("Choking", "Category", Severity.LOW);
+        updated.addStep(1, "Step 1 description", "/images/step1.png");
+        updated.addStep(2, "Step 2 revised", "/images/step2.png");
+        updated.addStep(4, "Step 4 description", "/images/step4.png");
+
+        entityManager.getEntityManagerFactory().getCache().evictAll();
+        statistics.clear();
+        measurement.start();
+        emergencyService.updateEmergency(saved.getId(), updated);
+        entityManager.flush();
+
+        // Step 2 updated, step 3 deleted, step 4 inserted; step 1 and the emergency row untouched
+        // (the forced version bump is written at commit, which this test transaction never reaches)
+        assertEquals(1, statistics.getEntityInsertCount());
+        assertEquals(1, statistics.getEntityDeleteCount());
+        assertEquals(1, statistics.getEntityUpdateCount());
+
+        entityManager.clear();
+        Emergency reloaded = emergencyRepository.findById(saved.getId()).orElseThrow();
+        assertEquals(List.of(1, 2, 4), reloaded.getSteps().stream().map(Step::getStepNumber).toList());
+        assertEquals("Step 2 revised", reloaded.getSteps().get(1).getDescription());
+    }
+
+    // Only the SELECT
+    @Test
+    @PerformanceBudget(statements = 0)
+    void testUpdateEmergencyWithoutChangesWritesNothing(Measurement measurement) {
+        Emergency saved = createWithSteps("Sprain", 3);
+
+        Emergency same = createTestEmergency("Sprain", "Category", Severity.LOW);
+        for (int i = 1; i <= 3; i++) {
+            same.addStep(i, "Step " + i + " description", "/images/step" + i + ".png");
+        }
+
+        entityManager.getEntityManagerFactory().getCache().evictAll();
+        statistics.clear();
+        measurement.start();
+        emergencyService.updateEmergency(saved.getId(), same);
+        entityManager.flush();
+
+        assertEquals(0, statistics.getEntityInsertCount());
+        assertEquals(0, statistics.getEntityDeleteCount());
+        assertEquals(0, statistics.getEntityUpdateCount());
+    }
+
+    @Test
+    void testUpdateEmergencyRejectsMissingOrRepeatedStepNumbers() {
+        Emergency saved = createWithSteps("Nosebleed", 2);
+
+        Emergency repeated = createTestEmergency("Nosebleed", "Category", Severity.LOW);
+        repeated.addStep(1, "Pinch the nose", null);
+        repeated.addStep(1, "Lean forward", null);
+        Emergency unnumbered = createTestEmergency("Nosebleed", "Category", Severity.LOW);
+        unnumbered.addStep(new Step(null, "Pinch the nose", null));
+
+        assertThrows(IllegalArgumentException.class, () -> emergencyService.updateEmergency(saved.getId(), repeated));
+        assertThrows(IllegalArgumentException.class, () -> emergencyService.updateEmergency(saved.getId(), unnumbered));
+    }
+
+    @Test
+    void testUpdateEmergencyRejectsStaleVersion() {
+        Emergency saved = createWithSteps("Fainting", 1);
+
+        Emergency stale = createTestEmergency("Fainting", "Category", Severity.HIGH);
+        stale.setVersion(saved.getVersion() - 1);
+
+        assertThrows(ObjectOptimisticLockingFailureException.class,
+                () -> emergencyService.updateEmergency(saved.getId(), stale));
+    }
+
+    @Test
+    void testPatchEmergency() throws Exception {
+        Emergency saved = createWithSteps("Hypothermia", 2);
+
+        statistics.clear();
+        Emergency patched = emergencyService.patchEmergency(saved.getId(),
+                objectMapper.readTree("{\"shortDescription\": \"Warm the person slowly\", \"imageUrl\": null}"))
+                .orElseThrow();
+        entityManager.flush();
+
+        assertEquals("Warm the person slowly", patched.getShortDescription());
+        assertNull(patched.getImageUrl());
+        assertEquals("Hypothermia", patched.getName());
+        assertEquals(2, patched.getSteps().size());
+        assertEquals(1, statistics.getEntityUpdateCount());
+    }
+
+    @Test
+    void testGetEmergenciesByIdsLoadsMissesInOneQuery() {
+        Emergency first = createWithSteps("Frostbite", 2);
+        Emergency second = createWithSteps("Heat Stroke", 3);
+        Emergency third = createWithSteps("Jellyfish Sting", 1);
+        emergencyService.getEmergencyById(third.getId());
+
+        statistics.clear();
+        Map<Long, EmergencyDTO> found = emergencyService.getEmergenciesByIds(
+                List.of(second.getId(), -1L, third.getId(), first.getId()));
+
+        assertEquals(List.of(second.getId(), third.getId(), first.getId()), List.copyOf(found.keySet()));
+        assertEquals(3, found.get(second.getId()).getSteps().size());
+        assertEquals(1, statistics.getPrepareStatementCount());
+
+        statistics.clear();
+        assertEquals("Heat Stroke", emergencyService.getEmergencyById(second.getId()).orElseThrow().getTitle());
+        assertEquals(2, emergencyService.getEmergenciesBySlugs(List.of("frostbite", "heat-stroke")).size());
+        assertEquals(1, statistics.getPrepareStatementCount());
+        assertEquals(List.of(first.getId()),
+                List.copyOf(emergencyService.getEmergenciesByIds(List.of(-1L, first.getId())).keySet()));
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    // Reads in budgeted tests come from the database, not from the entities the test just saved
+    private void startMeasuring(Measurement measurement) {
+        entityManager.flush();
+        entityManager.clear();
+        measurement.start();
+    }
+
+    private Emergency createWithSteps(String name, int steps) {
+        Emergency emergency = createTestEmergency(name, "Category", Severity.LOW);
+        for (int i = 1; i <= steps; i++) {
+            emergency.addStep(i, "Step " + i + " description", "/images/step" + i + ".png");
+        }
+        Emergency saved = emergencyService.createEmergency(emergency);
+        entityManager.flush();
+        entityManager.clear();
+        return emergencyRepository.findById(saved.getId()).orElseThrow();
+    }
+
     private Emergency createTestEmergency(String name, String category, Severity severity) {
         Emergency emergency = new Emergency();
         emergency.setName(name);
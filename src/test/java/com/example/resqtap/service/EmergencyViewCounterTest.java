@@ -0,0 +1,48 @@
+package com.example.resqtap.service;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("dev")
+class EmergencyViewCounterTest {
+
+    @Autowired
+    private EmergencyViewCounter viewCounter;
+
+    @Autowired
+    private EmergencyService emergencyService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void upsertMatchesTheDatabase() {
+        assertEquals(EmergencyViewCounter.ON_CONFLICT, EmergencyViewCounter.upsertFor("PostgreSQL"));
+        assertEquals(EmergencyViewCounter.MERGE, EmergencyViewCounter.upsertFor("H2"));
+    }
+
+    @Test
+    void flushAddsToExistingCounts() {
+        Long id = emergencyService.getEmergencyBySlug("bee-sting").orElseThrow().getId();
+        long before = views(id);
+
+        viewCounter.recordView(id);
+        viewCounter.flush();
+        viewCounter.recordView(id);
+        viewCounter.recordView(id);
+        viewCounter.flush();
+
+        assertEquals(before + 3, views(id));
+    }
+
+    private long views(Long id) {
+        return jdbcTemplate.queryForObject(
+                "SELECT COALESCE(SUM(views), 0) FROM emergency_view_counts WHERE emergency_id = ?", Long.class, id);
+    }
+}
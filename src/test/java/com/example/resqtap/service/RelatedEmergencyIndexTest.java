@@ -0,0 +1,118 @@
+package com.example.resqtap.service;
+
+import com.example.resqtap.dto.EmergencyDTO;
+import com.example.resqtap.model.Emergency;
+import com.example.resqtap.model.Emergency.Severity;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class RelatedEmergencyIndexTest {
+
+    private EmergencyService emergencyService;
+    private StaleCacheTier staleCacheTier;
+    private List<EmergencyDTO> catalog;
+
+    @BeforeEach
+    void setUp() {
+        emergencyService = mock(EmergencyService.class);
+        staleCacheTier = new StaleCacheTier(new SimpleMeterRegistry(), Duration.ofHours(1), 100);
+        catalog = new ArrayList<>(List.of(
+                dto(1L, "Heart Attack", "Chest pain spreading to the arm", "Call emergency services", "Chew an aspirin"),
+                dto(2L, "Cardiac Arrest", "Heart stopped, no breathing", "Start chest compressions", "Use an AED"),
+                dto(3L, "CPR Adult", "Chest compressions and rescue breaths", "Push hard on the chest", "Give rescue breaths"),
+                dto(4L, "Sunburn", "Red painful skin after sun exposure", "Cool the skin", "Apply aloe gel"),
+                dto(5L, "First Degree Burn", "Red painful skin", "Cool the burn under water", "Cover loosely"),
+                dto(6L, "Bee Sting", "Swelling at the sting site", "Scrape out the stinger", "Apply a cold pack")));
+        when(emergencyService.getAllEmergencies()).thenAnswer(invocation -> List.copyOf(catalog));
+    }
+
+    @Test
+    void testSimilarEmergenciesAreRelated() {
+        RelatedEmergencyIndex index = new RelatedEmergencyIndex(emergencyService, staleCacheTier, 2, Runnable::run);
+
+        assertEquals(Set.of("Cardiac Arrest", "CPR Adult"), titles(index.getRelated(1L).orElseThrow()));
+        assertEquals("First Degree Burn", index.getRelated(4L).orElseThrow().get(0).getTitle());
+        assertTrue(index.getRelated(99L).isEmpty());
+    }
+
+    @Test
+    void testSingleChangeIsAppliedIncrementally() {
+        RelatedEmergencyIndex index = new RelatedEmergencyIndex(emergencyService, staleCacheTier, 2, Runnable::run);
+        index.warmUp();
+
+        EmergencyDTO changed = dto(6L, "Bee Sting Burn", "Red painful skin after sun exposure", "Cool the skin", "Apply aloe gel");
+        catalog.set(5, changed);
+        when(emergencyService.getEmergencyById(6L)).thenReturn(Optional.of(changed));
+        index.onCatalogChanged(new CatalogChangedEvent(2, Set.of(6L)));
+
+        assertEquals("Sunburn", index.getRelated(6L).orElseThrow().get(0).getTitle());
+        assertTrue(titles(index.getRelated(4L).orElseThrow()).contains("Bee Sting Burn"));
+        verify(emergencyService, times(1)).getAllEmergencies();
+
+        RelatedEmergencyIndex rebuilt = new RelatedEmergencyIndex(emergencyService, staleCacheTier, 2, Runnable::run);
+        for (long id = 1; id <= 6; id++) {
+            assertEquals(titles(rebuilt.getRelated(id).orElseThrow()), titles(index.getRelated(id).orElseThrow()),
+                    "related to " + id);
+        }
+    }
+
+    @Test
+    void testDeletedEmergencyDisappearsFromNeighbours() {
+        RelatedEmergencyIndex index = new RelatedEmergencyIndex(emergencyService, staleCacheTier, 2, Runnable::run);
+        assertTrue(titles(index.getRelated(1L).orElseThrow()).contains("Cardiac Arrest"));
+
+        catalog.remove(1);
+        when(emergencyService.getEmergencyById(2L)).thenReturn(Optional.empty());
+        index.onCatalogChanged(new CatalogChangedEvent(2, Set.of(2L)));
+
+        assertTrue(index.getRelated(2L).isEmpty());
+        assertFalse(titles(index.getRelated(1L).orElseThrow()).contains("Cardiac Arrest"));
+        assertTrue(titles(index.getRelated(1L).orElseThrow()).contains("CPR Adult"));
+    }
+
+    @Test
+    void testReadsKeepThePreviousGraphUntilTheRebuildIsDone() {
+        Queue<Runnable> background = new ArrayDeque<>();
+        RelatedEmergencyIndex index = new RelatedEmergencyIndex(emergencyService, staleCacheTier, 2, background::add);
+        index.warmUp();
+
+        catalog.remove(1);
+        index.onCatalogChanged(new CatalogChangedEvent(2, Set.of()));
+        index.onCatalogChanged(new CatalogChangedEvent(3, Set.of()));
+
+        assertEquals(1, background.size());
+        assertTrue(titles(index.getRelated(1L).orElseThrow()).contains("Cardiac Arrest"));
+        background.remove().run();
+        assertFalse(titles(index.getRelated(1L).orElseThrow()).contains("Cardiac Arrest"));
+        assertTrue(background.isEmpty());
+        verify(emergencyService, times(2)).getAllEmergencies();
+    }
+
+    private static Set<String> titles(List<EmergencyDTO> emergencies) {
+        return Set.copyOf(emergencies.stream().map(EmergencyDTO::getTitle).toList());
+    }
+
+    private static EmergencyDTO dto(Long id, String name, String description, String... steps) {
+        Emergency emergency = new Emergency(name, "test", Severity.HIGH, description, "/images/test.png");
+        emergency.setId(id);
+        for (int i = 0; i < steps.length; i++) {
+            emergency.addStep(i + 1, steps[i], "/images/step.png");
+        }
+        return new EmergencyDTO(emergency);
+    }
+}
@@ -0,0 +1,68 @@
+package com.example.resqtap.service;
+
+import com.example.resqtap.dto.EmergencyDTO;
+import com.example.resqtap.model.SearchText;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SearchResultCacheTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    void queriesDifferingInCaseSpacingOrAccentsShareAKey() {
+        assertEquals("burn", SearchText.normalize("burn"));
+        assertEquals("burn", SearchText.normalize(" Burn "));
+        assertEquals("burn", SearchText.normalize("BÜRN"));
+        assertEquals("eye burn", SearchText.normalize("\tEye   \u00A0burn\n"));
+        assertEquals("brulure", SearchText.normalize("Brûlure"));
+    }
+
+    @Test
+    void resultsAreKeptUntilTheCatalogChanges() {
+        SearchResultCache cache = new SearchResultCache(meterRegistry, 100, 100, Duration.ofMinutes(1));
+        cache.put(1, "burn", List.of(dto(1L)));
+
+        assertEquals(1, cache.get(1, "burn").orElseThrow().size());
+        assertTrue(cache.get(2, "burn").isEmpty());
+
+        cache.onCatalogChanged(new CatalogChangedEvent(2, Set.of()));
+        assertTrue(cache.get(1, "burn").isEmpty());
+    }
+
+    @Test
+    void emptyResultsExpireOnTheirOwn() throws Exception {
+        SearchResultCache cache = new SearchResultCache(meterRegistry, 100, 100, Duration.ofMillis(50));
+        cache.put(1, "brn", List.of());
+
+        assertEquals(List.of(), cache.get(1, "brn").orElseThrow());
+        Thread.sleep(100);
+        assertTrue(cache.get(1, "brn").isEmpty());
+    }
+
+    @Test
+    void hitRatioIsExported() {
+        SearchResultCache cache = new SearchResultCache(meterRegistry, 100, 100, Duration.ofMinutes(1));
+        cache.get(1, "burn");
+        cache.put(1, "burn", List.of(dto(1L)));
+        cache.get(1, "burn");
+        cache.get(1, "burn");
+        cache.get(1, "bite");
+
+        assertEquals(0.5, meterRegistry.get("resqtap.search.cache.hit-ratio").gauge().value());
+        assertEquals(2, meterRegistry.get("resqtap.search.cache.requests").tag("result", "hit").functionCounter().count());
+        assertEquals(2, meterRegistry.get("resqtap.search.cache.requests").tag("result", "miss").functionCounter().count());
+    }
+
+    private static EmergencyDTO dto(Long id) {
+        EmergencyDTO dto = new EmergencyDTO();
+        dto.setId(id);
+        return dto;
+    }
+}
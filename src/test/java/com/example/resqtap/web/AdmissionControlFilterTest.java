@@ -0,0 +1,100 @@
+package com.example.resqtap.web;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AdmissionControlFilterTest {
+
+    private AdmissionControlFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        filter = new AdmissionControlFilter(true, new SimpleMeterRegistry());
+    }
+
+    @Test
+    void testClassification() {
+        assertEquals(AdmissionClass.CRITICAL, AdmissionClass.of(get("/api/emergencies/critical")));
+        assertEquals(AdmissionClass.CRITICAL, AdmissionClass.of(get("/api/crisis-plans/slug/cpr-adult")));
+        assertEquals(AdmissionClass.CRITICAL, AdmissionClass.of(get("/api/emergencies/12")));
+        assertEquals(AdmissionClass.LIST, AdmissionClass.of(get("/api/emergencies")));
+        assertEquals(AdmissionClass.LIST, AdmissionClass.of(get("/api/emergencies/category/cardiac")));
+        assertEquals(AdmissionClass.DEFERRABLE, AdmissionClass.of(get("/api/emergencies/search")));
+        assertEquals(AdmissionClass.DEFERRABLE, AdmissionClass.of(new MockHttpServletRequest("PUT", "/api/emergencies/12")));
+        assertNull(AdmissionClass.of(new MockHttpServletRequest("OPTIONS", "/api/emergencies")));
+        assertNull(AdmissionClass.of(get("/api/emergencies-export")));
+        assertNull(AdmissionClass.of(get("/index.html")));
+    }
+
+    @Test
+    void testRequestOverClassLimitIsShed() throws Exception {
+        AdaptiveLimit search = filter.getLimit(AdmissionClass.DEFERRABLE);
+        while (search.tryAcquire()) {
+            // fill every search slot
+        }
+
+        MockHttpServletResponse shed = execute(get("/api/emergencies/search"));
+        assertEquals(503, shed.getStatus());
+        assertEquals("1", shed.getHeader("Retry-After"));
+
+        assertEquals(200, execute(get("/api/emergencies/critical")).getStatus());
+    }
+
+    @Test
+    void testLowerClassesGiveWayToSaturatedCriticalClass() throws Exception {
+        AdaptiveLimit critical = filter.getLimit(AdmissionClass.CRITICAL);
+        int busy = (int) Math.ceil(critical.getLimit() * 0.9);
+        for (int i = 0; i < busy; i++) {
+            assertTrue(critical.tryAcquire());
+        }
+
+        assertEquals(503, execute(get("/api/emergencies/search")).getStatus());
+        assertEquals(503, execute(get("/api/emergencies")).getStatus());
+        assertEquals(200, execute(get("/api/emergencies/slug/cpr-adult")).getStatus());
+    }
+
+    @Test
+    void testLimitShrinksWhenLatencyRises() {
+        AdaptiveLimit limit = new AdaptiveLimit(20, 2, 100, 1.1);
+        long fast = TimeUnit.MILLISECONDS.toNanos(5);
+        for (int i = 0; i < 200; i++) {
+            saturateAndComplete(limit, fast);
+        }
+        int steady = limit.getLimit();
+
+        long slow = TimeUnit.MILLISECONDS.toNanos(50);
+        for (int i = 0; i < 20; i++) {
+            saturateAndComplete(limit, slow);
+        }
+
+        assertTrue(limit.getLimit() < steady / 2, () -> "limit " + limit.getLimit() + " vs steady " + steady);
+    }
+
+    private static void saturateAndComplete(AdaptiveLimit limit, long latencyNanos) {
+        while (limit.tryAcquire()) {
+            // keep the limit fully used so samples count
+        }
+        limit.onComplete(latencyNanos);
+        while (limit.getInFlight() > 0) {
+            limit.onComplete(latencyNanos);
+        }
+    }
+
+    private MockHttpServletResponse execute(MockHttpServletRequest request) throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, new MockFilterChain());
+        return response;
+    }
+
+    private static MockHttpServletRequest get(String uri) {
+        return new MockHttpServletRequest("GET", uri);
+    }
+}
@@ -0,0 +1,61 @@
+package com.example.resqtap.web;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.Matchers.allOf;
+import static org.hamcrest.Matchers.containsString;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// What the cross-origin app (Capacitor, syncService.js) can see of responses made by the filters
+@SpringBootTest
+@ActiveProfiles("dev")
+@AutoConfigureMockMvc
+class CrossOriginTest {
+
+    private static final String ORIGIN = "capacitor://localhost";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private AdmissionControlFilter admissionControlFilter;
+
+    @Test
+    void headersTheAppReadsAreExposed() throws Exception {
+        mockMvc.perform(get("/api/emergencies/search").param("term", "burn").header(HttpHeaders.ORIGIN, ORIGIN))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ACCESS_CONTROL_EXPOSE_HEADERS, allOf(
+                        containsString(HttpHeaders.ETAG), containsString(HttpHeaders.WARNING), containsString(HttpHeaders.AGE),
+                        containsString(HttpHeaders.RETRY_AFTER), containsString(RateLimitFilter.LIMIT),
+                        containsString(RateLimitFilter.REMAINING), containsString(RateLimitFilter.RESET))));
+    }
+
+    @Test
+    void shedRequestCarriesCorsHeaders() throws Exception {
+        AdaptiveLimit search = admissionControlFilter.getLimit(AdmissionClass.DEFERRABLE);
+        int acquired = 0;
+        while (search.tryAcquire()) {
+            acquired++;
+        }
+        try {
+            mockMvc.perform(get("/api/emergencies/search").param("term", "burn").header(HttpHeaders.ORIGIN, ORIGIN))
+                    .andExpect(status().isServiceUnavailable())
+                    .andExpect(header().string(HttpHeaders.RETRY_AFTER, "1"))
+                    .andExpect(header().string(HttpHeaders.ACCESS_CONTROL_ALLOW_ORIGIN, "*"));
+        } finally {
+            for (int i = 0; i < acquired; i++) {
+                search.onComplete(TimeUnit.MILLISECONDS.toNanos(1));
+            }
+        }
+    }
+}
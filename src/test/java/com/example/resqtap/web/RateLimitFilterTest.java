@@ -0,0 +1,97 @@
+package com.example.resqtap.web;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RateLimitFilterTest {
+
+    private RateLimitFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        filter = new RateLimitFilter(true, 3, 1, 2, 1, 1000, new SimpleMeterRegistry());
+    }
+
+    @Test
+    void testSearchIsLimitedPerClient() throws Exception {
+        for (int remaining = 2; remaining >= 0; remaining--) {
+            MockHttpServletResponse response = execute(search("10.0.0.1"));
+            assertEquals(200, response.getStatus());
+            assertEquals("3", response.getHeader(RateLimitFilter.LIMIT));
+            assertEquals(Integer.toString(remaining), response.getHeader(RateLimitFilter.REMAINING));
+        }
+
+        MockHttpServletResponse limited = execute(search("10.0.0.1"));
+        assertEquals(429, limited.getStatus());
+        assertEquals("0", limited.getHeader(RateLimitFilter.REMAINING));
+        assertEquals("1", limited.getHeader("Retry-After"));
+        assertEquals("3", limited.getHeader(RateLimitFilter.RESET));
+
+        assertEquals(200, execute(search("10.0.0.2")).getStatus());
+    }
+
+    @Test
+    void testGroupsHaveSeparateBuckets() throws Exception {
+        MockHttpServletRequest update = new MockHttpServletRequest("PUT", "/api/emergencies/1");
+        update.setRemoteAddr("10.0.0.1");
+        assertEquals(200, execute(update).getStatus());
+        assertEquals(200, execute(update).getStatus());
+        assertEquals(429, execute(update).getStatus());
+
+        assertEquals(200, execute(search("10.0.0.1")).getStatus());
+    }
+
+    @Test
+    void testOtherEndpointsAreNotLimited() throws Exception {
+        for (int i = 0; i < 10; i++) {
+            MockHttpServletResponse response = execute(new MockHttpServletRequest("GET", "/api/emergencies/critical"));
+            assertEquals(200, response.getStatus());
+            assertNull(response.getHeader(RateLimitFilter.LIMIT));
+        }
+    }
+
+    @Test
+    void testTokenBucketRefills() {
+        long interval = TimeUnit.MILLISECONDS.toNanos(100);
+        TokenBucket bucket = new TokenBucket(2, interval, 0);
+
+        assertEquals(1, bucket.remaining(bucket.tryConsume(0)));
+        assertEquals(0, bucket.remaining(bucket.tryConsume(0)));
+        assertEquals(-interval, bucket.tryConsume(0));
+        assertEquals(-interval / 2, bucket.tryConsume(interval / 2));
+
+        assertTrue(bucket.tryConsume(interval) >= 0);
+        assertTrue(bucket.tryConsume(interval) < 0);
+        assertEquals(1, bucket.remaining(bucket.tryConsume(10 * interval)));
+    }
+
+    @Test
+    void testSettingsThatCannotBeRepresentedAreRejected() {
+        assertThrows(IllegalArgumentException.class, () -> new RateLimiter(10, 2e9, 100));
+        assertThrows(IllegalArgumentException.class, () -> new RateLimiter(10, 0, 100));
+        assertThrows(IllegalArgumentException.class, () -> new RateLimiter(0, 1, 100));
+        assertThrows(IllegalArgumentException.class, () -> new TokenBucket(0, 100, 0));
+        assertThrows(IllegalArgumentException.class, () -> new TokenBucket(10, 0, 0));
+    }
+
+    private MockHttpServletResponse execute(MockHttpServletRequest request) throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, new MockFilterChain());
+        return response;
+    }
+
+    private static MockHttpServletRequest search(String remoteAddr) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/emergencies/search");
+        request.setParameter("term", "cpr");
+        request.setRemoteAddr(remoteAddr);
+        return request;
+    }
+}